@@ -17,8 +17,6 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class PersonalColorApplication {
 
     public static void main(String[] args) {
-        // Virtual Threads 활성화 (JDK 21+)
-        System.setProperty("spring.threads.virtual.enabled", "true");
         SpringApplication.run(PersonalColorApplication.class, args);
     }
 }
\ No newline at end of file
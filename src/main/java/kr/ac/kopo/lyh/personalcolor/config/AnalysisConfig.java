@@ -0,0 +1,450 @@
+package kr.ac.kopo.lyh.personalcolor.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisRequestCoalescer;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.AdaptiveConcurrencyLimiter;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.ColorAnalysisEngine;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.ColorLookupTables;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.CpuBoundExecutor;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeBudget;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.RemoteColorAnalysisEngine;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.SingleFlight;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 컬러 분석 엔진 설정
+ * app.analysis.engine 값(local / remote)에 따라 엔진 구현을 선택
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(AnalysisConfig.AnalysisProperties.class)
+public class AnalysisConfig {
+
+    /**
+     * sRGB → Lab 룩업 테이블 (시작 시 1회 생성)
+     */
+    @Bean
+    public ColorLookupTables colorLookupTables(MeterRegistry meterRegistry) {
+        long start = System.nanoTime();
+        ColorLookupTables tables = ColorLookupTables.build();
+        log.info("Lab 룩업 테이블 생성 완료 - {} KB, {} ms",
+                tables.footprintBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+
+        Gauge.builder("personalcolor.analysis.lut.bytes", tables, ColorLookupTables::footprintBytes)
+                .description("sRGB → Lab 룩업 테이블 메모리 사용량")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return tables;
+    }
+
+    /**
+     * 분석/축소 이미지 디코딩이 공유하는 픽셀 상한과 동시 디코딩 메모리 예산
+     */
+    @Bean
+    public DecodeBudget decodeBudget(AnalysisProperties properties, MeterRegistry meterRegistry) {
+        AnalysisProperties.Decode decode = properties.decode();
+        DecodeBudget budget = new DecodeBudget(decode.maxPixels(), decode.memoryBudget(), decode.maxWait());
+
+        Gauge.builder("personalcolor.analysis.decode.budget.available", budget, DecodeBudget::availableBytes)
+                .description("남은 동시 디코딩 메모리 예산")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return budget;
+    }
+
+    /**
+     * 분석 엔진 호출 수락 제어 (지연 시간 기반 AIMD 동시 실행 한도, 대기 시간 제한)
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter analysisConcurrencyLimiter(AnalysisProperties properties,
+                                                                 MeterRegistry meterRegistry) {
+        AnalysisProperties.Admission admission = properties.admission();
+        if (!admission.enabled()) {
+            log.info("분석 수락 제어 비활성화");
+            return AdaptiveConcurrencyLimiter.UNLIMITED;
+        }
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                admission.initialLimit(), admission.minLimit(), admission.maxLimit(), admission.maxQueue(),
+                admission.queueTimeout(), admission.latencyTarget(), admission.backoffRatio());
+        log.info("분석 수락 제어 - 한도: {} ({}~{}), 대기열: {}, 대기 시간: {}, 목표 지연: {}",
+                admission.initialLimit(), admission.minLimit(), admission.maxLimit(), admission.maxQueue(),
+                admission.queueTimeout(), admission.latencyTarget());
+
+        Gauge.builder("personalcolor.analysis.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("현재 분석 동시 실행 한도")
+                .register(meterRegistry);
+        Gauge.builder("personalcolor.analysis.admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("실행 중인 분석 수")
+                .register(meterRegistry);
+        Gauge.builder("personalcolor.analysis.admission.waiting", limiter, AdaptiveConcurrencyLimiter::getWaiting)
+                .description("차례를 기다리는 분석 요청 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("personalcolor.analysis.admission.rejected", limiter,
+                        AdaptiveConcurrencyLimiter::getRejections)
+                .description("한도 초과로 거절한 분석 요청 수 (429)")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * 같은 이미지의 동시 분석 요청 병합 (진행 중 항목만 보관, 잠금 구간: CPU 수 x 4)
+     */
+    @Bean
+    public SingleFlight<String, AnalysisRequestCoalescer.Flight> analysisSingleFlight(MeterRegistry meterRegistry) {
+        SingleFlight<String, AnalysisRequestCoalescer.Flight> singleFlight =
+                new SingleFlight<>(Runtime.getRuntime().availableProcessors() * 4);
+
+        Gauge.builder("personalcolor.analysis.singleflight.inflight", singleFlight, SingleFlight::inFlight)
+                .description("진행 중인 분석 요청 키 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("personalcolor.analysis.singleflight.shared", singleFlight, SingleFlight::getShared)
+                .description("진행 중인 같은 요청의 결과를 공유한 분석 요청 수")
+                .register(meterRegistry);
+        return singleFlight;
+    }
+
+    /**
+     * 큰 이미지 타일 병렬 분석용 ForkJoinPool
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool analysisForkJoinPool(AnalysisProperties properties) {
+        int parallelism = properties.parallel().parallelism();
+        int workingPixels = properties.maxWorkingEdge() * properties.maxWorkingEdge();
+        log.info("타일 병렬 분석 풀 생성 - parallelism: {}, 임계치: {} px, 타일: {} px",
+                parallelism, properties.parallel().thresholdPixels(), properties.parallel().tilePixels());
+        if (properties.parallel().thresholdPixels() > workingPixels) {
+            log.warn("병렬 분석 임계치({} px)가 작업 래스터 최대 크기({} px)보다 커서 타일 병렬 분석이 실행되지 않습니다.",
+                    properties.parallel().thresholdPixels(), workingPixels);
+        }
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("PersonalColor-Analysis-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * 업로드 후 분석 작업자 풀
+     * 작업은 DB 대기열(analysis_jobs)에 쌓이고, 작업자는 빈 스레드 수만큼만 선점하므로
+     * 풀의 대기열은 스레드가 반환되는 짧은 순간을 위한 여유분(작업자 수)만 둔다.
+     */
+    @Bean(name = "analysisJobExecutor")
+    public ThreadPoolTaskExecutor analysisJobExecutor(AnalysisProperties properties) {
+        AnalysisProperties.Jobs jobs = properties.jobs();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobs.workers());
+        executor.setMaxPoolSize(jobs.workers());
+        executor.setQueueCapacity(jobs.workers());
+        executor.setThreadNamePrefix("PersonalColor-Job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        log.info("분석 작업자 풀 생성 - 작업자: {}, 선점 배치: {}, 임대: {}", jobs.workers(), jobs.batchSize(), jobs.lease());
+        return executor;
+    }
+
+    /**
+     * 요청 처리 스레드에서 엔진을 호출할 때의 실행 위치 (플랫폼 스레드 모드: 호출 스레드에서 바로 실행)
+     */
+    @Bean(name = "analysisCpuExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public CpuBoundExecutor platformAnalysisCpuExecutor() {
+        return CpuBoundExecutor.CALLER_RUNS;
+    }
+
+    /**
+     * 가상 스레드 모드의 분석 전용 플랫폼 스레드 풀
+     * 스레드 수는 CPU 수(parallel.parallelism)로 고정하고, 수락 제어가 동시 실행을 max-limit 이하로 묶으므로
+     * 대기열은 그만큼에 작업자 수(dHash 계산)와 스레드 수(축소 이미지 생성)만큼 여유를 더한다
+     * (넘치면 분석 서비스가 RejectedExecutionException을 AnalysisOverloadedException으로 바꿔 429).
+     */
+    @Bean(name = "analysisCpuExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public CpuBoundExecutor virtualAnalysisCpuExecutor(AnalysisProperties properties) {
+        int threads = properties.parallel().parallelism();
+        int queueCapacity = Math.max(threads, properties.admission().maxLimit())
+                + properties.jobs().workers() + threads;
+        log.info("가상 스레드 모드 - 분석 전용 플랫폼 스레드 풀 생성: {} 스레드, 대기열: {}", threads, queueCapacity);
+        return new CpuBoundExecutor(new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("PersonalColor-Cpu-")));
+    }
+
+    /**
+     * 모델 서버 전용 커넥션 풀
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(prefix = "app.analysis", name = "engine", havingValue = "remote")
+    public ConnectionProvider modelServerConnectionProvider(AnalysisProperties properties) {
+        AnalysisProperties.Remote remote = properties.remote();
+        return ConnectionProvider.builder("model-server")
+                .maxConnections(remote.maxConnections())
+                .pendingAcquireTimeout(remote.pendingAcquireTimeout())
+                .maxIdleTime(remote.maxIdleTime())
+                .build();
+    }
+
+    /**
+     * 모델 서버 HTTP 클라이언트 엔진
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.analysis", name = "engine", havingValue = "remote")
+    public ColorAnalysisEngine remoteColorAnalysisEngine(WebClient.Builder webClientBuilder,
+                                                         ConnectionProvider modelServerConnectionProvider,
+                                                         AnalysisProperties properties) {
+        log.info("원격 컬러 분석 엔진 사용: {}", properties.remote().baseUrl());
+        return new RemoteColorAnalysisEngine(webClientBuilder, modelServerConnectionProvider, properties.remote());
+    }
+
+    /**
+     * 컬러 분석 설정 프로퍼티
+     */
+    @ConfigurationProperties(prefix = "app.analysis")
+    public record AnalysisProperties(
+            String engine,
+            int maxWorkingEdge,
+            boolean simdEnabled,
+            Parallel parallel,
+            Cascade cascade,
+            NearDuplicate nearDuplicate,
+            Decode decode,
+            Jobs jobs,
+            Admission admission,
+            Remote remote
+    ) {
+        public AnalysisProperties {
+            if (engine == null || engine.isBlank()) {
+                engine = "local";
+            }
+            if (maxWorkingEdge <= 0) {
+                maxWorkingEdge = 512;
+            }
+            if (parallel == null) {
+                parallel = new Parallel(0, 0, 0);
+            }
+            parallel = parallel.withWorkingPixels(maxWorkingEdge * maxWorkingEdge);
+            if (cascade == null) {
+                cascade = new Cascade(false, 0, 0.0);
+            }
+            if (nearDuplicate == null) {
+                nearDuplicate = new NearDuplicate(false, 0, null);
+            }
+            if (decode == null) {
+                decode = new Decode(0, 0, null);
+            }
+            if (jobs == null) {
+                jobs = new Jobs(0, 0, null, null, 0, null, 0, null);
+            }
+            if (admission == null) {
+                admission = new Admission(true, 0, 0, 0, 0, null, null, 0.0);
+            }
+            if (remote == null) {
+                remote = new Remote(null, null, 0, null, null, null, null, 0, null, 0, null);
+            }
+        }
+
+        /**
+         * 타일 병렬 분석 설정
+         * 분석 래스터는 max-working-edge² 픽셀을 넘지 않으므로, 지정하지 않은 임계치와 타일 크기는 그 값에서 정한다.
+         *
+         * @param thresholdPixels 이 픽셀 수 이상인 래스터만 병렬 처리 (기본값: 작업 래스터의 절반)
+         * @param tilePixels      타일 1개의 최대 픽셀 수 (기본값: 작업 래스터의 1/8)
+         * @param parallelism     ForkJoinPool 병렬도
+         */
+        public record Parallel(
+                int thresholdPixels,
+                int tilePixels,
+                int parallelism
+        ) {
+            public Parallel {
+                thresholdPixels = Math.max(0, thresholdPixels);
+                tilePixels = Math.max(0, tilePixels);
+                parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+            }
+
+            /**
+             * 작업 래스터 픽셀 수에 맞춘 기본 임계치/타일 크기 적용 (지정한 값은 유지)
+             */
+            Parallel withWorkingPixels(int workingPixels) {
+                return new Parallel(
+                        thresholdPixels > 0 ? thresholdPixels : Math.max(1, workingPixels / 2),
+                        tilePixels > 0 ? tilePixels : Math.max(1, workingPixels / 8),
+                        parallelism);
+            }
+        }
+
+        /**
+         * 단계적 분석 설정
+         * 썸네일 판정의 1·2순위 확률 차이가 임계치 이상이면 전체 해상도 분석을 생략
+         *
+         * @param enabled         단계적 분석 사용 여부
+         * @param thumbnailEdge   1단계 썸네일 최대 해상도 (긴 변 px)
+         * @param marginThreshold 1단계에서 종료하기 위한 최소 확률 차이 (0~1)
+         */
+        public record Cascade(
+                boolean enabled,
+                int thumbnailEdge,
+                double marginThreshold
+        ) {
+            public Cascade {
+                thumbnailEdge = thumbnailEdge > 0 ? thumbnailEdge : 64;
+                marginThreshold = marginThreshold > 0 ? marginThreshold : 0.2;
+            }
+        }
+
+        /**
+         * 유사 이미지(재압축, 약간 잘린 사진) 재사용 설정
+         *
+         * @param enabled     사용 여부
+         * @param maxDistance 같은 사진으로 볼 dHash 최대 해밍 거리 (0~64)
+         * @param retention   사용자별 인덱스에 유지할 기간
+         */
+        public record NearDuplicate(
+                boolean enabled,
+                int maxDistance,
+                Duration retention
+        ) {
+            public NearDuplicate {
+                maxDistance = maxDistance > 0 ? maxDistance : 6;
+                retention = retention != null ? retention : Duration.ofDays(30);
+            }
+        }
+
+        /**
+         * 디코딩 안전장치 설정
+         *
+         * @param maxPixels    허용하는 원본 최대 픽셀 수 (헤더에 선언된 너비 x 높이)
+         * @param memoryBudget 동시 디코딩 래스터 메모리 합계 상한 (bytes)
+         * @param maxWait      예산이 부족할 때 대기열에서 기다리는 최대 시간
+         */
+        public record Decode(
+                long maxPixels,
+                long memoryBudget,
+                Duration maxWait
+        ) {
+            public Decode {
+                maxPixels = maxPixels > 0 ? maxPixels : 100_000_000L;
+                memoryBudget = memoryBudget > 0 ? memoryBudget : 128L * 1024 * 1024;
+                maxWait = maxWait != null ? maxWait : Duration.ofSeconds(2);
+            }
+        }
+
+        /**
+         * 분석 작업(업로드 후 비동기 분석) 설정
+         *
+         * @param workers       노드당 분석 작업자 스레드 수
+         * @param queueCapacity 대기(PENDING) 작업 수 한도 (전체 노드 합계, 넘으면 429)
+         * @param retention     끝난 작업 상태를 조회용으로 보관하는 기간
+         * @param sseTimeout    완료 알림(SSE) 연결 최대 유지 시간
+         * @param batchSize     한 번에 선점하는 최대 작업 수
+         * @param lease         선점한 작업의 임대 시간 (하트비트로 연장, 만료되면 다른 노드가 회수)
+         * @param maxAttempts   작업당 최대 시도 횟수
+         * @param retryBackoff  재시도 기본 대기 시간 (시도마다 2배)
+         */
+        public record Jobs(
+                int workers,
+                int queueCapacity,
+                Duration retention,
+                Duration sseTimeout,
+                int batchSize,
+                Duration lease,
+                int maxAttempts,
+                Duration retryBackoff
+        ) {
+            public Jobs {
+                workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+                queueCapacity = queueCapacity > 0 ? queueCapacity : 100;
+                retention = retention != null ? retention : Duration.ofHours(1);
+                sseTimeout = sseTimeout != null ? sseTimeout : Duration.ofMinutes(2);
+                batchSize = batchSize > 0 ? batchSize : 10;
+                lease = lease != null ? lease : Duration.ofSeconds(60);
+                maxAttempts = maxAttempts > 0 ? maxAttempts : 3;
+                retryBackoff = retryBackoff != null ? retryBackoff : Duration.ofSeconds(5);
+            }
+        }
+
+        /**
+         * 분석 수락 제어 설정 (AIMD)
+         *
+         * @param enabled       사용 여부
+         * @param initialLimit  시작 동시 실행 한도
+         * @param minLimit      최소 한도
+         * @param maxLimit      최대 한도
+         * @param maxQueue      한도가 찼을 때 기다릴 수 있는 요청 수 (넘으면 429)
+         * @param queueTimeout  대기열 최대 대기 시간 (넘으면 429)
+         * @param latencyTarget 분석 1건의 목표 지연 시간 (넘으면 한도 감소)
+         * @param backoffRatio  한도 감소 비율
+         */
+        public record Admission(
+                boolean enabled,
+                int initialLimit,
+                int minLimit,
+                int maxLimit,
+                int maxQueue,
+                Duration queueTimeout,
+                Duration latencyTarget,
+                double backoffRatio
+        ) {
+            public Admission {
+                int cpus = Runtime.getRuntime().availableProcessors();
+                minLimit = minLimit > 0 ? minLimit : 1;
+                maxLimit = maxLimit > 0 ? maxLimit : cpus * 4;
+                initialLimit = initialLimit > 0 ? initialLimit : cpus;
+                maxQueue = maxQueue > 0 ? maxQueue : cpus * 2;
+                queueTimeout = queueTimeout != null ? queueTimeout : Duration.ofSeconds(1);
+                latencyTarget = latencyTarget != null ? latencyTarget : Duration.ofSeconds(2);
+                backoffRatio = backoffRatio > 0 && backoffRatio < 1 ? backoffRatio : 0.9;
+            }
+        }
+
+        /**
+         * 모델 서버 연동 설정
+         */
+        public record Remote(
+                String baseUrl,
+                String predictPath,
+                int maxConnections,
+                Duration pendingAcquireTimeout,
+                Duration maxIdleTime,
+                Duration connectTimeout,
+                Duration responseTimeout,
+                int maxConcurrentCalls,
+                Duration bulkheadWait,
+                int failureThreshold,
+                Duration openDuration
+        ) {
+            public Remote {
+                baseUrl = baseUrl != null ? baseUrl : "http://localhost:5000";
+                predictPath = predictPath != null ? predictPath : "/predict";
+                maxConnections = maxConnections > 0 ? maxConnections : 50;
+                pendingAcquireTimeout = pendingAcquireTimeout != null ? pendingAcquireTimeout : Duration.ofSeconds(2);
+                maxIdleTime = maxIdleTime != null ? maxIdleTime : Duration.ofSeconds(30);
+                connectTimeout = connectTimeout != null ? connectTimeout : Duration.ofSeconds(1);
+                responseTimeout = responseTimeout != null ? responseTimeout : Duration.ofSeconds(5);
+                maxConcurrentCalls = maxConcurrentCalls > 0 ? maxConcurrentCalls : 20;
+                bulkheadWait = bulkheadWait != null ? bulkheadWait : Duration.ofMillis(100);
+                failureThreshold = failureThreshold > 0 ? failureThreshold : 5;
+                openDuration = openDuration != null ? openDuration : Duration.ofSeconds(30);
+            }
+        }
+    }
+}
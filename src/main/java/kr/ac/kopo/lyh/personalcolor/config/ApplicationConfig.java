@@ -4,20 +4,25 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
 
+import java.time.Duration;
 import java.util.concurrent.Executor;
 
 /**
  * Application Configuration for Spring Boot 3.4
- * Virtual Threads 및 비동기 처리 설정
+ * 비동기 처리 설정 (spring.threads.virtual.enabled=true + JDK 21이면 가상 스레드, 그 외에는 플랫폼 스레드 풀)
  */
 @Slf4j
 @Configuration
@@ -25,11 +30,11 @@ import java.util.concurrent.Executor;
 public class ApplicationConfig {
 
     /**
-     * Virtual Threads를 사용한 비동기 작업 실행자
-     * Spring Boot 3.4에서 Virtual Threads 지원
+     * 비동기 작업 실행자 (플랫폼 스레드 풀)
      */
     @Bean(name = "taskExecutor")
     @Primary
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(10);
@@ -45,9 +50,27 @@ public class ApplicationConfig {
     }
 
     /**
-     * Virtual Threads 기반 스케줄러 (Spring Boot 3.4+)
+     * 비동기 작업 실행자 (가상 스레드 모드: 작업마다 가상 스레드)
+     * spring.threads.virtual.enabled=true이고 JDK 21 이상에서 실행할 때만 사용된다.
+     * 입출력 대기 위주 작업용이며, CPU 위주 분석은 analysisCpuExecutor 플랫폼 스레드 풀에서 실행한다.
+     */
+    @Bean(name = "taskExecutor")
+    @Primary
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualThreadTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("PersonalColor-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(60_000);
+
+        // Security Context를 비동기 작업에 전파
+        return new DelegatingSecurityContextAsyncTaskExecutor(executor);
+    }
+
+    /**
+     * 스케줄러 (플랫폼 스레드 풀)
      */
     @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
     public ThreadPoolTaskScheduler taskScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
         scheduler.setPoolSize(5);
@@ -57,6 +80,19 @@ public class ApplicationConfig {
         return scheduler;
     }
 
+    /**
+     * 스케줄러 (가상 스레드 모드: 트리거는 단일 스케줄러 스레드, 실행은 가상 스레드)
+     */
+    @Bean(name = "taskScheduler")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskScheduler virtualThreadTaskScheduler() {
+        SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+        scheduler.setVirtualThreads(true);
+        scheduler.setThreadNamePrefix("PersonalColor-Scheduler-");
+        scheduler.setTaskTerminationTimeout(30_000);
+        return scheduler;
+    }
+
     /**
      * Jackson ObjectMapper 설정
      */
@@ -71,15 +107,118 @@ public class ApplicationConfig {
 
     /**
      * 파일 저장소 설정 프로퍼티
+     *
+     * @param uploadDir         업로드 디렉토리
+     * @param maxFileSize       최대 파일 크기 (bytes)
+     * @param allowedExtensions 허용 포맷 확장자
+     * @param layout            디렉토리 배치 방식
+     * @param migration         기존 파일 배치 전환 설정
+     * @param derivatives       축소 이미지(썸네일) 캐시 설정
+     * @param hotCache          최근 파일 메모리 캐시 설정
+     * @param resumable         이어 올리기(분할 업로드) 설정
      */
     @ConfigurationProperties(prefix = "app.file-storage")
     public record FileStorageProperties(
             String uploadDir,
             long maxFileSize,
-            String[] allowedExtensions
+            String[] allowedExtensions,
+            Layout layout,
+            Migration migration,
+            Derivatives derivatives,
+            HotCache hotCache,
+            Resumable resumable
     ) {
-        public FileStorageProperties() {
-            this("uploads", 10485760L, new String[]{".jpg", ".jpeg", ".png", ".gif", ".bmp"});
+        public FileStorageProperties {
+            uploadDir = uploadDir != null ? uploadDir : "uploads";
+            maxFileSize = maxFileSize > 0 ? maxFileSize : 10485760L;
+            allowedExtensions = allowedExtensions != null
+                    ? allowedExtensions
+                    : new String[]{".jpg", ".jpeg", ".png", ".gif", ".bmp"};
+            layout = layout != null ? layout : Layout.FLAT;
+            migration = migration != null ? migration : new Migration(0, null);
+            derivatives = derivatives != null ? derivatives : new Derivatives(null, null, 0);
+            hotCache = hotCache != null ? hotCache : new HotCache(true, 0, 0, null);
+            resumable = resumable != null ? resumable : new Resumable(null, null);
+        }
+
+        /**
+         * 디렉토리 배치 방식
+         * FLAT: 업로드 디렉토리 바로 아래, SHARDED: 내용 해시 앞 4자리로 2단계 하위 디렉토리 (ab/cd/&lt;digest&gt;.jpg)
+         */
+        public enum Layout {
+            FLAT, SHARDED
+        }
+
+        /**
+         * 기존 파일 배치 전환 설정
+         *
+         * @param batchSize 한 번에 옮길 파일 수
+         * @param pause     배치 사이 대기 시간 (디스크/DB 부하 제한)
+         */
+        public record Migration(
+                int batchSize,
+                Duration pause
+        ) {
+            public Migration {
+                batchSize = batchSize > 0 ? batchSize : 200;
+                pause = pause != null ? pause : Duration.ofSeconds(1);
+            }
+        }
+
+        /**
+         * 축소 이미지 캐시 설정
+         *
+         * @param dir      축소 이미지 저장 디렉토리
+         * @param widths   생성을 허용하는 너비 목록 (px)
+         * @param maxBytes 디스크 사용량 상한, 초과하면 가장 오래 사용하지 않은 파일부터 삭제
+         */
+        public record Derivatives(
+                String dir,
+                int[] widths,
+                long maxBytes
+        ) {
+            public Derivatives {
+                dir = dir != null ? dir : "derivatives";
+                widths = widths != null && widths.length > 0 ? widths : new int[]{128, 256, 512};
+                maxBytes = maxBytes > 0 ? maxBytes : 256L * 1024 * 1024;
+            }
+        }
+
+        /**
+         * 최근 저장/조회한 파일의 메모리 캐시 설정
+         *
+         * @param enabled       사용 여부
+         * @param maxBytes      캐시 전체 메모리 상한 (direct 버퍼 바이트 합계)
+         * @param maxEntryBytes 캐시할 파일 하나의 최대 크기
+         * @param ttl           마지막 저장/조회 이후 유지 시간
+         */
+        public record HotCache(
+                boolean enabled,
+                long maxBytes,
+                long maxEntryBytes,
+                Duration ttl
+        ) {
+            public HotCache {
+                maxBytes = maxBytes > 0 ? maxBytes : 64L * 1024 * 1024;
+                maxEntryBytes = maxEntryBytes > 0 ? maxEntryBytes : 4L * 1024 * 1024;
+                ttl = ttl != null ? ttl : Duration.ofMinutes(10);
+            }
+        }
+
+        /**
+         * 이어 올리기 설정
+         *
+         * @param stagingDir 완료 전 조각을 이어 쓰는 임시 디렉토리
+         * @param expiry     마지막 조각 이후 이 시간이 지나면 버려진 업로드로 보고 삭제
+         */
+        public record Resumable(
+                String stagingDir,
+                Duration expiry
+        ) {
+            public Resumable {
+                stagingDir = stagingDir != null ? stagingDir : "staging";
+                expiry = expiry != null ? expiry : Duration.ofHours(24);
+            }
         }
     }
-}
\ No newline at end of file
+}
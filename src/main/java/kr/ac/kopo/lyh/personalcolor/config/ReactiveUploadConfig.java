@@ -0,0 +1,93 @@
+package kr.ac.kopo.lyh.personalcolor.config;
+
+import kr.ac.kopo.lyh.personalcolor.controller.ReactiveUploadHandler;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisRequestCoalescer;
+import kr.ac.kopo.lyh.personalcolor.service.FileStorageService;
+import kr.ac.kopo.lyh.personalcolor.service.ReactiveUploadService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ServletHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 논블로킹 업로드 경로 설정 (POST /reactive/upload)
+ * 애플리케이션은 서블릿(MVC) 스택으로 동작하므로 WebFlux 라우터를 ServletHttpHandlerAdapter로 감싸
+ * 별도 비동기 서블릿에 등록한다. 같은 톰캣, 같은 필터 체인(보안, 세션) 위에서 서블릿 비동기 IO로 본문을 읽는다.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ReactiveUploadConfig.ReactiveUploadProperties.class)
+@ConditionalOnProperty(prefix = "app.reactive-upload", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveUploadConfig {
+
+    /**
+     * 저장소 이동과 분석을 실행하는 스케줄러
+     * 스레드 수와 대기열을 제한하여 업로드가 몰려도 분석이 CPU와 DB 커넥션을 넘치게 쓰지 않는다.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler reactiveAnalysisScheduler(ReactiveUploadProperties properties) {
+        log.info("논블로킹 업로드 분석 스케줄러 생성 - 스레드: {}, 대기열: {}",
+                properties.analysisThreads(), properties.analysisQueueSize());
+        return Schedulers.newBoundedElastic(properties.analysisThreads(), properties.analysisQueueSize(),
+                "PersonalColor-Reactive-Analysis");
+    }
+
+    @Bean
+    public ReactiveUploadService reactiveUploadService(FileStorageService fileStorageService,
+                                                       AnalysisRequestCoalescer analysisRequestCoalescer,
+                                                       ApplicationConfig.FileStorageProperties fileStorageProperties,
+                                                       Scheduler reactiveAnalysisScheduler) {
+        return new ReactiveUploadService(fileStorageService, analysisRequestCoalescer, fileStorageProperties,
+                reactiveAnalysisScheduler);
+    }
+
+    /**
+     * WebFlux 라우터를 /reactive/* 비동기 서블릿으로 등록
+     */
+    @Bean
+    public ServletRegistrationBean<ServletHttpHandlerAdapter> reactiveUploadServlet(
+            ReactiveUploadService reactiveUploadService,
+            ApplicationConfig.FileStorageProperties fileStorageProperties) {
+        ReactiveUploadHandler handler = new ReactiveUploadHandler(reactiveUploadService, fileStorageProperties.maxFileSize());
+        RouterFunction<ServerResponse> routes = RouterFunctions.route(RequestPredicates.POST("/upload"), handler::upload);
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes, HandlerStrategies.withDefaults());
+
+        ServletRegistrationBean<ServletHttpHandlerAdapter> registration =
+                new ServletRegistrationBean<>(new ServletHttpHandlerAdapter(httpHandler), "/reactive/*");
+        registration.setName("reactiveUploadServlet");
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+
+    /**
+     * 논블로킹 업로드 설정 프로퍼티
+     *
+     * @param enabled           /reactive/upload 경로 사용 여부
+     * @param analysisThreads   분석 스케줄러 최대 스레드 수
+     * @param analysisQueueSize 스레드가 모두 사용 중일 때 대기할 수 있는 작업 수 (넘으면 Retry-After와 함께 429)
+     */
+    @ConfigurationProperties(prefix = "app.reactive-upload")
+    public record ReactiveUploadProperties(
+            boolean enabled,
+            int analysisThreads,
+            int analysisQueueSize
+    ) {
+        public ReactiveUploadProperties {
+            analysisThreads = analysisThreads > 0 ? analysisThreads : Runtime.getRuntime().availableProcessors();
+            analysisQueueSize = analysisQueueSize > 0 ? analysisQueueSize : 100;
+        }
+    }
+}
@@ -112,7 +112,7 @@ public class SecurityConfig {
 
         // 허용할 HTTP 메서드
         configuration.setAllowedMethods(Arrays.asList(
-                "GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
+                "GET", "HEAD", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
 
         // 허용할 헤더
         configuration.setAllowedHeaders(Arrays.asList("*"));
@@ -122,7 +122,11 @@ public class SecurityConfig {
 
         // 노출할 헤더
         configuration.setExposedHeaders(Arrays.asList(
-                "Authorization", "Cache-Control", "Content-Type"));
+                "Authorization", "Cache-Control", "Content-Type",
+                // 이어 올리기 (/api/uploads)
+                "Location", "Tus-Resumable", "Upload-Offset", "Upload-Length",
+                // 파일 재검증과 구간 요청 (/files)
+                "ETag", "Accept-Ranges", "Content-Range"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
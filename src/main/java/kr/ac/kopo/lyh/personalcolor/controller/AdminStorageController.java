@@ -0,0 +1,46 @@
+package kr.ac.kopo.lyh.personalcolor.controller;
+
+import kr.ac.kopo.lyh.personalcolor.service.StorageMigrationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 업로드 저장소 관리 (관리자 전용)
+ */
+@RestController
+@RequestMapping("/api/admin/storage")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminStorageController {
+
+    private final StorageMigrationService storageMigrationService;
+
+    /**
+     * 샤드 배치 전환 시작
+     */
+    @PostMapping("/migration")
+    public ResponseEntity<?> startMigration() {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(storageMigrationService.start());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    /**
+     * 샤드 배치 전환 진행 상태
+     */
+    @GetMapping("/migration")
+    public ResponseEntity<StorageMigrationService.MigrationStatus> migrationStatus() {
+        return ResponseEntity.ok(storageMigrationService.getStatus());
+    }
+}
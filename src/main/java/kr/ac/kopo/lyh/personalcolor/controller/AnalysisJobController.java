@@ -0,0 +1,80 @@
+package kr.ac.kopo.lyh.personalcolor.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisNotFoundException;
+import kr.ac.kopo.lyh.personalcolor.exception.UnauthorizedAccessException;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * 분석 작업 상태 API
+ * 업로드 응답(202)의 작업 ID로 상태를 조회하거나, SSE로 완료 알림을 받는다.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class AnalysisJobController {
+
+    private final AnalysisJobService analysisJobService;
+
+    /**
+     * 작업 상태 조회 (폴링)
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> status(@PathVariable String id, HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute("user") == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "error", "로그인이 필요합니다."));
+        }
+
+        User user = (User) session.getAttribute("user");
+        AnalysisJobService.JobStatus status = analysisJobService.getStatus(id, user);
+
+        // 결과 화면(/results)이 이번 분석을 보여주도록 세션에 분석 결과 ID 저장
+        if (status.result() != null) {
+            session.setAttribute("latestAnalysisId", status.result().analysisId());
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(status);
+    }
+
+    /**
+     * 작업 완료 알림 (text/event-stream, "status" 이벤트)
+     * 비동기 응답이라 세션을 갱신하지 않으므로, 클라이언트는 완료 알림 뒤 상태 조회를 한 번 호출해 결과 ID를 세션에 남긴다.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable String id, HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute("user") == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            User user = (User) session.getAttribute("user");
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(analysisJobService.subscribe(id, user));
+        } catch (AnalysisNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (UnauthorizedAccessException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+}
@@ -1,48 +1,175 @@
 package kr.ac.kopo.lyh.personalcolor.controller;
 
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import kr.ac.kopo.lyh.personalcolor.exception.ImageTooLargeException;
 import kr.ac.kopo.lyh.personalcolor.service.FileStorageService;
+import kr.ac.kopo.lyh.personalcolor.service.HotFileCache;
+import kr.ac.kopo.lyh.personalcolor.service.ImageFormat;
+import kr.ac.kopo.lyh.personalcolor.service.ThumbnailService;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeRejectedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequiredArgsConstructor
 @Slf4j
 public class FileController {
 
+    /**
+     * 저장 파일은 한 번 쓰면 바뀌지 않으므로 1년 동안 재검증 없이 캐시
+     * 로그인 사용자의 얼굴 사진이므로 공유 캐시(프록시, CDN)에는 저장하지 않고 브라우저에만 저장 (private)
+     */
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+    /** 축소 이미지 생성이 일시적으로 거절됐을 때 재시도 대기 시간 */
+    private static final long RETRY_AFTER_SECONDS = 1;
+
     private final FileStorageService fileStorageService;
+    private final ThumbnailService thumbnailService;
+    private final HotFileCache hotFileCache;
 
+    /**
+     * 저장 파일 다운로드
+     * ETag는 파일명(내용 해시 파일명이면 해시)에서 만들어 If-None-Match / If-Modified-Since가 맞으면 304로 응답한다.
+     * Range 요청은 FileSystemResource(FileChannel 기반)의 요청 구간만 206으로 전송한다.
+     * 최근 저장/조회한 원본은 메모리 캐시에서 경로 조회 없이 바로 응답하고,
+     * 캐시에 없는 원본은 304 판정 뒤 전체 본문(200)을 보낼 때만 캐시에 올린다.
+     * w가 있으면 원본 대신 해당 너비의 축소 이미지(fmt: jpg, png)를 반환한다.
+     * 축소 이미지 생성이 거절되면 해상도 초과는 413, 디코딩 예산/스레드 부족은 Retry-After와 함께 503으로 응답한다.
+     */
     @GetMapping("/files/{fileName:.+}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName) {
+    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName,
+                                                 @RequestParam(required = false) Integer w,
+                                                 @RequestParam(defaultValue = "jpg") String fmt,
+                                                 WebRequest webRequest) {
         try {
-            Resource resource = fileStorageService.loadFile(fileName);
-
-            // 파일의 Content-Type 결정
-            String contentType = "application/octet-stream";
-            try {
-                contentType = Files.probeContentType(Paths.get(resource.getFile().getAbsolutePath()));
-            } catch (IOException e) {
-                log.debug("파일 타입을 결정할 수 없습니다: {}", fileName);
+            if (w != null) {
+                ImageFormat format = ImageFormat.fromFileName("." + fmt);
+                if (!thumbnailService.isAllowedWidth(w)
+                        || (format != ImageFormat.JPEG && format != ImageFormat.PNG)) {
+                    return ResponseEntity.badRequest().build();
+                }
+                Path thumbnail = thumbnailService.getThumbnail(fileName, w, format);
+                String tag = etagFor(fileName) + "-w" + w + format.getExtension();
+                return serve(thumbnail, tag, format, thumbnail.getFileName().toString(), webRequest);
+            }
+
+            // 저장 파일명의 확장자는 업로드 시 매직 바이트로 정한 것이므로 파일시스템 조회 없이 타입 결정
+            ImageFormat format = ImageFormat.fromFileName(fileName);
+            HotFileCache.CachedFile cached = hotFileCache.get(fileName);
+            if (cached != null) {
+                return serve(cached.toResource(fileName), cached.lastModified(), etagFor(fileName), format, fileName,
+                        webRequest);
             }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
-                    .body(resource);
+            // 캐시에 없으면 파일 메타데이터만으로 먼저 304 여부를 판단 (본문을 읽지 않음)
+            Path filePath = fileStorageService.getFilePath(fileName);
+            long lastModified = Files.getLastModifiedTime(filePath).toMillis();
+            String etag = quote(etagFor(fileName));
+            if (webRequest.checkNotModified(etag, lastModified)) {
+                return notModified(etag);
+            }
+            // 전체 본문(200) 응답일 때만 캐시에 올림 (Range 요청은 요청 구간만 파일에서 전송)
+            if (webRequest.getHeader(HttpHeaders.RANGE) == null) {
+                cached = hotFileCache.put(fileName, filePath);
+                if (cached != null) {
+                    return ok(cached.toResource(fileName), cached.lastModified(), etag, format, fileName);
+                }
+            }
+            return ok(new FileSystemResource(filePath), lastModified, etag, format, fileName);
 
+        } catch (ImageTooLargeException e) {
+            log.warn("축소 이미지 생성 거절 (해상도 초과): {}", fileName);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (RejectedExecutionException e) {
+            log.warn("축소 이미지 생성 거절 (분석 스레드 대기열 가득 참): {}", fileName);
+            return serviceUnavailable();
         } catch (Exception e) {
+            if (e.getCause() instanceof DecodeRejectedException) {
+                log.warn("축소 이미지 생성 거절 (디코딩 메모리 예산 부족): {}", fileName);
+                return serviceUnavailable();
+            }
             log.error("파일 다운로드 오류: {}", fileName, e);
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * 일시적인 과부하 (잠시 후 재시도)
+     */
+    private static ResponseEntity<Resource> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS))
+                .build();
+    }
+
+    private ResponseEntity<Resource> serve(Path filePath, String tag, ImageFormat format, String fileName,
+                                           WebRequest webRequest) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        return serve(new FileSystemResource(filePath), attributes.lastModifiedTime().toMillis(), tag, format,
+                fileName, webRequest);
+    }
+
+    private ResponseEntity<Resource> serve(Resource body, long lastModified, String tag, ImageFormat format,
+                                           String fileName, WebRequest webRequest) {
+        String etag = quote(tag);
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return notModified(etag);
+        }
+        return ok(body, lastModified, etag, format, fileName);
+    }
+
+    private static ResponseEntity<Resource> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(IMMUTABLE)
+                .build();
+    }
+
+    private static ResponseEntity<Resource> ok(Resource body, long lastModified, String etag, ImageFormat format,
+                                               String fileName) {
+        MediaType contentType = format != null
+                ? MediaType.parseMediaType(format.getMimeType())
+                : MediaType.APPLICATION_OCTET_STREAM;
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(IMMUTABLE)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * 강한 ETag 값 (내용 해시 파일명은 해시 자체, 이전 형식 파일명은 유일한 파일명 그대로)
+     */
+    private static String etagFor(String fileName) {
+        return FileStorageService.isContentAddressed(fileName)
+                ? fileName.substring(0, fileName.lastIndexOf('.'))
+                : fileName;
+    }
 }
@@ -0,0 +1,168 @@
+package kr.ac.kopo.lyh.personalcolor.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisEngineException;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisOverloadedException;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import kr.ac.kopo.lyh.personalcolor.exception.IdempotencyKeyMismatchException;
+import kr.ac.kopo.lyh.personalcolor.exception.ImageTooLargeException;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisRequestCoalescer;
+import kr.ac.kopo.lyh.personalcolor.service.ReactiveUploadService;
+import kr.ac.kopo.lyh.personalcolor.service.ReactiveUploadService.StagedUpload;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 논블로킹 업로드 핸들러 (POST /reactive/upload)
+ * multipart 본문을 PartEvent 스트림으로 받아 file 파트의 DataBuffer를 그대로 임시 파일에 흘려 쓰고,
+ * 저장/분석이 끝나면 /upload와 같은 형식의 JSON으로 응답한다.
+ * 서블릿 컨테이너의 비동기 IO 위에서 동작하므로 업로드를 받는 동안 요청 스레드를 점유하지 않는다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveUploadHandler {
+
+    private static final String FILE_PART = "file";
+
+    /** multipart 경계와 파트 헤더 여유분 */
+    private static final long MULTIPART_OVERHEAD = 64 * 1024;
+
+    private final ReactiveUploadService reactiveUploadService;
+    private final long maxFileSize;
+
+    public Mono<ServerResponse> upload(ServerRequest request) {
+        // 로그인 확인 (기존 서블릿 세션 사용)
+        HttpSession session = nativeSession(request);
+        User user = session != null ? (User) session.getAttribute("user") : null;
+        if (user == null) {
+            return error(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.");
+        }
+
+        // 선언된 크기가 이미 상한을 넘으면 본문을 읽지 않고 거절
+        long contentLength = request.headers().contentLength().orElse(-1);
+        if (contentLength > maxFileSize + MULTIPART_OVERHEAD) {
+            return error(HttpStatus.PAYLOAD_TOO_LARGE, "파일 크기가 허용된 최대 크기를 초과합니다: " + contentLength);
+        }
+
+        return stageFilePart(request)
+                .flatMap(staged -> reactiveUploadService.storeAndAnalyze(user, staged,
+                        request.headers().firstHeader(AnalysisRequestCoalescer.IDEMPOTENCY_KEY)))
+                .flatMap(analysis -> {
+                    // 세션에 분석 결과 ID 저장
+                    session.setAttribute("latestAnalysisId", analysis.getId());
+                    return ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(body(analysis));
+                })
+                .onErrorResume(this::handleError);
+    }
+
+    // === 내부 메서드들 ===
+
+    /**
+     * multipart 본문에서 첫 file 파트를 임시 파일로 기록 (file 파트가 없으면 FileStorageException)
+     */
+    Mono<StagedUpload> stageFilePart(ServerRequest request) {
+        return request.bodyToFlux(PartEvent.class)
+                .windowUntil(PartEvent::isLast)
+                .concatMap(part -> part.<StagedUpload>switchOnFirst((first, events) -> {
+                    if (first.get() instanceof FilePartEvent file && FILE_PART.equals(file.name())) {
+                        return reactiveUploadService.stage(file.filename(), events.map(PartEvent::content));
+                    }
+                    // 다른 파트는 읽고 버림
+                    return events.doOnNext(event -> DataBufferUtils.release(event.content()))
+                            .then(Mono.<StagedUpload>empty());
+                }))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new FileStorageException("파일이 비어있습니다.")));
+    }
+
+    private Mono<ServerResponse> handleError(Throwable e) {
+        if (e instanceof DataBufferLimitException) {
+            return error(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+        }
+        if (e instanceof ImageTooLargeException) {
+            log.warn("이미지 해상도 초과: {}", e.getMessage());
+            return error(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+        }
+        if (e instanceof FileStorageException) {
+            log.warn("업로드 저장 실패: {}", e.getMessage());
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (e instanceof IdempotencyKeyMismatchException) {
+            return error(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        }
+        if (e instanceof AnalysisEngineException engine) {
+            log.warn("분석 엔진 사용 불가: {}", e.getMessage());
+            return busy(Math.max(1L, engine.getRetryAfter().toSeconds()));
+        }
+        if (e instanceof AnalysisOverloadedException overloaded) {
+            log.warn("분석 요청 거절 (동시 실행 한도 초과): {}", e.getMessage());
+            return tooManyRequests(overloaded.getRetryAfterSeconds());
+        }
+        if (e instanceof RejectedExecutionException) {
+            log.warn("분석 대기열 가득 참: {}", e.getMessage());
+            return tooManyRequests(1L);
+        }
+        log.error("파일 업로드 및 분석 중 오류 발생", e);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "분석 중 오류가 발생했습니다.");
+    }
+
+    private static Map<String, Object> body(ColorAnalysis analysis) {
+        return Map.of(
+                "success", true,
+                "message", "분석이 완료되었습니다!",
+                "analysisId", analysis.getId(),
+                "colorType", analysis.getColorType().getDisplayName(),
+                "confidence", analysis.getConfidencePercent(),
+                "description", analysis.getDescription(),
+                "recommendedColors", analysis.getRecommendedColors(),
+                "redirectUrl", "/results"
+        );
+    }
+
+    private static Mono<ServerResponse> busy(long retryAfterSeconds) {
+        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("success", false, "error", "분석 서버가 혼잡합니다. 잠시 후 다시 시도해주세요."));
+    }
+
+    private static Mono<ServerResponse> tooManyRequests(long retryAfterSeconds) {
+        return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("success", false, "error", "요청이 많아 분석을 시작할 수 없습니다. 잠시 후 다시 시도해주세요."));
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("success", false, "error", message));
+    }
+
+    /**
+     * 서블릿 어댑터 아래에서 실행되므로 원본 요청에서 기존 로그인 세션을 가져온다
+     */
+    private static HttpSession nativeSession(ServerRequest request) {
+        Object nativeRequest = ServerHttpRequestDecorator.getNativeRequest(request.exchange().getRequest());
+        return nativeRequest instanceof HttpServletRequest servletRequest ? servletRequest.getSession(false) : null;
+    }
+}
@@ -0,0 +1,258 @@
+package kr.ac.kopo.lyh.personalcolor.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisEngineException;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisOverloadedException;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import kr.ac.kopo.lyh.personalcolor.exception.IdempotencyKeyMismatchException;
+import kr.ac.kopo.lyh.personalcolor.exception.ImageTooLargeException;
+import kr.ac.kopo.lyh.personalcolor.exception.UnauthorizedAccessException;
+import kr.ac.kopo.lyh.personalcolor.exception.UploadSessionException;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisRequestCoalescer;
+import kr.ac.kopo.lyh.personalcolor.service.ResumableUploadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * 이어 올리기 API (tus 1.0 방식)
+ * POST로 세션을 만들고, PATCH로 Upload-Offset 위치부터 조각을 보내며, 끊기면 HEAD로 오프셋을 확인해 이어 보낸다.
+ * 모두 보낸 뒤 complete를 호출하면 /upload와 같은 저장/분석 흐름을 거쳐 같은 형식으로 응답한다.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+@RequiredArgsConstructor
+@Slf4j
+public class ResumableUploadController {
+
+    private static final String TUS_RESUMABLE = "Tus-Resumable";
+    private static final String TUS_VERSION = "1.0.0";
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+    private static final String UPLOAD_METADATA = "Upload-Metadata";
+    private static final String OFFSET_OCTET_STREAM = "application/offset+octet-stream";
+
+    private final ResumableUploadService resumableUploadService;
+    private final AnalysisRequestCoalescer analysisRequestCoalescer;
+
+    /**
+     * 업로드 세션 생성
+     * Upload-Metadata의 filename 항목(Base64)을 원본 파일명으로 사용한다.
+     */
+    @PostMapping
+    public ResponseEntity<?> create(@RequestHeader(UPLOAD_LENGTH) long length,
+                                    @RequestHeader(value = UPLOAD_METADATA, required = false) String metadata,
+                                    HttpServletRequest request) {
+        User user = currentUser(request);
+        if (user == null) {
+            return unauthorized();
+        }
+
+        String id = resumableUploadService.create(user, parseFileName(metadata), length);
+        return ResponseEntity.created(URI.create("/api/uploads/" + id))
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, "0")
+                .body(Map.of("success", true, "uploadId", id));
+    }
+
+    /**
+     * 현재 오프셋 조회
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> offset(@PathVariable String id, HttpServletRequest request) {
+        User user = currentUser(request);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        ResumableUploadService.UploadStatus status = resumableUploadService.getStatus(id, user);
+        return ResponseEntity.ok()
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, String.valueOf(status.offset()))
+                .header(UPLOAD_LENGTH, String.valueOf(status.length()))
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+
+    /**
+     * 조각 전송
+     * 서버의 임시 파일 기록 실패는 클라이언트가 고칠 수 없으므로 500으로 응답한다 (HEAD로 오프셋 확인 후 재시도 가능).
+     */
+    @PatchMapping(value = "/{id}", consumes = OFFSET_OCTET_STREAM)
+    public ResponseEntity<?> append(@PathVariable String id,
+                                    @RequestHeader(UPLOAD_OFFSET) long offset,
+                                    HttpServletRequest request) throws IOException {
+        User user = currentUser(request);
+        if (user == null) {
+            return unauthorized();
+        }
+
+        long newOffset;
+        try {
+            newOffset = resumableUploadService.append(id, user, offset, request.getInputStream());
+        } catch (FileStorageException e) {
+            log.error("이어 올리기 조각 기록 실패: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .header(TUS_RESUMABLE, TUS_VERSION)
+                    .body(Map.of("success", false, "error", "업로드 데이터를 저장하지 못했습니다. 잠시 후 다시 시도해주세요."));
+        }
+        return ResponseEntity.noContent()
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, String.valueOf(newOffset))
+                .build();
+    }
+
+    /**
+     * 업로드 완료 및 분석
+     */
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<?> complete(@PathVariable String id,
+                                      @RequestHeader(value = AnalysisRequestCoalescer.IDEMPOTENCY_KEY,
+                                              required = false) String idempotencyKey,
+                                      HttpServletRequest request) {
+        User user = currentUser(request);
+        if (user == null) {
+            return unauthorized();
+        }
+
+        ResumableUploadService.CompletedUpload upload = resumableUploadService.complete(id, user);
+        ColorAnalysis analysis = analysisRequestCoalescer.analyzeImage(
+                user,
+                upload.originalFileName(),
+                upload.storedFile(),
+                idempotencyKey
+        );
+
+        // 세션에 분석 결과 ID 저장
+        request.getSession().setAttribute("latestAnalysisId", analysis.getId());
+
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", "분석이 완료되었습니다!",
+                "analysisId", analysis.getId(),
+                "colorType", analysis.getColorType().getDisplayName(),
+                "confidence", analysis.getConfidencePercent(),
+                "description", analysis.getDescription(),
+                "recommendedColors", analysis.getRecommendedColors(),
+                "redirectUrl", "/results"
+        ));
+    }
+
+    /**
+     * 업로드 취소
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@PathVariable String id, HttpServletRequest request) {
+        User user = currentUser(request);
+        if (user == null) {
+            return unauthorized();
+        }
+
+        resumableUploadService.cancel(id, user);
+        return ResponseEntity.noContent().header(TUS_RESUMABLE, TUS_VERSION).build();
+    }
+
+    // === 예외 처리 ===
+
+    @ExceptionHandler(UploadSessionException.class)
+    public ResponseEntity<?> handleUploadSessionException(UploadSessionException e) {
+        HttpStatus status = switch (e.getReason()) {
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case OFFSET_MISMATCH, INCOMPLETE -> HttpStatus.CONFLICT;
+            case BUSY -> HttpStatus.LOCKED;
+            case TOO_LARGE -> HttpStatus.PAYLOAD_TOO_LARGE;
+        };
+        log.debug("이어 올리기 요청 거절 ({}): {}", e.getReason(), e.getMessage());
+        return ResponseEntity.status(status)
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, String.valueOf(e.getOffset()))
+                .body(Map.of("success", false, "error", e.getMessage()));
+    }
+
+    @ExceptionHandler(UnauthorizedAccessException.class)
+    public ResponseEntity<?> handleUnauthorizedAccessException(UnauthorizedAccessException e) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("success", false, "error", e.getMessage()));
+    }
+
+    @ExceptionHandler(ImageTooLargeException.class)
+    public ResponseEntity<?> handleImageTooLargeException(ImageTooLargeException e) {
+        log.warn("이미지 해상도 초과: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(Map.of("success", false, "error", e.getMessage()));
+    }
+
+    @ExceptionHandler(FileStorageException.class)
+    public ResponseEntity<?> handleFileStorageException(FileStorageException e) {
+        log.warn("이어 올리기 저장 실패: {}", e.getMessage());
+        return ResponseEntity.badRequest()
+                .body(Map.of("success", false, "error", e.getMessage()));
+    }
+
+    @ExceptionHandler(AnalysisEngineException.class)
+    public ResponseEntity<?> handleAnalysisEngineException(AnalysisEngineException e) {
+        log.warn("분석 엔진 사용 불가: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, e.getRetryAfter().toSeconds())))
+                .body(Map.of("success", false, "error", "분석 서버가 혼잡합니다. 잠시 후 다시 시도해주세요."));
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<?> handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException e) {
+        return ResponseEntity.unprocessableEntity()
+                .body(Map.of("success", false, "error", e.getMessage()));
+    }
+
+    @ExceptionHandler(AnalysisOverloadedException.class)
+    public ResponseEntity<?> handleAnalysisOverloadedException(AnalysisOverloadedException e) {
+        log.warn("분석 요청 거절 (동시 실행 한도 초과): {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("success", false, "error", "요청이 많아 분석을 시작할 수 없습니다. 잠시 후 다시 시도해주세요."));
+    }
+
+    // === 내부 메서드들 ===
+
+    private User currentUser(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return session != null ? (User) session.getAttribute("user") : null;
+    }
+
+    private ResponseEntity<?> unauthorized() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("success", false, "error", "로그인이 필요합니다."));
+    }
+
+    /**
+     * Upload-Metadata ("key base64,key base64")에서 filename 추출
+     */
+    static String parseFileName(String metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        for (String pair : metadata.split(",")) {
+            String[] parts = pair.trim().split(" ", 2);
+            if (parts.length == 2 && parts[0].equals("filename")) {
+                try {
+                    return new String(Base64.getDecoder().decode(parts[1].trim()), StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -4,13 +4,20 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
 import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisEngineException;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisOverloadedException;
+import kr.ac.kopo.lyh.personalcolor.exception.ImageTooLargeException;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisJobService;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisRequestCoalescer;
 import kr.ac.kopo.lyh.personalcolor.service.ColorAnalysisService;
 import kr.ac.kopo.lyh.personalcolor.service.FileStorageService;
+import kr.ac.kopo.lyh.personalcolor.service.StoredFile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -20,6 +27,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.math.BigDecimal;
 
 import java.math.RoundingMode;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -30,6 +38,7 @@ public class UploadController {
 
     private final FileStorageService fileStorageService;
     private final ColorAnalysisService colorAnalysisService;
+    private final AnalysisJobService analysisJobService;
 
 //    @GetMapping("/upload")
 //    public String uploadForm() {
@@ -39,6 +48,8 @@ public class UploadController {
     @PostMapping("/upload")
     @ResponseBody
     public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file,
+                                        @RequestHeader(value = AnalysisRequestCoalescer.IDEMPOTENCY_KEY,
+                                                required = false) String idempotencyKey,
                                         HttpServletRequest request) {
         try {
             // 로그인 확인
@@ -64,29 +75,39 @@ public class UploadController {
             }
 
             // 파일 저장
-            String storedFileName = fileStorageService.storeFile(file);
+            StoredFile storedFile = fileStorageService.storeFile(file);
 
-            // 이미지 분석 수행
-            ColorAnalysis analysis = colorAnalysisService.analyzeImage(
+            // 분석 작업 등록 (분석은 작업자 풀에서 진행, 상태는 /api/jobs/{id}로 조회)
+            AnalysisJobService.JobStatus job = analysisJobService.submit(
                     user,
                     file.getOriginalFilename(),
-                    storedFileName
+                    storedFile,
+                    idempotencyKey
             );
 
-            // 세션에 분석 결과 ID 저장
-            session.setAttribute("latestAnalysisId", analysis.getId());
-
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "message", "분석이 완료되었습니다!",
-                    "analysisId", analysis.getId(),
-                    "redirectUrl", "/results"
-            ));
-
+            String statusUrl = "/api/jobs/" + job.jobId();
+            return ResponseEntity.accepted()
+                    .location(URI.create(statusUrl))
+                    .body(Map.of(
+                            "success", true,
+                            "message", "업로드가 완료되었습니다. 분석 중입니다.",
+                            "jobId", job.jobId(),
+                            "state", job.state(),
+                            "statusUrl", statusUrl,
+                            "eventsUrl", statusUrl + "/events"
+                    ));
+
+        } catch (AnalysisOverloadedException e) {
+            log.warn("분석 작업 대기열 가득 참: {}", e.getMessage());
+            return tooManyRequests(e);
+        } catch (ImageTooLargeException e) {
+            log.warn("이미지 해상도 초과: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("success", false, "error", e.getMessage()));
         } catch (Exception e) {
-            log.error("파일 업로드 및 분석 중 오류 발생", e);
+            log.error("파일 업로드 중 오류 발생", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("success", false, "error", "분석 중 오류가 발생했습니다."));
+                    .body(Map.of("success", false, "error", "업로드 중 오류가 발생했습니다."));
         }
     }
 
@@ -148,6 +169,48 @@ public class UploadController {
         return "history";
     }
 
+    @PostMapping("/analysis/{id}/reanalyze")
+    @ResponseBody
+    public ResponseEntity<?> reanalyze(@PathVariable Long id, HttpServletRequest request) {
+        try {
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute("user") == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("success", false, "error", "로그인이 필요합니다."));
+            }
+
+            User user = (User) session.getAttribute("user");
+            ColorAnalysis analysis = colorAnalysisService.reanalyzeImage(id, user);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "재분석이 완료되었습니다!",
+                    "analysisId", analysis.getId(),
+                    "colorType", analysis.getColorType().getDisplayName(),
+                    "confidence", analysis.getConfidencePercent(),
+                    "description", analysis.getDescription(),
+                    "recommendedColors", analysis.getRecommendedColors()
+            ));
+
+        } catch (AnalysisEngineException e) {
+            log.warn("분석 엔진 사용 불가: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, e.getRetryAfter().toSeconds())))
+                    .body(Map.of("success", false, "error", "분석 서버가 혼잡합니다. 잠시 후 다시 시도해주세요."));
+        } catch (AnalysisOverloadedException e) {
+            log.warn("재분석 요청 거절: {}", e.getMessage());
+            return tooManyRequests(e);
+        } catch (ImageTooLargeException e) {
+            log.warn("재분석 이미지 해상도 초과: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("재분석 중 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/analysis/{id}")
     @ResponseBody
     public ResponseEntity<?> deleteAnalysis(@PathVariable Long id, HttpServletRequest request) {
@@ -169,4 +232,14 @@ public class UploadController {
                     .body(Map.of("success", false, "error", e.getMessage()));
         }
     }
+
+    /**
+     * 수락 제어로 거절된 요청 응답 (429, 예상 대기 시간을 Retry-After로 전달)
+     */
+    private ResponseEntity<?> tooManyRequests(AnalysisOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("success", false, "error", "요청이 많아 분석을 시작할 수 없습니다. 잠시 후 다시 시도해주세요.",
+                        "retryAfterSeconds", e.getRetryAfterSeconds()));
+    }
 }
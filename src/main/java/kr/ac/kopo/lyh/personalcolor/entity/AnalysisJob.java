@@ -0,0 +1,112 @@
+package kr.ac.kopo.lyh.personalcolor.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 분석 작업 엔티티 (업로드 후 비동기 분석 대기열)
+ * 작업자 노드는 실행할 행을 잠가 선점하고, 임대(lease) 만료 시각까지 실행 권한을 가진다.
+ * 임대가 만료된 RUNNING 작업은 작업자 노드가 중단된 것으로 보고 다른 노드가 다시 가져간다.
+ */
+@Entity
+@Table(name = "analysis_jobs",
+        indexes = {
+                @Index(name = "idx_job_status_available", columnList = "status, availableAt"),
+                @Index(name = "idx_job_status_lease", columnList = "status, leaseExpiresAt"),
+                @Index(name = "idx_job_finished", columnList = "finishedAt")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode(of = "id")
+public class AnalysisJob {
+
+    // 클라이언트에 돌려주는 작업 ID (UUID)
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 255)
+    private String originalFileName;
+
+    @Column(nullable = false, length = 255)
+    private String storedFileName;
+
+    @Column(length = 64)
+    private String contentHash;
+
+    // 업로드 요청의 Idempotency-Key (동시 중복 요청 병합용)
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    private long fileSize;
+
+    // 저장 시 읽은 이미지 헤더 (ImageFormat 이름, 가로, 세로)
+    @Column(length = 10)
+    private String imageFormat;
+
+    private int imageWidth;
+
+    private int imageHeight;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    // 선점된 횟수 (재시도 포함)
+    @Builder.Default
+    private int attempts = 0;
+
+    // 이 시각 이후에 실행 가능 (재시도 백오프)
+    @Column(nullable = false)
+    private LocalDateTime availableAt;
+
+    // 실행 중인 작업자 노드 ID와 임대 만료 시각
+    @Column(length = 100)
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    // 분석 결과 ID (COMPLETED일 때만)
+    private Long analysisId;
+
+    // 실패 사유 (마지막 실패)
+    @Column(length = 500)
+    private String error;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    // 낙관적 잠금 (임대를 잃은 노드의 늦은 완료/실패 기록 방지)
+    @Version
+    private Long version;
+
+    /**
+     * 작업 상태
+     */
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+}
@@ -22,7 +22,8 @@ import java.time.LocalDateTime;
         indexes = {
                 @Index(name = "idx_analysis_user_date", columnList = "user_id, analyzedAt"),
                 @Index(name = "idx_analysis_color_type", columnList = "colorType"),
-                @Index(name = "idx_analysis_created", columnList = "analyzedAt")
+                @Index(name = "idx_analysis_created", columnList = "analyzedAt"),
+                @Index(name = "idx_analysis_content_hash", columnList = "contentHash")
         })
 @Getter
 @Setter
@@ -51,6 +52,13 @@ public class ColorAnalysis {
     @Column(nullable = false, length = 255)
     private String storedFileName;
 
+    // 파일 내용 SHA-256 (중복 업로드 판별)
+    @Column(length = 64)
+    private String contentHash;
+
+    // 64비트 dHash (재압축, 약간 잘린 유사 이미지 판별)
+    private Long perceptualHash;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     @NotNull(message = "컬러 타입은 필수입니다")
@@ -70,23 +78,33 @@ public class ColorAnalysis {
     @Column(columnDefinition = "LONGTEXT")
     private String recommendedColors;
 
+    // JSON 형태로 저장되는 대표 색상 (피부, 머리카락, 눈동자 및 팔레트)
+    @Column(columnDefinition = "TEXT")
+    private String dominantColors;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime analyzedAt;
 
-    // 메타데이터
-    @Column(length = 100)
-    private String imageWidth;
+    // 메타데이터 (업로드 시 이미지 헤더에서 판독)
+    private Integer imageWidth;
 
-    @Column(length = 100)
-    private String imageHeight;
+    private Integer imageHeight;
 
-    @Column(length = 50)
-    private String fileSize;
+    private Long fileSize;
 
     @Column(length = 20)
     private String contentType;
 
+    // 피부 영역 (원본 이미지 좌표, 재분석 시 해당 영역만 디코딩)
+    private Integer skinRegionX;
+
+    private Integer skinRegionY;
+
+    private Integer skinRegionWidth;
+
+    private Integer skinRegionHeight;
+
     // 컬러 타입 enum
     public enum ColorType {
         SPRING_WARM("봄 웜톤", "밝고 따뜻한 톤"),
@@ -0,0 +1,47 @@
+package kr.ac.kopo.lyh.personalcolor.exception;
+
+import java.time.Duration;
+
+/**
+ * 컬러 분석 엔진 호출 실패 시 발생하는 예외
+ * 모델 서버 타임아웃, 동시 호출 한도 초과, 서킷 브레이커 차단 등을 포함
+ *
+ * @author PersonalColor Team
+ */
+public class AnalysisEngineException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String engineName;
+    private final Duration retryAfter;
+
+    public AnalysisEngineException(String engineName, String message) {
+        this(engineName, message, Duration.ZERO, null);
+    }
+
+    public AnalysisEngineException(String engineName, String message, Throwable cause) {
+        this(engineName, message, Duration.ZERO, cause);
+    }
+
+    /**
+     * 재시도 가능 시점을 포함하는 생성자
+     *
+     * @param engineName 엔진 이름
+     * @param message    예외 메시지
+     * @param retryAfter 재시도까지 권장 대기 시간
+     * @param cause      원인 예외
+     */
+    public AnalysisEngineException(String engineName, String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.engineName = engineName;
+        this.retryAfter = retryAfter != null ? retryAfter : Duration.ZERO;
+    }
+
+    public String getEngineName() {
+        return engineName;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
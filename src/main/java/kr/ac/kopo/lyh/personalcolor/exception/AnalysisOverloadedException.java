@@ -0,0 +1,36 @@
+package kr.ac.kopo.lyh.personalcolor.exception;
+
+import java.time.Duration;
+
+/**
+ * 분석 요청 수락 거절 시 발생하는 예외 (429 Too Many Requests)
+ * 동시 분석 한도와 대기열이 모두 찼거나, 대기 시간 안에 차례가 오지 않은 경우
+ *
+ * @author PersonalColor Team
+ */
+public class AnalysisOverloadedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    /**
+     * @param message    예외 메시지
+     * @param retryAfter 예상 대기 시간 (Retry-After)
+     */
+    public AnalysisOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter != null ? retryAfter : Duration.ofSeconds(1);
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Retry-After 헤더 값 (초, 최소 1)
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1L, retryAfter.toSeconds());
+    }
+}
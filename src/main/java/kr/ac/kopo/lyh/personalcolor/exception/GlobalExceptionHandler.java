@@ -5,6 +5,7 @@ import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -20,6 +21,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * PersonalColor 프로젝트의 전역 예외 처리 핸들러
@@ -95,6 +97,98 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * AnalysisEngineException 처리
+     * 분석 엔진(모델 서버) 호출 실패, 동시 호출 한도 초과, 서킷 브레이커 차단
+     */
+    @ExceptionHandler(AnalysisEngineException.class)
+    public ResponseEntity<Map<String, Object>> handleAnalysisEngineException(
+            AnalysisEngineException ex,
+            HttpServletRequest request) {
+
+        String errorId = generateErrorId();
+
+        logger.warn("🧪 분석 엔진 오류 [ID: {}] - 엔진: {}, 메시지: {}",
+                errorId, ex.getEngineName(), ex.getMessage());
+
+        long retryAfterSeconds = Math.max(1L, ex.getRetryAfter().toSeconds());
+
+        Map<String, Object> errorResponse = createErrorResponse(
+                errorId,
+                "ANALYSIS_ENGINE_UNAVAILABLE",
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE,
+                request.getRequestURI(),
+                Map.of(
+                        "engine", ex.getEngineName(),
+                        "retryAfterSeconds", retryAfterSeconds,
+                        "suggestion", "잠시 후 다시 분석을 요청해주세요."
+                )
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(errorResponse);
+    }
+
+    /**
+     * AnalysisOverloadedException 처리
+     * 동시 분석 한도와 대기열이 가득 차 요청을 받지 않을 때 (예상 대기 시간을 Retry-After로 전달)
+     */
+    @ExceptionHandler(AnalysisOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleAnalysisOverloadedException(
+            AnalysisOverloadedException ex,
+            HttpServletRequest request) {
+
+        String errorId = generateErrorId();
+
+        logger.warn("🚦 분석 요청 거절 [ID: {}] - 메시지: {}, 재시도: {}초 후",
+                errorId, ex.getMessage(), ex.getRetryAfterSeconds());
+
+        return tooManyRequests(errorId, ex.getMessage(), ex.getRetryAfterSeconds(), request);
+    }
+
+    /**
+     * IdempotencyKeyMismatchException 처리
+     * 같은 Idempotency-Key로 다른 이미지를 보낸 경우
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyMismatchException(
+            IdempotencyKeyMismatchException ex,
+            HttpServletRequest request) {
+
+        String errorId = generateErrorId();
+
+        logger.warn("🔁 Idempotency-Key 재사용 거절 [ID: {}] - 메시지: {}", errorId, ex.getMessage());
+
+        Map<String, Object> errorResponse = createErrorResponse(
+                errorId,
+                "IDEMPOTENCY_KEY_MISMATCH",
+                ex.getMessage(),
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                request.getRequestURI(),
+                Map.of("suggestion", "새 이미지는 새 Idempotency-Key로 보내주세요.")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * RejectedExecutionException 처리
+     * 작업자 풀과 대기열이 가득 차 작업을 받지 못할 때 (500 대신 429로 응답)
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> handleRejectedExecutionException(
+            RejectedExecutionException ex,
+            HttpServletRequest request) {
+
+        String errorId = generateErrorId();
+
+        logger.warn("🚦 작업 실행 거절 [ID: {}] - 메시지: {}", errorId, ex.getMessage());
+
+        return tooManyRequests(errorId, "요청이 많아 처리할 수 없습니다.", 1L, request);
+    }
+
     /**
      * UnauthorizedAccessException 처리
      * 인증되지 않은 접근 시도
@@ -318,6 +412,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.PAYLOAD_TOO_LARGE);
     }
 
+    /**
+     * 이미지 해상도 초과 예외 처리
+     */
+    @ExceptionHandler(ImageTooLargeException.class)
+    public ResponseEntity<Map<String, Object>> handleImageTooLargeException(
+            ImageTooLargeException ex,
+            HttpServletRequest request) {
+
+        String errorId = generateErrorId();
+
+        logger.warn("🖼️ 이미지 해상도 초과 [ID: {}] - 메시지: {}", errorId, ex.getMessage());
+
+        Map<String, Object> errorResponse = createErrorResponse(
+                errorId,
+                "IMAGE_TOO_LARGE",
+                ex.getMessage(),
+                HttpStatus.PAYLOAD_TOO_LARGE,
+                request.getRequestURI(),
+                Map.of("suggestion", "해상도를 줄인 사진으로 다시 업로드해주세요.")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     /**
      * 데이터베이스 무결성 위반 예외 처리
      */
@@ -372,6 +490,32 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * 429 응답 생성 (Retry-After 헤더 포함)
+     */
+    private ResponseEntity<Map<String, Object>> tooManyRequests(
+            String errorId,
+            String message,
+            long retryAfterSeconds,
+            HttpServletRequest request) {
+
+        Map<String, Object> errorResponse = createErrorResponse(
+                errorId,
+                "TOO_MANY_REQUESTS",
+                message,
+                HttpStatus.TOO_MANY_REQUESTS,
+                request.getRequestURI(),
+                Map.of(
+                        "retryAfterSeconds", retryAfterSeconds,
+                        "suggestion", "잠시 후 다시 요청해주세요."
+                )
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(errorResponse);
+    }
+
     /**
      * 표준화된 에러 응답 생성
      */
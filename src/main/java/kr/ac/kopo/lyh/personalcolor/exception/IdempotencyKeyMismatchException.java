@@ -0,0 +1,16 @@
+package kr.ac.kopo.lyh.personalcolor.exception;
+
+/**
+ * 같은 Idempotency-Key로 다른 내용의 이미지를 보냈을 때 발생하는 예외 (422 Unprocessable Entity)
+ * 진행 중인 요청의 결과(다른 사진의 분석)를 돌려주지 않고 거절한다.
+ *
+ * @author PersonalColor Team
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package kr.ac.kopo.lyh.personalcolor.exception;
+
+/**
+ * 이미지 해상도(픽셀 수)가 허용 상한을 넘을 때 발생하는 예외
+ * 파일 크기는 작아도 헤더에 거대한 크기를 선언한 압축 폭탄을 디코딩 전에 거절한다.
+ *
+ * @author PersonalColor Team
+ */
+public class ImageTooLargeException extends FileStorageException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ImageTooLargeException(String message) {
+        super(message);
+    }
+
+    public ImageTooLargeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,47 @@
+package kr.ac.kopo.lyh.personalcolor.exception;
+
+/**
+ * 이어 올리기(분할 업로드) 세션 처리 중 발생하는 예외
+ *
+ * @author PersonalColor Team
+ */
+public class UploadSessionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 실패 사유
+     */
+    public enum Reason {
+        /** 세션이 없거나 만료됨 */
+        NOT_FOUND,
+        /** 요청한 오프셋이 서버에 기록된 오프셋과 다름 */
+        OFFSET_MISMATCH,
+        /** 같은 세션에 다른 조각이 기록 중 */
+        BUSY,
+        /** 선언한 전체 크기를 모두 받기 전에 완료 요청 */
+        INCOMPLETE,
+        /** 선언한 크기가 허용 최대 크기를 넘거나 선언한 크기보다 많이 보냄 */
+        TOO_LARGE
+    }
+
+    private final Reason reason;
+    private final long offset;
+
+    public UploadSessionException(Reason reason, String message, long offset) {
+        super(message);
+        this.reason = reason;
+        this.offset = offset;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * 예외 발생 시점에 서버에 기록된 오프셋 (클라이언트가 이어 보낼 위치)
+     */
+    public long getOffset() {
+        return offset;
+    }
+}
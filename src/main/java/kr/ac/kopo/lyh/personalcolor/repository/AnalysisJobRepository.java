@@ -0,0 +1,65 @@
+package kr.ac.kopo.lyh.personalcolor.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import kr.ac.kopo.lyh.personalcolor.entity.AnalysisJob;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 분석 작업 대기열 Repository
+ */
+@Repository
+public interface AnalysisJobRepository extends JpaRepository<AnalysisJob, String> {
+
+    /**
+     * 실행할 작업 선점 조회 (SELECT ... FOR UPDATE SKIP LOCKED)
+     * 실행 시각이 된 대기 작업과 임대가 만료된 실행 중 작업을 오래된 순으로 가져온다.
+     * 다른 노드가 이미 잠근 행은 기다리지 않고 건너뛰므로 여러 노드가 동시에 선점해도 같은 작업을 받지 않는다.
+     * (잠금 대기 시간 -2 = Hibernate SKIP_LOCKED, 방언에 맞는 구문으로 변환된다)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM AnalysisJob j " +
+            "WHERE (j.status = :pending AND j.availableAt <= :now) " +
+            "OR (j.status = :running AND j.leaseExpiresAt < :now) " +
+            "ORDER BY j.availableAt")
+    List<AnalysisJob> findClaimable(@Param("pending") AnalysisJob.Status pending,
+                                    @Param("running") AnalysisJob.Status running,
+                                    @Param("now") LocalDateTime now,
+                                    Limit limit);
+
+    /**
+     * 실행 중인 작업의 임대 연장 (하트비트)
+     * 임대를 가진 노드의 작업만 연장하며, 이미 다른 노드가 가져간 작업은 건너뛴다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AnalysisJob j SET j.leaseExpiresAt = :leaseExpiresAt " +
+            "WHERE j.id IN :ids AND j.leaseOwner = :owner AND j.status = :running")
+    int renewLeases(@Param("ids") Collection<String> ids,
+                    @Param("owner") String owner,
+                    @Param("running") AnalysisJob.Status running,
+                    @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * 상태별 작업 수
+     */
+    long countByStatus(AnalysisJob.Status status);
+
+    /**
+     * 보관 기간이 지난 끝난 작업 삭제
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AnalysisJob j WHERE j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -5,9 +5,11 @@ import kr.ac.kopo.lyh.personalcolor.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -94,6 +96,40 @@ public interface ColorAnalysisRepository extends JpaRepository<ColorAnalysis, Lo
      */
     boolean existsByStoredFileName(String storedFileName);
 
+    /**
+     * 저장 파일명 일괄 변경 (저장소 배치 전환 시 이전 형식 파일명을 내용 해시 파일명으로 변경)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ColorAnalysis ca SET ca.storedFileName = :newName, " +
+            "ca.contentHash = COALESCE(ca.contentHash, :contentHash) " +
+            "WHERE ca.storedFileName = :oldName")
+    int renameStoredFile(@Param("oldName") String oldName,
+                         @Param("newName") String newName,
+                         @Param("contentHash") String contentHash);
+
+    /**
+     * 같은 파일을 참조하는 분석 결과 수
+     */
+    long countByStoredFileName(String storedFileName);
+
+    /**
+     * 사용자의 같은 내용 파일 분석 결과 (가장 최근)
+     */
+    Optional<ColorAnalysis> findFirstByUserAndContentHashOrderByAnalyzedAtDesc(User user, String contentHash);
+
+    /**
+     * 같은 내용 파일의 분석 결과 (가장 최근, 사용자 무관)
+     */
+    Optional<ColorAnalysis> findFirstByContentHashOrderByAnalyzedAtDesc(String contentHash);
+
+    /**
+     * 유사 이미지 인덱스 재구성용 (분석 ID, 사용자 ID, dHash, 분석 시각)
+     */
+    @Query("SELECT ca.id, ca.user.id, ca.perceptualHash, ca.analyzedAt FROM ColorAnalysis ca " +
+            "WHERE ca.perceptualHash IS NOT NULL AND ca.analyzedAt >= :since")
+    List<Object[]> findPerceptualHashesSince(@Param("since") LocalDateTime since);
+
     /**
      * 사용자의 최다 분석된 컬러 타입
      */
@@ -0,0 +1,219 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.config.AnalysisConfig;
+import kr.ac.kopo.lyh.personalcolor.entity.AnalysisJob;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * DB 기반 분석 작업 대기열
+ * 작업 등록, 선점(임대), 임대 연장, 완료, 실패(백오프 재시도)를 각각 하나의 트랜잭션으로 처리한다.
+ * 완료와 실패는 임대를 가진 노드만 기록할 수 있어, 임대를 잃은 노드의 늦은 결과가 덮어쓰지 않는다.
+ * 시각은 인자로 받는다 (호출하는 쪽의 현재 시각).
+ */
+@Slf4j
+@Service
+@Transactional
+public class AnalysisJobQueue {
+
+    // 백오프 상한 = retryBackoff * 2^MAX_BACKOFF_SHIFT
+    private static final int MAX_BACKOFF_SHIFT = 5;
+
+    private final AnalysisJobRepository analysisJobRepository;
+    private final AnalysisConfig.AnalysisProperties.Jobs properties;
+
+    public AnalysisJobQueue(AnalysisJobRepository analysisJobRepository,
+                            AnalysisConfig.AnalysisProperties analysisProperties) {
+        this.analysisJobRepository = analysisJobRepository;
+        this.properties = analysisProperties.jobs();
+    }
+
+    /**
+     * 작업 등록 (PENDING, 바로 실행 가능)
+     */
+    public AnalysisJob enqueue(User user, String originalFileName, StoredFile storedFile, String idempotencyKey,
+                               LocalDateTime now) {
+        ImageHeader header = storedFile.header();
+        AnalysisJob job = AnalysisJob.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(user.getId())
+                .originalFileName(originalFileName != null ? originalFileName : storedFile.storedFileName())
+                .storedFileName(storedFile.storedFileName())
+                .contentHash(storedFile.contentHash())
+                .idempotencyKey(idempotencyKey)
+                .fileSize(storedFile.size())
+                .imageFormat(header != null ? header.format().name() : null)
+                .imageWidth(header != null ? header.width() : 0)
+                .imageHeight(header != null ? header.height() : 0)
+                .availableAt(now)
+                .build();
+        return analysisJobRepository.save(job);
+    }
+
+    /**
+     * 실행할 작업 선점
+     * 잠근 행을 RUNNING으로 바꾸고 임대를 설정한 뒤 커밋하므로, 잠금은 선점 트랜잭션 동안만 유지된다.
+     * 임대 만료로 다시 가져온 작업이 최대 시도 횟수를 넘었으면 실행하지 않고 FAILED로 끝낸다.
+     *
+     * @return 이 노드가 실행할 작업
+     */
+    public List<AnalysisJob> claim(String owner, int limit, LocalDateTime now) {
+        List<AnalysisJob> candidates = analysisJobRepository.findClaimable(
+                AnalysisJob.Status.PENDING, AnalysisJob.Status.RUNNING, now, Limit.of(limit));
+
+        List<AnalysisJob> claimed = new ArrayList<>(candidates.size());
+        for (AnalysisJob job : candidates) {
+            if (job.getStatus() == AnalysisJob.Status.RUNNING && job.getAttempts() >= properties.maxAttempts()) {
+                log.warn("분석 작업 임대 만료 반복으로 실패 처리: {} (노드: {})", job.getId(), job.getLeaseOwner());
+                finish(job, AnalysisJob.Status.FAILED, null, "분석 작업이 반복해서 중단되었습니다.", now);
+                continue;
+            }
+            if (job.getStatus() == AnalysisJob.Status.RUNNING) {
+                log.info("임대 만료 작업 회수: {} (이전 노드: {})", job.getId(), job.getLeaseOwner());
+            }
+            job.setStatus(AnalysisJob.Status.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLeaseOwner(owner);
+            job.setLeaseExpiresAt(now.plus(properties.lease()));
+            claimed.add(job);
+        }
+        return claimed;
+    }
+
+    /**
+     * 실행 중인 작업의 임대 연장
+     *
+     * @return 연장된 작업 수
+     */
+    public int renewLeases(String owner, Collection<String> jobIds, LocalDateTime now) {
+        if (jobIds.isEmpty()) {
+            return 0;
+        }
+        return analysisJobRepository.renewLeases(jobIds, owner, AnalysisJob.Status.RUNNING, now.plus(properties.lease()));
+    }
+
+    /**
+     * 선점했지만 실행하지 못한 작업 반납 (시도 횟수를 되돌리고 availableAt 이후 다시 실행)
+     */
+    public void release(String jobId, String owner, LocalDateTime availableAt) {
+        leased(jobId, owner).ifPresent(job -> {
+            job.setStatus(AnalysisJob.Status.PENDING);
+            job.setAttempts(job.getAttempts() - 1);
+            job.setAvailableAt(availableAt);
+            job.setLeaseOwner(null);
+            job.setLeaseExpiresAt(null);
+        });
+    }
+
+    /**
+     * 작업 완료 기록
+     *
+     * @return 완료된 작업 (임대를 잃었으면 empty)
+     */
+    public Optional<AnalysisJob> complete(String jobId, String owner, Long analysisId, LocalDateTime now) {
+        return leased(jobId, owner).map(job -> finish(job, AnalysisJob.Status.COMPLETED, analysisId, null, now));
+    }
+
+    /**
+     * 작업 실패 기록
+     * 재시도할 수 있는 실패이고 시도 횟수가 남았으면 지수 백오프 후 다시 실행하도록 PENDING으로 돌린다.
+     *
+     * @param retryAfter 재시도 최소 대기 시간 (null이면 재시도하지 않는 실패)
+     * @return 갱신된 작업 (임대를 잃었으면 empty)
+     */
+    public Optional<AnalysisJob> fail(String jobId, String owner, String error, Duration retryAfter, LocalDateTime now) {
+        return leased(jobId, owner).map(job -> {
+            if (retryAfter == null || job.getAttempts() >= properties.maxAttempts()) {
+                return finish(job, AnalysisJob.Status.FAILED, null, error, now);
+            }
+            Duration delay = backoff(job.getAttempts());
+            if (retryAfter.compareTo(delay) > 0) {
+                delay = retryAfter;
+            }
+            job.setStatus(AnalysisJob.Status.PENDING);
+            job.setAvailableAt(now.plus(delay));
+            job.setLeaseOwner(null);
+            job.setLeaseExpiresAt(null);
+            job.setError(error);
+            log.info("분석 작업 재시도 예약: {} - {}회 실패, {} ms 후", job.getId(), job.getAttempts(), delay.toMillis());
+            return job;
+        });
+    }
+
+    /**
+     * 작업 조회
+     */
+    @Transactional(readOnly = true)
+    public Optional<AnalysisJob> find(String jobId) {
+        return analysisJobRepository.findById(jobId);
+    }
+
+    /**
+     * 작업 여러 건 조회
+     */
+    @Transactional(readOnly = true)
+    public List<AnalysisJob> findAll(Collection<String> jobIds) {
+        return analysisJobRepository.findAllById(jobIds);
+    }
+
+    /**
+     * 상태별 작업 수
+     */
+    @Transactional(readOnly = true)
+    public long count(AnalysisJob.Status status) {
+        return analysisJobRepository.countByStatus(status);
+    }
+
+    /**
+     * 보관 기간이 지난 끝난 작업 삭제
+     */
+    public int purgeFinishedBefore(LocalDateTime cutoff) {
+        return analysisJobRepository.deleteFinishedBefore(cutoff);
+    }
+
+    // === 내부 메서드들 ===
+
+    /**
+     * 이 노드가 임대를 가진 실행 중 작업
+     */
+    private Optional<AnalysisJob> leased(String jobId, String owner) {
+        Optional<AnalysisJob> job = analysisJobRepository.findById(jobId)
+                .filter(j -> j.getStatus() == AnalysisJob.Status.RUNNING && Objects.equals(j.getLeaseOwner(), owner));
+        if (job.isEmpty()) {
+            log.warn("분석 작업 임대 상실 (다른 노드가 회수했거나 정리됨): {} - 노드: {}", jobId, owner);
+        }
+        return job;
+    }
+
+    private AnalysisJob finish(AnalysisJob job, AnalysisJob.Status status, Long analysisId, String error,
+                               LocalDateTime now) {
+        job.setStatus(status);
+        job.setAnalysisId(analysisId);
+        job.setError(error);
+        job.setFinishedAt(now);
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+        return job;
+    }
+
+    /**
+     * 지수 백오프 (retryBackoff * 2^(attempts-1), 상한 있음)
+     */
+    private Duration backoff(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), MAX_BACKOFF_SHIFT);
+        return properties.retryBackoff().multipliedBy(1L << shift);
+    }
+}
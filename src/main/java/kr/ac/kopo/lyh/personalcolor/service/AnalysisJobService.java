@@ -0,0 +1,392 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.config.AnalysisConfig;
+import kr.ac.kopo.lyh.personalcolor.entity.AnalysisJob;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisEngineException;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisNotFoundException;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisOverloadedException;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import kr.ac.kopo.lyh.personalcolor.exception.IdempotencyKeyMismatchException;
+import kr.ac.kopo.lyh.personalcolor.exception.ImageTooLargeException;
+import kr.ac.kopo.lyh.personalcolor.exception.UnauthorizedAccessException;
+import kr.ac.kopo.lyh.personalcolor.exception.UserNotFoundException;
+import kr.ac.kopo.lyh.personalcolor.repository.UserRepository;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.AdaptiveConcurrencyLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 업로드 후 비동기 분석 작업 서비스
+ * 업로드 요청은 파일 저장과 작업 등록(analysis_jobs 행)까지만 하고 작업 ID를 받아 바로 응답한다.
+ * 각 노드의 작업자는 주기적으로 실행할 작업을 선점하여 임대를 잡고, 실행 중에는 하트비트로 임대를 연장한다.
+ * 배포나 장애로 노드가 내려가도 작업은 DB에 남아 임대가 만료되면 다른 노드가 이어서 실행한다.
+ * 클라이언트는 작업 상태를 조회(폴링)하거나 SSE로 완료 알림을 받는다.
+ */
+@Slf4j
+@Service
+public class AnalysisJobService {
+
+    static final String STATUS_EVENT = "status";
+
+    private final AnalysisJobQueue analysisJobQueue;
+    private final ColorAnalysisService colorAnalysisService;
+    private final AnalysisRequestCoalescer analysisRequestCoalescer;
+    private final UserRepository userRepository;
+    private final TaskExecutor analysisJobExecutor;
+    private final AdaptiveConcurrencyLimiter analysisConcurrencyLimiter;
+    private final AnalysisConfig.AnalysisProperties.Jobs properties;
+
+    // 임대 소유자로 기록하는 노드 ID (재시작하면 새 ID)
+    private final String nodeId;
+
+    // 이 노드에서 실행 중인 작업 ID
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    // 이 노드에 연결된 완료 알림 구독자
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    public AnalysisJobService(AnalysisJobQueue analysisJobQueue,
+                              ColorAnalysisService colorAnalysisService,
+                              AnalysisRequestCoalescer analysisRequestCoalescer,
+                              UserRepository userRepository,
+                              @Qualifier("analysisJobExecutor") TaskExecutor analysisJobExecutor,
+                              AdaptiveConcurrencyLimiter analysisConcurrencyLimiter,
+                              AnalysisConfig.AnalysisProperties analysisProperties) {
+        this.analysisJobQueue = analysisJobQueue;
+        this.colorAnalysisService = colorAnalysisService;
+        this.analysisRequestCoalescer = analysisRequestCoalescer;
+        this.userRepository = userRepository;
+        this.analysisJobExecutor = analysisJobExecutor;
+        this.analysisConcurrencyLimiter = analysisConcurrencyLimiter;
+        this.properties = analysisProperties.jobs();
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        log.info("분석 작업자 노드 ID: {}", nodeId);
+    }
+
+    /**
+     * 분석 작업 등록
+     * 등록 후 이 노드에 빈 작업자가 있으면 다음 폴링을 기다리지 않고 바로 선점한다.
+     *
+     * @param idempotencyKey 업로드 요청의 Idempotency-Key (null 가능, 같은 키의 동시 작업은 분석 결과를 공유)
+     * @return 등록된 작업 상태 (PENDING)
+     * @throws AnalysisOverloadedException 대기 중인 작업이 대기열 한도에 도달한 경우 (Retry-After: 대기 작업이 빠지는 예상 시간)
+     */
+    public JobStatus submit(User user, String originalFileName, StoredFile storedFile, String idempotencyKey) {
+        long pending = analysisJobQueue.count(AnalysisJob.Status.PENDING);
+        if (pending >= properties.queueCapacity()) {
+            throw new AnalysisOverloadedException("분석 작업 대기열이 가득 찼습니다: " + properties.queueCapacity(),
+                    analysisConcurrencyLimiter.estimateWait(pending - properties.queueCapacity() + 1));
+        }
+
+        AnalysisJob job = analysisJobQueue.enqueue(user, originalFileName, storedFile,
+                AnalysisRequestCoalescer.normalize(idempotencyKey), LocalDateTime.now());
+        log.debug("분석 작업 등록: {} - {}", job.getId(), storedFile.storedFileName());
+
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("분석 작업 즉시 선점 실패 (다음 폴링에서 실행): {}", e.getMessage());
+        }
+        return toStatus(job);
+    }
+
+    /**
+     * 작업 상태 조회
+     */
+    public JobStatus getStatus(String jobId, User user) {
+        return toStatus(requireJob(jobId, user));
+    }
+
+    /**
+     * 작업 완료 알림 구독
+     * 현재 상태를 먼저 보내고, 이미 끝난 작업이면 바로 연결을 닫는다.
+     * 다른 노드가 끝낸 작업은 폴링 주기마다 DB 상태를 확인하여 알린다.
+     */
+    public SseEmitter subscribe(String jobId, User user) {
+        JobStatus status = toStatus(requireJob(jobId, user));
+        SseEmitter emitter = new SseEmitter(properties.sseTimeout().toMillis());
+
+        if (!send(emitter, status)) {
+            return emitter;
+        }
+        if (status.state().isFinished()) {
+            emitter.complete();
+            return emitter;
+        }
+
+        subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(jobId, emitter));
+        emitter.onTimeout(() -> unsubscribe(jobId, emitter));
+        emitter.onError(e -> unsubscribe(jobId, emitter));
+        return emitter;
+    }
+
+    /**
+     * 실행할 작업 선점 후 작업자 풀에서 실행
+     * 빈 작업자 수만큼만 선점하므로 노드를 늘리면 처리량이 그만큼 늘어난다.
+     *
+     * @return 선점한 작업 수
+     */
+    @Scheduled(fixedDelayString = "${app.analysis.jobs.poll-interval:PT1S}")
+    public int poll() {
+        if (!polling.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int free = Math.min(properties.workers() - running.size(), properties.batchSize());
+            if (free <= 0) {
+                return 0;
+            }
+
+            List<AnalysisJob> claimed = analysisJobQueue.claim(nodeId, free, LocalDateTime.now());
+            for (AnalysisJob job : claimed) {
+                running.add(job.getId());
+                try {
+                    analysisJobExecutor.execute(() -> process(job));
+                } catch (TaskRejectedException e) {
+                    running.remove(job.getId());
+                    analysisJobQueue.release(job.getId(), nodeId, LocalDateTime.now());
+                    log.warn("분석 작업 실행 거절, 반납: {}", job.getId());
+                }
+            }
+            return claimed.size();
+        } finally {
+            polling.set(false);
+            notifySubscribers();
+        }
+    }
+
+    /**
+     * 실행 중인 작업의 임대 연장
+     *
+     * @return 연장된 작업 수
+     */
+    @Scheduled(fixedDelayString = "${app.analysis.jobs.heartbeat-interval:PT10S}")
+    public int heartbeat() {
+        if (running.isEmpty()) {
+            return 0;
+        }
+        Set<String> jobIds = Set.copyOf(running);
+        int renewed = analysisJobQueue.renewLeases(nodeId, jobIds, LocalDateTime.now());
+        if (renewed < jobIds.size()) {
+            log.warn("분석 작업 임대 일부 연장 실패 - 실행 중: {}, 연장: {}", jobIds.size(), renewed);
+        }
+        return renewed;
+    }
+
+    /**
+     * 보관 기간이 지난 끝난 작업 정리
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public int evictFinished() {
+        return analysisJobQueue.purgeFinishedBefore(LocalDateTime.now().minus(properties.retention()));
+    }
+
+    /**
+     * 대기 중이거나 실행 중인 작업 수 (전체 노드)
+     */
+    public long getActiveCount() {
+        return analysisJobQueue.count(AnalysisJob.Status.PENDING) + analysisJobQueue.count(AnalysisJob.Status.RUNNING);
+    }
+
+    /**
+     * 임대 소유자로 기록하는 노드 ID
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // === 내부 메서드들 ===
+
+    private void process(AnalysisJob job) {
+        try {
+            User user = userRepository.findById(job.getUserId())
+                    .orElseThrow(() -> new UserNotFoundException("사용자를 찾을 수 없습니다: " + job.getUserId()));
+            ColorAnalysis analysis = analysisRequestCoalescer.analyzeImage(
+                    user, job.getOriginalFileName(), toStoredFile(job), job.getIdempotencyKey());
+            analysisJobQueue.complete(job.getId(), nodeId, analysis.getId(), LocalDateTime.now())
+                    .ifPresent(this::finished);
+        } catch (ImageTooLargeException e) {
+            fail(job, e.getMessage(), null);
+        } catch (FileStorageException | UserNotFoundException e) {
+            // 파일이나 사용자가 없으면 다시 시도해도 같은 결과
+            log.warn("분석 작업 실패: {} - {}", job.getId(), e.getMessage());
+            fail(job, "분석 중 오류가 발생했습니다.", null);
+        } catch (IdempotencyKeyMismatchException e) {
+            fail(job, e.getMessage(), null);
+        } catch (AnalysisOverloadedException e) {
+            // 수락 제어 거절은 작업 실패가 아니므로 시도 횟수를 쓰지 않고 예상 대기 시간 뒤로 미룸
+            log.debug("분석 작업 연기 (동시 실행 한도 초과): {} - {}초 후", job.getId(), e.getRetryAfterSeconds());
+            analysisJobQueue.release(job.getId(), nodeId, LocalDateTime.now().plus(e.getRetryAfter()));
+        } catch (AnalysisEngineException e) {
+            log.warn("분석 작업 실패 (엔진 사용 불가): {} - {}", job.getId(), e.getMessage());
+            fail(job, "분석 서버가 혼잡합니다. 잠시 후 다시 시도해주세요.", e.getRetryAfter());
+        } catch (RuntimeException e) {
+            log.error("분석 작업 실패: {}", job.getId(), e);
+            fail(job, "분석 중 오류가 발생했습니다.", Duration.ZERO);
+        } finally {
+            running.remove(job.getId());
+        }
+    }
+
+    private void fail(AnalysisJob job, String error, Duration retryAfter) {
+        analysisJobQueue.fail(job.getId(), nodeId, error, retryAfter, LocalDateTime.now())
+                .filter(updated -> updated.getStatus().isFinished())
+                .ifPresent(this::finished);
+    }
+
+    /**
+     * 이 노드에서 끝낸 작업의 구독자에게 바로 알림
+     */
+    private void finished(AnalysisJob job) {
+        log.debug("분석 작업 종료: {} - {} ({}회 시도)", job.getId(), job.getStatus(), job.getAttempts());
+        List<SseEmitter> emitters = subscribers.remove(job.getId());
+        if (emitters != null) {
+            broadcast(emitters, toStatus(job));
+        }
+    }
+
+    /**
+     * 구독 중인 작업 중 끝난 작업(다른 노드가 끝낸 작업 포함) 알림
+     */
+    private void notifySubscribers() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            for (AnalysisJob job : analysisJobQueue.findAll(Set.copyOf(subscribers.keySet()))) {
+                if (job.getStatus().isFinished()) {
+                    List<SseEmitter> emitters = subscribers.remove(job.getId());
+                    if (emitters != null) {
+                        broadcast(emitters, toStatus(job));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("분석 작업 구독자 알림 실패: {}", e.getMessage());
+        }
+    }
+
+    private void broadcast(List<SseEmitter> emitters, JobStatus status) {
+        for (SseEmitter emitter : emitters) {
+            if (send(emitter, status)) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private void unsubscribe(String jobId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private AnalysisJob requireJob(String jobId, User user) {
+        AnalysisJob job = jobId != null ? analysisJobQueue.find(jobId).orElse(null) : null;
+        if (job == null) {
+            throw new AnalysisNotFoundException("분석 작업을 찾을 수 없습니다: " + jobId);
+        }
+        if (!Objects.equals(job.getUserId(), user.getId())) {
+            throw new UnauthorizedAccessException("분석 작업에 접근할 권한이 없습니다.");
+        }
+        return job;
+    }
+
+    private JobStatus toStatus(AnalysisJob job) {
+        JobResult result = null;
+        if (job.getStatus() == AnalysisJob.Status.COMPLETED && job.getAnalysisId() != null) {
+            try {
+                result = JobResult.of(colorAnalysisService.getAnalysisById(job.getAnalysisId()));
+            } catch (AnalysisNotFoundException e) {
+                log.debug("분석 작업 결과가 삭제됨: {} - {}", job.getId(), job.getAnalysisId());
+            }
+        }
+        // 재시도 대기 중인 작업의 마지막 실패 사유는 끝난 뒤에만 보여준다
+        String error = job.getStatus() == AnalysisJob.Status.FAILED ? job.getError() : null;
+        return new JobStatus(job.getId(), job.getStatus(), result, error, job.getCreatedAt(), job.getFinishedAt());
+    }
+
+    private static StoredFile toStoredFile(AnalysisJob job) {
+        ImageHeader header = job.getImageFormat() != null
+                ? new ImageHeader(ImageFormat.valueOf(job.getImageFormat()), job.getImageWidth(), job.getImageHeight())
+                : null;
+        return new StoredFile(job.getStoredFileName(), job.getContentHash(), job.getFileSize(), header, false);
+    }
+
+    /**
+     * 상태 이벤트 전송 (연결이 끊겼으면 false)
+     */
+    private static boolean send(SseEmitter emitter, JobStatus status) {
+        try {
+            emitter.send(SseEmitter.event().name(STATUS_EVENT).data(status));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * 작업 상태 응답
+     *
+     * @param jobId      작업 ID
+     * @param state      작업 상태
+     * @param result     분석 결과 (COMPLETED일 때만)
+     * @param error      실패 사유 (FAILED일 때만)
+     * @param createdAt  등록 시각
+     * @param finishedAt 종료 시각
+     */
+    public record JobStatus(
+            String jobId,
+            AnalysisJob.Status state,
+            JobResult result,
+            String error,
+            LocalDateTime createdAt,
+            LocalDateTime finishedAt
+    ) {
+    }
+
+    /**
+     * 분석 결과 요약 (/upload 응답과 같은 항목)
+     */
+    public record JobResult(
+            Long analysisId,
+            String colorType,
+            int confidence,
+            String description,
+            String recommendedColors
+    ) {
+        static JobResult of(ColorAnalysis analysis) {
+            return new JobResult(
+                    analysis.getId(),
+                    analysis.getColorType().getDisplayName(),
+                    analysis.getConfidencePercent(),
+                    analysis.getDescription(),
+                    analysis.getRecommendedColors()
+            );
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.IdempotencyKeyMismatchException;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.SingleFlight;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 같은 이미지 분석 요청 병합
+ * 더블 클릭이나 클라이언트 재시도로 같은 이미지가 거의 동시에 두 번 들어오면 둘 다 엔진을 실행하고
+ * 둘 다 분석 이력을 저장하게 되므로, 사용자별 Idempotency-Key(없으면 내용 해시)가 같은 진행 중 요청이 있으면
+ * 그 결과(같은 분석 이력 행)를 함께 받는다.
+ * 같은 Idempotency-Key로 다른 내용을 보낸 요청은 병합하지 않고 IdempotencyKeyMismatchException으로 거절한다.
+ * 리더의 analyzeImage 트랜잭션이 커밋된 뒤에 결과를 넘기도록 트랜잭션 밖(이 빈)에서 병합한다.
+ * 병합은 노드 안에서만 이루어지며, 이미 끝난 요청은 analyzeImage의 내용 해시 재사용이 처리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalysisRequestCoalescer {
+
+    /** 같은 요청의 재전송을 표시하는 요청 헤더 */
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /** Idempotency-Key 최대 길이 (넘으면 무시하고 내용 해시 사용) */
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    private final ColorAnalysisService colorAnalysisService;
+    private final SingleFlight<String, Flight> analysisSingleFlight;
+
+    /**
+     * 이미지 분석 (같은 키의 요청이 진행 중이면 그 결과 공유)
+     *
+     * @param idempotencyKey 클라이언트가 보낸 Idempotency-Key (null이면 내용 해시로 병합)
+     * @throws IdempotencyKeyMismatchException 같은 키로 진행 중인 요청과 이미지 내용이 다른 경우
+     */
+    public ColorAnalysis analyzeImage(User user, String originalFileName, StoredFile storedFile,
+                                      String idempotencyKey) {
+        boolean[] leader = new boolean[1];
+        Flight flight = analysisSingleFlight.execute(key(user, storedFile, idempotencyKey), () -> {
+            leader[0] = true;
+            return new Flight(storedFile.contentHash(),
+                    colorAnalysisService.analyzeImage(user, originalFileName, storedFile));
+        });
+        ColorAnalysis analysis = flight.analysis();
+
+        if (!leader[0] && !flight.contentHash().equals(storedFile.contentHash())) {
+            // 다른 사진의 결과를 돌려주지 않음 (이 요청이 올린 파일은 참조하는 이력이 없으면 정리)
+            colorAnalysisService.discardUnreferenced(storedFile, null);
+            log.warn("Idempotency-Key 재사용 거절 (내용 다름) - 사용자: {}, 파일: {}", user.getEmail(), originalFileName);
+            throw new IdempotencyKeyMismatchException("같은 Idempotency-Key로 다른 이미지를 보냈습니다.");
+        }
+        if (!leader[0]) {
+            // 같은 요청이 올린 파일은 리더 결과가 참조하지 않으면 정리
+            colorAnalysisService.discardUnreferenced(storedFile, analysis.getStoredFileName());
+            log.info("동시 중복 분석 요청 병합 - 사용자: {}, 파일: {}, ID: {}",
+                    user.getEmail(), originalFileName, analysis.getId());
+        }
+        return analysis;
+    }
+
+    /**
+     * 진행 중인 분석 요청 수
+     */
+    public int getInFlight() {
+        return analysisSingleFlight.inFlight();
+    }
+
+    /**
+     * 진행 중인 분석의 결과 (리더가 보낸 이미지의 내용 해시 포함)
+     */
+    public record Flight(String contentHash, ColorAnalysis analysis) {
+    }
+
+    // === 내부 메서드들 ===
+
+    private static String key(User user, StoredFile storedFile, String idempotencyKey) {
+        String normalized = normalize(idempotencyKey);
+        return normalized != null
+                ? user.getId() + ":key:" + normalized
+                : user.getId() + ":sha:" + storedFile.contentHash();
+    }
+
+    /**
+     * 비었거나 너무 긴 키는 무시
+     */
+    static String normalize(String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        String trimmed = idempotencyKey.trim();
+        return trimmed.isEmpty() || trimmed.length() > MAX_IDEMPOTENCY_KEY_LENGTH ? null : trimmed;
+    }
+}
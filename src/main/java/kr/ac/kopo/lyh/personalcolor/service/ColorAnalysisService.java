@@ -1,27 +1,45 @@
 package kr.ac.kopo.lyh.personalcolor.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
 import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisEngineException;
 import kr.ac.kopo.lyh.personalcolor.exception.AnalysisNotFoundException;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisOverloadedException;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
 import kr.ac.kopo.lyh.personalcolor.exception.UnauthorizedAccessException;
 import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.AdaptiveConcurrencyLimiter;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.AnalysisResult;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.ColorAnalysisEngine;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.CpuBoundExecutor;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DominantPalette;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.PerceptualHash;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.SkinRegion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 /**
  * 컬러 분석 서비스 - Spring Boot 3.4 최적화
- * 비동기 처리 및 Virtual Threads 활용
+ * 비동기 처리 (가상 스레드 모드에서는 CPU 위주 분석을 전용 플랫폼 스레드 풀에서 실행)
  */
 @Slf4j
 @Service
@@ -31,27 +49,65 @@ public class ColorAnalysisService {
 
     private final ColorAnalysisRepository colorAnalysisRepository;
     private final FileStorageService fileStorageService;
-
-    /**
-     * 이미지 분석 수행 (비동기)
-     */
-    @Async("taskExecutor")
-    @Transactional
-    public CompletableFuture<ColorAnalysis> analyzeImageAsync(User user, String originalFileName, String storedFileName) {
-        return CompletableFuture.supplyAsync(() -> analyzeImage(user, originalFileName, storedFileName));
-    }
+    private final ColorAnalysisEngine colorAnalysisEngine;
+    private final ObjectMapper objectMapper;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final ThumbnailService thumbnailService;
+    private final AdaptiveConcurrencyLimiter analysisConcurrencyLimiter;
+    private final CpuBoundExecutor analysisCpuExecutor;
 
     /**
      * 이미지 분석 수행
+     * 같은 내용의 파일을 이미 분석했다면 엔진을 호출하지 않고 기존 결과를 재사용한다.
+     * 본인의 결과는 그대로 반환하고, 다른 사용자의 결과는 판정값만 복사하여 새 이력으로 저장한다.
+     * 내용이 달라도 본인의 최근 분석 중 dHash가 가까운 사진(재압축, 약간 잘린 사진)이 있으면 그 결과를 반환한다.
+     * 수락 제어 대기와 엔진 실행 동안 DB 커넥션을 잡지 않도록 트랜잭션 밖에서 실행하고,
+     * 조회와 저장은 리포지토리 호출마다 짧은 트랜잭션으로 처리한다.
      */
-    @Transactional
-    public ColorAnalysis analyzeImage(User user, String originalFileName, String storedFileName) {
-        log.info("이미지 분석 시작 - 사용자: {}, 파일: {}", user.getEmail(), originalFileName);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ColorAnalysis analyzeImage(User user, String originalFileName, StoredFile storedFile) {
+        String contentHash = storedFile.contentHash();
+
+        ColorAnalysis own = colorAnalysisRepository
+                .findFirstByUserAndContentHashOrderByAnalyzedAtDesc(user, contentHash)
+                .orElse(null);
+        if (own != null) {
+            discardIfUnreferenced(storedFile, own.getStoredFileName());
+            log.info("중복 업로드, 기존 분석 결과 반환 - 사용자: {}, 파일: {}, ID: {}",
+                    user.getEmail(), originalFileName, own.getId());
+            return own;
+        }
+
+        Long perceptualHash = computePerceptualHash(storedFile.storedFileName());
+        ColorAnalysis similar = perceptualHash != null ? findNearDuplicate(user, perceptualHash) : null;
+        if (similar != null) {
+            discardIfUnreferenced(storedFile, similar.getStoredFileName());
+            log.info("유사 이미지, 기존 분석 결과 반환 - 사용자: {}, 파일: {}, ID: {}",
+                    user.getEmail(), originalFileName, similar.getId());
+            return similar;
+        }
+
+        ColorAnalysis cached = colorAnalysisRepository
+                .findFirstByContentHashOrderByAnalyzedAtDesc(contentHash)
+                .orElse(null);
+        if (cached != null) {
+            discardIfUnreferenced(storedFile, cached.getStoredFileName());
+            ColorAnalysis copied = colorAnalysisRepository.save(
+                    copyResult(cached, user, originalFileName, perceptualHash, storedFile));
+            indexPerceptualHash(copied);
+            log.info("동일 이미지 분석 결과 재사용 - 사용자: {}, 파일: {}, 원본 ID: {}, 새 ID: {}",
+                    user.getEmail(), originalFileName, cached.getId(), copied.getId());
+            return copied;
+        }
+
+        String storedFileName = storedFile.storedFileName();
+        log.info("이미지 분석 시작 - 사용자: {}, 파일: {}, 엔진: {}",
+                user.getEmail(), originalFileName, colorAnalysisEngine.getName());
 
         try {
-            // 실제 AI 분석 로직 (현재는 샘플 구현)
-            ColorAnalysis.ColorType colorType = performColorAnalysis(storedFileName);
-            BigDecimal confidence = calculateConfidence(colorType);
+            AnalysisResult result = performColorAnalysis(storedFileName);
+            ColorAnalysis.ColorType colorType = result.colorType();
+            BigDecimal confidence = calculateConfidence(result);
             String description = generateDescription(colorType);
             String recommendedColors = generateRecommendedColors(colorType);
 
@@ -60,25 +116,79 @@ public class ColorAnalysisService {
                     .user(user)
                     .originalFileName(originalFileName)
                     .storedFileName(storedFileName)
+                    .contentHash(contentHash)
+                    .perceptualHash(perceptualHash)
+                    .imageWidth(storedFile.header().width())
+                    .imageHeight(storedFile.header().height())
+                    .fileSize(storedFile.size())
+                    .contentType(storedFile.header().format().getMimeType())
                     .colorType(colorType)
                     .confidence(confidence)
                     .description(description)
                     .recommendedColors(recommendedColors)
+                    .dominantColors(toDominantColorsJson(result.palette()))
                     .build();
+            applyRegion(analysis, result.region());
 
             ColorAnalysis savedAnalysis = colorAnalysisRepository.save(analysis);
+            indexPerceptualHash(savedAnalysis);
 
             log.info("이미지 분석 완료 - ID: {}, 컬러타입: {}, 신뢰도: {}%",
                     savedAnalysis.getId(), colorType.getDisplayName(), confidence.multiply(BigDecimal.valueOf(100)).intValue());
 
             return savedAnalysis;
 
+        } catch (AnalysisEngineException e) {
+            log.warn("분석 엔진 호출 실패 - 사용자: {}, 파일: {}, 원인: {}",
+                    user.getEmail(), originalFileName, e.getMessage());
+            throw e;
+        } catch (AnalysisOverloadedException e) {
+            log.warn("분석 요청 거절 (동시 실행 한도 초과) - 사용자: {}, 파일: {}, 재시도: {}초 후",
+                    user.getEmail(), originalFileName, e.getRetryAfterSeconds());
+            throw e;
+        } catch (FileStorageException | UnauthorizedAccessException e) {
+            // 크기 초과(ImageTooLargeException 포함)와 파일 없음은 재시도해도 같으므로 감싸지 않고 그대로 전달
+            log.warn("이미지 분석 불가 - 사용자: {}, 파일: {}, 원인: {}",
+                    user.getEmail(), originalFileName, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("이미지 분석 실패 - 사용자: {}, 파일: {}", user.getEmail(), originalFileName, e);
             throw new RuntimeException("이미지 분석 중 오류가 발생했습니다.", e);
         }
     }
 
+    /**
+     * 저장된 피부 영역을 재사용하여 재분석 (영역이 없으면 전체 이미지에서 다시 검출)
+     * 엔진 실행은 트랜잭션 밖에서 하고 결과 반영만 짧은 트랜잭션으로 저장한다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ColorAnalysis reanalyzeImage(Long analysisId, User user) {
+        ColorAnalysis analysis = getAnalysisById(analysisId);
+
+        if (!analysis.getUser().getId().equals(user.getId())) {
+            throw new UnauthorizedAccessException("재분석 권한이 없습니다.");
+        }
+
+        AnalysisResult result = admit(() -> colorAnalysisEngine.analyze(
+                fileStorageService.getFilePath(analysis.getStoredFileName()), storedRegion(analysis)));
+        ColorAnalysis.ColorType colorType = result.colorType();
+
+        analysis.setColorType(colorType);
+        analysis.setConfidence(calculateConfidence(result));
+        analysis.setDescription(generateDescription(colorType));
+        analysis.setRecommendedColors(generateRecommendedColors(colorType));
+        applyRegion(analysis, result.region());
+        // 영역만 디코딩한 재분석은 팔레트를 추출하지 않으므로 기존 값 유지
+        if (result.palette() != null) {
+            analysis.setDominantColors(toDominantColorsJson(result.palette()));
+        }
+
+        ColorAnalysis savedAnalysis = colorAnalysisRepository.save(analysis);
+        log.info("이미지 재분석 완료 - ID: {}, 컬러타입: {}, 엔진: {}",
+                analysisId, colorType.getDisplayName(), colorAnalysisEngine.getName());
+        return savedAnalysis;
+    }
+
     /**
      * 사용자별 분석 결과 조회
      */
@@ -120,17 +230,30 @@ public class ColorAnalysisService {
             throw new UnauthorizedAccessException("삭제 권한이 없습니다.");
         }
 
-        // 파일도 함께 삭제
-        try {
-            fileStorageService.deleteFile(analysis.getStoredFileName());
-        } catch (Exception e) {
-            log.warn("파일 삭제 실패: {}", analysis.getStoredFileName(), e);
+        // 같은 파일을 참조하는 다른 분석 결과가 없을 때만 파일도 함께 삭제
+        if (colorAnalysisRepository.countByStoredFileName(analysis.getStoredFileName()) <= 1) {
+            try {
+                fileStorageService.deleteFile(analysis.getStoredFileName());
+                thumbnailService.evict(analysis.getStoredFileName());
+            } catch (Exception e) {
+                log.warn("파일 삭제 실패: {}", analysis.getStoredFileName(), e);
+            }
         }
 
         colorAnalysisRepository.delete(analysis);
+        nearDuplicateIndex.remove(user.getId(), analysisId);
         log.info("분석 결과 삭제 완료 - ID: {}, 사용자: {}", analysisId, user.getEmail());
     }
 
+    /**
+     * 다른 분석 결과를 재사용한 업로드 파일 정리 (어떤 분석 이력도 참조하지 않을 때만 삭제)
+     *
+     * @param reusedFileName 재사용한 분석 결과의 저장 파일명
+     */
+    public void discardUnreferenced(StoredFile storedFile, String reusedFileName) {
+        discardIfUnreferenced(storedFile, reusedFileName);
+    }
+
     /**
      * 컬러 타입별 통계
      */
@@ -167,26 +290,183 @@ public class ColorAnalysisService {
     // === 내부 분석 메서드들 ===
 
     /**
-     * 실제 컬러 분석 로직 (AI 모델 연동 부분)
+     * 설정된 분석 엔진으로 저장된 이미지 파일 분석
      */
-    private ColorAnalysis.ColorType performColorAnalysis(String fileName) {
-        // TODO: 실제 AI 모델과 연동하여 분석 수행
-        // 현재는 샘플 구현
+    private AnalysisResult performColorAnalysis(String fileName) {
+        return admit(() -> colorAnalysisEngine.analyze(fileStorageService.getFilePath(fileName)));
+    }
+
+    /**
+     * 수락 제어 한도 안에서 엔진 호출 (차례가 오지 않으면 AnalysisOverloadedException)
+     * 실행 시간과 엔진 실패 여부를 한도 조정에 반영한다.
+     * CPU 위주 엔진은 분석 전용 스레드에서 실행한다 (가상 스레드 모드에서 캐리어 스레드 점유 방지).
+     * 분석 전용 스레드 풀 대기열이 가득 차면 수락 제어 거절과 같이 AnalysisOverloadedException으로 바꾸고 한도를 낮춘다.
+     */
+    private AnalysisResult admit(Supplier<AnalysisResult> analysis) {
+        try (AdaptiveConcurrencyLimiter.Permit permit = analysisConcurrencyLimiter.acquire()) {
+            try {
+                return colorAnalysisEngine.isCpuBound() ? analysisCpuExecutor.call(analysis) : analysis.get();
+            } catch (AnalysisEngineException e) {
+                permit.dropped();
+                throw e;
+            } catch (RejectedExecutionException e) {
+                permit.dropped();
+                throw overloaded(e);
+            }
+        }
+    }
 
-        // 파일명 해시를 기반으로 랜덤한 컬러 타입 결정 (데모용)
-        int hash = fileName.hashCode();
-        ColorAnalysis.ColorType[] types = ColorAnalysis.ColorType.values();
-        return types[Math.abs(hash) % types.length];
+    /**
+     * 분석 전용 스레드 풀 거절을 재시도 대기 시간이 있는 과부하 예외로 변환
+     */
+    private AnalysisOverloadedException overloaded(RejectedExecutionException e) {
+        log.warn("분석 스레드 풀 대기열 초과: {}", e.getMessage());
+        return new AnalysisOverloadedException("분석 요청이 많아 잠시 후 다시 시도해주세요.",
+                analysisConcurrencyLimiter.estimateWait(analysisConcurrencyLimiter.getWaiting() + 1L));
+    }
+
+    /**
+     * 저장된 파일의 dHash (디코딩 실패 시 null)
+     * 디코딩과 축소는 CPU 위주이므로 엔진과 같은 분석 전용 스레드에서 실행한다.
+     */
+    private Long computePerceptualHash(String storedFileName) {
+        try {
+            return analysisCpuExecutor.call(() -> {
+                try {
+                    return PerceptualHash.of(fileStorageService.getFilePath(storedFileName));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("dHash 계산 실패: {}", storedFileName, e.getCause());
+            return null;
+        } catch (RejectedExecutionException e) {
+            throw overloaded(e);
+        }
+    }
+
+    /**
+     * 사용자의 최근 분석 중 유사 이미지 결과 (인덱스에만 남은 삭제된 항목은 정리)
+     */
+    private ColorAnalysis findNearDuplicate(User user, long perceptualHash) {
+        Long analysisId = nearDuplicateIndex.findNearest(user.getId(), perceptualHash);
+        if (analysisId == null) {
+            return null;
+        }
+        return colorAnalysisRepository.findById(analysisId).orElseGet(() -> {
+            nearDuplicateIndex.remove(user.getId(), analysisId);
+            return null;
+        });
+    }
+
+    private void indexPerceptualHash(ColorAnalysis analysis) {
+        if (analysis.getPerceptualHash() != null) {
+            nearDuplicateIndex.add(analysis.getUser().getId(), analysis.getId(), analysis.getPerceptualHash());
+        }
+    }
+
+    /**
+     * 다른 사용자의 분석 결과를 새 사용자 이력으로 복사 (파일은 공유)
+     */
+    private ColorAnalysis copyResult(ColorAnalysis source, User user, String originalFileName,
+                                     Long perceptualHash, StoredFile storedFile) {
+        return ColorAnalysis.builder()
+                .user(user)
+                .originalFileName(originalFileName)
+                .storedFileName(source.getStoredFileName())
+                .contentHash(source.getContentHash())
+                .perceptualHash(perceptualHash)
+                .imageWidth(storedFile.header().width())
+                .imageHeight(storedFile.header().height())
+                .fileSize(storedFile.size())
+                .contentType(storedFile.header().format().getMimeType())
+                .colorType(source.getColorType())
+                .confidence(source.getConfidence())
+                .description(source.getDescription())
+                .recommendedColors(source.getRecommendedColors())
+                .dominantColors(source.getDominantColors())
+                .skinRegionX(source.getSkinRegionX())
+                .skinRegionY(source.getSkinRegionY())
+                .skinRegionWidth(source.getSkinRegionWidth())
+                .skinRegionHeight(source.getSkinRegionHeight())
+                .build();
+    }
+
+    /**
+     * 기존 분석 결과의 파일을 재사용할 때, 이번 업로드로 새로 생긴 파일(확장자만 다른 경우 등)이
+     * 어떤 분석 결과에서도 참조되지 않으면 삭제
+     */
+    private void discardIfUnreferenced(StoredFile storedFile, String reusedFileName) {
+        if (storedFile.duplicate() || storedFile.storedFileName().equals(reusedFileName)
+                || colorAnalysisRepository.existsByStoredFileName(storedFile.storedFileName())) {
+            return;
+        }
+        try {
+            fileStorageService.deleteFile(storedFile.storedFileName());
+        } catch (Exception e) {
+            log.warn("미사용 파일 삭제 실패: {}", storedFile.storedFileName(), e);
+        }
+    }
+
+    /**
+     * 저장된 피부 영역 (일부라도 비어 있으면 null)
+     */
+    private SkinRegion storedRegion(ColorAnalysis analysis) {
+        if (analysis.getSkinRegionX() == null || analysis.getSkinRegionY() == null
+                || analysis.getSkinRegionWidth() == null || analysis.getSkinRegionHeight() == null) {
+            return null;
+        }
+        return new SkinRegion(analysis.getSkinRegionX(), analysis.getSkinRegionY(),
+                analysis.getSkinRegionWidth(), analysis.getSkinRegionHeight());
+    }
+
+    /**
+     * 분석 결과의 피부 영역을 엔티티에 반영
+     */
+    private void applyRegion(ColorAnalysis analysis, SkinRegion region) {
+        analysis.setSkinRegionX(region != null ? region.x() : null);
+        analysis.setSkinRegionY(region != null ? region.y() : null);
+        analysis.setSkinRegionWidth(region != null ? region.width() : null);
+        analysis.setSkinRegionHeight(region != null ? region.height() : null);
+    }
+
+    /**
+     * 대표 색상 팔레트 JSON 생성 (팔레트가 없으면 null)
+     */
+    private String toDominantColorsJson(DominantPalette palette) {
+        if (palette == null) {
+            return null;
+        }
+
+        List<Map<String, Object>> swatches = new ArrayList<>(palette.size());
+        for (int i = 0; i < palette.size(); i++) {
+            swatches.add(Map.of(
+                    "color", palette.hex(i),
+                    "weight", BigDecimal.valueOf(palette.weights()[i]).setScale(4, RoundingMode.HALF_UP)
+            ));
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("skin", palette.hex(palette.skinIndex()));
+        json.put("hair", palette.hex(palette.hairIndex()));
+        json.put("eyes", palette.hex(palette.eyeIndex()));
+        json.put("palette", swatches);
+
+        try {
+            return objectMapper.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            log.warn("대표 색상 직렬화 실패", e);
+            return null;
+        }
     }
 
     /**
-     * 신뢰도 계산
+     * 신뢰도 계산 (분석 엔진의 판정 확률을 0~1 범위 소수점 4자리로 변환)
      */
-    private BigDecimal calculateConfidence(ColorAnalysis.ColorType colorType) {
-        // TODO: 실제 AI 모델의 confidence score 사용
-        // 현재는 0.7 ~ 0.95 사이의 랜덤값
-        double confidence = 0.7 + (Math.random() * 0.25);
-        return BigDecimal.valueOf(confidence).setScale(4, BigDecimal.ROUND_HALF_UP);
+    private BigDecimal calculateConfidence(AnalysisResult result) {
+        double confidence = Math.min(1.0, Math.max(0.0, result.confidence()));
+        return BigDecimal.valueOf(confidence).setScale(4, RoundingMode.HALF_UP);
     }
 
     /**
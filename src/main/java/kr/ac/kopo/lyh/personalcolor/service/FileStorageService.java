@@ -1,9 +1,14 @@
 package kr.ac.kopo.lyh.personalcolor.service;
 
+import jakarta.annotation.PostConstruct;
 import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
 import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import kr.ac.kopo.lyh.personalcolor.exception.ImageTooLargeException;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeBudget;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeRejectedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
@@ -11,15 +16,21 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
-import java.util.UUID;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
 
 /**
  * 파일 저장 서비스 - Spring Boot 3.4 최적화
@@ -30,11 +41,19 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class FileStorageService {
 
+    private static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]+");
+
     private final ApplicationConfig.FileStorageProperties fileStorageProperties;
+    private final MultipartProperties multipartProperties;
+    private final HotFileCache hotFileCache;
+    private final DecodeBudget decodeBudget;
 
     /**
      * 업로드 디렉토리 초기화
      */
+    @PostConstruct
     public void init() {
         try {
             Path uploadPath = getUploadPath();
@@ -49,24 +68,90 @@ public class FileStorageService {
 
     /**
      * 파일 저장
+     * 업로드 내용을 한 번 읽으면서 매직 바이트로 포맷을 판별하고 SHA-256을 계산하며, 내용 해시를 파일명으로 사용한다.
+     * 서블릿 컨테이너가 디스크에 임시 저장한 파일은 다시 읽지 않고 컨테이너 임시 파일 자체를 저장 디렉토리로 옮긴 뒤
+     * 원자적으로 이름을 바꾸고 (같은 파일 시스템이면 rename, 아니면 컨테이너가 복사),
+     * 메모리에 있는 작은 파일은 FileChannel로 한 번만 기록한다.
+     * 어느 쪽이든 최종 파일명에는 완성된 내용만 나타나므로, 중단된 기록이 중복 재사용 대상으로 남지 않는다.
+     * 같은 내용의 파일이 이미 있으면 아무것도 쓰지 않고 기존 파일을 재사용한다.
      */
-    public String storeFile(MultipartFile file) {
+    public StoredFile storeFile(MultipartFile file) {
         validateFile(file);
 
         String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-        String storedFilename = generateStoredFilename(originalFilename);
 
+        // 경로 순회 공격 방지
+        if (originalFilename.contains("..")) {
+            throw new FileStorageException("파일명에 상위 경로 참조가 포함되어 있습니다: " + originalFilename);
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+            boolean spooled = file.getSize() > multipartProperties.getFileSizeThreshold().toBytes();
+            byte[] content = spooled ? null : file.getBytes();
+
+            ImageFormat format = spooled ? digestStream(file, digest) : digestBytes(content, digest);
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            String storedFilename = contentHash + format.getExtension();
+            Path existing = getFilePath(storedFilename);
+
+            if (Files.exists(existing)) {
+                log.info("중복 파일 재사용: {} -> {}", originalFilename, storedFilename);
+                return new StoredFile(storedFilename, contentHash, file.getSize(), readHeader(existing, false), true);
+            }
+
+            Path targetLocation = getStoragePath(storedFilename);
+            Files.createDirectories(targetLocation.getParent());
+            if (spooled) {
+                transferAtomically(file, targetLocation);
+            } else {
+                writeAtomically(content, targetLocation);
+            }
+            return registerStored(originalFilename, storedFilename, contentHash, file.getSize(), targetLocation);
+
+        } catch (IOException e) {
+            throw new FileStorageException("파일 저장 실패: " + originalFilename, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(CONTENT_HASH_ALGORITHM + " 알고리즘을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 이어 올리기로 조립이 끝난 임시 파일 저장
+     * 내용 해시는 조각을 받으면서 이미 계산했으므로 다시 읽지 않고, 포맷 판별용 앞부분만 읽은 뒤 저장 위치로 이동한다.
+     *
+     * @param stagedFile       조립이 끝난 임시 파일 (저장 후 삭제됨)
+     * @param originalFilename 클라이언트가 알려준 원본 파일명
+     * @param contentHash      전체 내용의 SHA-256 (16진수)
+     */
+    public StoredFile storeStagedFile(Path stagedFile, String originalFilename, String contentHash) {
         try {
-            // 경로 순회 공격 방지
-            if (originalFilename.contains("..")) {
-                throw new FileStorageException("파일명에 상위 경로 참조가 포함되어 있습니다: " + originalFilename);
+            long size = Files.size(stagedFile);
+            if (size == 0 || size > fileStorageProperties.maxFileSize()) {
+                throw new FileStorageException("파일 크기가 올바르지 않습니다: " + size);
             }
 
-            Path targetLocation = getUploadPath().resolve(storedFilename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            ImageFormat format;
+            try (FileChannel channel = FileChannel.open(stagedFile, StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(ImageFormat.SNIFF_LENGTH);
+                while (header.hasRemaining() && channel.read(header) >= 0) {
+                    // 판별에 필요한 길이까지 읽기
+                }
+                format = requireImageFormat(header.array(), header.position());
+            }
+
+            String storedFilename = contentHash + format.getExtension();
+            Path existing = getFilePath(storedFilename);
+            if (Files.exists(existing)) {
+                deleteQuietly(stagedFile);
+                log.info("중복 파일 재사용: {} -> {}", originalFilename, storedFilename);
+                return new StoredFile(storedFilename, contentHash, size, readHeader(existing, false), true);
+            }
 
-            log.info("파일 저장 완료: {} -> {}", originalFilename, storedFilename);
-            return storedFilename;
+            Path targetLocation = getStoragePath(storedFilename);
+            Files.createDirectories(targetLocation.getParent());
+            moveInto(stagedFile, targetLocation);
+            return registerStored(originalFilename, storedFilename, contentHash, size, targetLocation);
 
         } catch (IOException e) {
             throw new FileStorageException("파일 저장 실패: " + originalFilename, e);
@@ -78,7 +163,7 @@ public class FileStorageService {
      */
     public Resource loadFile(String filename) {
         try {
-            Path filePath = getUploadPath().resolve(filename).normalize();
+            Path filePath = getFilePath(filename);
             Resource resource = new UrlResource(filePath.toUri());
 
             if (resource.exists() && resource.isReadable()) {
@@ -96,7 +181,8 @@ public class FileStorageService {
      */
     public void deleteFile(String filename) {
         try {
-            Path filePath = getUploadPath().resolve(filename).normalize();
+            Path filePath = getFilePath(filename);
+            hotFileCache.invalidate(filename);
             Files.deleteIfExists(filePath);
             log.info("파일 삭제 완료: {}", filename);
         } catch (IOException e) {
@@ -104,12 +190,51 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * 저장된 파일의 절대 경로 반환
+     * 경로는 파일명만으로 계산하며, 배치 전환 중이라 샤드 위치에 아직 없으면 기존 평면 위치를 확인한다.
+     */
+    public Path getFilePath(String filename) {
+        Path storagePath = getStoragePath(filename);
+        if (fileStorageProperties.layout() == ApplicationConfig.FileStorageProperties.Layout.FLAT
+                || Files.exists(storagePath)) {
+            return storagePath;
+        }
+        Path flatPath = resolveInUploadDir(filename);
+        return Files.exists(flatPath) ? flatPath : storagePath;
+    }
+
+    /**
+     * 현재 배치 방식에서 파일이 있어야 할 경로
+     * SHARDED 배치에서 내용 해시 파일명은 ab/cd/&lt;digest&gt;.ext, 그 외(이전 형식 파일명)는 업로드 디렉토리 바로 아래
+     */
+    public Path getStoragePath(String filename) {
+        if (fileStorageProperties.layout() == ApplicationConfig.FileStorageProperties.Layout.SHARDED
+                && isContentAddressed(filename)) {
+            return resolveInUploadDir(filename.substring(0, 2) + "/" + filename.substring(2, 4) + "/" + filename);
+        }
+        return resolveInUploadDir(filename);
+    }
+
+    /**
+     * 업로드 디렉토리 절대 경로
+     */
+    public Path getUploadPath() {
+        return Paths.get(fileStorageProperties.uploadDir()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * 내용 해시(SHA-256 16진수 64자) 기반 파일명 여부
+     */
+    public static boolean isContentAddressed(String filename) {
+        return CONTENT_ADDRESSED_NAME.matcher(filename).matches();
+    }
+
     /**
      * 파일 존재 여부 확인
      */
     public boolean exists(String filename) {
-        Path filePath = getUploadPath().resolve(filename).normalize();
-        return Files.exists(filePath);
+        return Files.exists(getFilePath(filename));
     }
 
     /**
@@ -117,8 +242,7 @@ public class FileStorageService {
      */
     public long getFileSize(String filename) {
         try {
-            Path filePath = getUploadPath().resolve(filename).normalize();
-            return Files.size(filePath);
+            return Files.size(getFilePath(filename));
         } catch (IOException e) {
             throw new FileStorageException("파일 크기 조회 실패: " + filename, e);
         }
@@ -126,8 +250,13 @@ public class FileStorageService {
 
     // === 내부 메서드들 ===
 
-    private Path getUploadPath() {
-        return Paths.get(fileStorageProperties.uploadDir()).toAbsolutePath().normalize();
+    private Path resolveInUploadDir(String relativePath) {
+        Path uploadPath = getUploadPath();
+        Path filePath = uploadPath.resolve(relativePath).normalize();
+        if (!filePath.startsWith(uploadPath)) {
+            throw new FileStorageException("업로드 디렉토리 밖의 파일은 접근할 수 없습니다: " + relativePath);
+        }
+        return filePath;
     }
 
     private void validateFile(MultipartFile file) {
@@ -143,27 +272,142 @@ public class FileStorageService {
         if (filename == null || filename.trim().isEmpty()) {
             throw new FileStorageException("파일명이 없습니다.");
         }
+    }
 
-        String extension = getFileExtension(filename);
-        if (!isAllowedExtension(extension)) {
-            throw new FileStorageException("허용되지 않는 파일 형식입니다: " + extension);
+    /**
+     * 저장된 파일의 헤더만 읽어 포맷과 크기 확인, 헤더가 손상되었으면 새로 저장한 파일은 삭제
+     */
+    private ImageHeader readHeader(Path storedFile, boolean newlyStored) {
+        try {
+            return ImageHeaderReader.read(storedFile);
+        } catch (IOException e) {
+            if (newlyStored) {
+                deleteQuietly(storedFile);
+            }
+            throw new FileStorageException("손상된 이미지 파일입니다: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 새로 저장한 파일의 헤더 확인, 픽셀 상한 검사, 메모리 캐시 등록
+     */
+    private StoredFile registerStored(String originalFilename, String storedFilename, String contentHash,
+                                      long size, Path targetLocation) {
+        ImageHeader header = readHeader(targetLocation, true);
+        requirePixelLimit(header, targetLocation);
+        // 업로드 직후 결과 화면에서 바로 조회하므로 미리 캐시
+        hotFileCache.put(storedFilename, targetLocation);
+
+        log.info("파일 저장 완료: {} -> {} ({} {}x{})", originalFilename, storedFilename,
+                header.format(), header.width(), header.height());
+        return new StoredFile(storedFilename, contentHash, size, header, false);
+    }
+
+    /**
+     * 임시 파일을 저장 위치로 이동 (다른 파일시스템이면 원자적 이동 대신 복사 후 삭제)
+     */
+    private void moveInto(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 헤더에 선언된 해상도가 디코딩 픽셀 상한을 넘으면 새로 저장한 파일을 지우고 거절 (압축 폭탄 차단)
+     */
+    private void requirePixelLimit(ImageHeader header, Path storedFile) {
+        try {
+            decodeBudget.checkDimensions(header.width(), header.height());
+        } catch (DecodeRejectedException e) {
+            deleteQuietly(storedFile);
+            throw new ImageTooLargeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 디스크에 임시 저장된 업로드를 읽으며 포맷 판별과 해시 계산
+     */
+    private ImageFormat digestStream(MultipartFile file, MessageDigest digest) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            int headerLength = in.readNBytes(buffer, 0, ImageFormat.SNIFF_LENGTH);
+            ImageFormat format = requireImageFormat(buffer, headerLength);
+            digest.update(buffer, 0, headerLength);
+
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return format;
         }
     }
 
-    private String generateStoredFilename(String originalFilename) {
-        String extension = getFileExtension(originalFilename);
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String uuid = UUID.randomUUID().toString().substring(0, 8);
+    /**
+     * 메모리에 있는 업로드의 포맷 판별과 해시 계산
+     */
+    private ImageFormat digestBytes(byte[] content, MessageDigest digest) {
+        ImageFormat format = requireImageFormat(content, content.length);
+        digest.update(content);
+        return format;
+    }
 
-        return String.format("%s_%s%s", timestamp, uuid, extension);
+    private ImageFormat requireImageFormat(byte[] header, int length) {
+        ImageFormat format = ImageFormat.sniff(header, length);
+        if (format == null) {
+            throw new FileStorageException("이미지 파일이 아닙니다.");
+        }
+        if (!isAllowedExtension(format.getExtension())) {
+            throw new FileStorageException("허용되지 않는 파일 형식입니다: " + format.getExtension());
+        }
+        return format;
     }
 
-    private String getFileExtension(String filename) {
-        int lastDotIndex = filename.lastIndexOf('.');
-        if (lastDotIndex == -1) {
-            return "";
+    /**
+     * 임시 파일에 FileChannel로 기록한 뒤 같은 디렉토리 안에서 rename하여
+     * 다른 요청이 쓰기 중인 파일을 보지 않도록 한다.
+     */
+    private void writeAtomically(byte[] content, Path target) throws IOException {
+        Path tempFile = Files.createTempFile(target.getParent(), "upload_", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            // 같은 내용의 동시 업로드는 내용이 동일하므로 어느 쪽이 이겨도 무방
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    /**
+     * 디스크에 임시 저장된 업로드를 저장 디렉토리의 임시 파일 이름으로 옮긴 뒤 최종 이름으로 원자적으로 이동
+     * transferTo(File)는 Part.write를 거쳐 컨테이너 임시 파일을 rename하므로 내용을 다시 복사하지 않는다.
+     * (transferTo(Path)는 입력 스트림을 읽어 복사하므로 사용하지 않음, 절대 경로여야 컨테이너 임시 디렉토리 기준으로 해석되지 않음)
+     */
+    private void transferAtomically(MultipartFile file, Path target) throws IOException {
+        Path tempFile = Files.createTempFile(target.getParent(), "upload_", ".tmp").toAbsolutePath();
+        try {
+            file.transferTo(tempFile.toFile());
+            moveInto(tempFile, target);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {}", path, e);
         }
-        return filename.substring(lastDotIndex).toLowerCase();
     }
 
     private boolean isAllowedExtension(String extension) {
@@ -0,0 +1,207 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 최근 저장/조회한 파일의 메모리 캐시
+ * 업로드 직후 결과 화면, 목록, 공유 링크가 같은 이미지를 연달아 요청하므로
+ * 파일 내용을 direct 버퍼에 올려두고 경로 조회나 파일 열기 없이 응답한다.
+ * 메모리 사용량은 바이트 합계로 제한하고, 마지막 사용 후 TTL이 지나면 버린다.
+ * 저장 파일은 쓰고 나면 바뀌지 않으므로 무효화는 삭제 시에만 필요하다.
+ * (MappedByteBuffer는 매핑이 해제되기 전까지 Windows에서 원본 삭제가 실패하므로 direct 버퍼에 복사)
+ */
+@Slf4j
+@Component
+public class HotFileCache {
+
+    private final ApplicationConfig.FileStorageProperties.HotCache properties;
+
+    /** 파일명 -> 캐시 항목, 접근 순서 (가장 오래 사용하지 않은 항목이 맨 앞) */
+    private final LinkedHashMap<String, CachedFile> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public HotFileCache(ApplicationConfig.FileStorageProperties fileStorageProperties, MeterRegistry registry) {
+        this.properties = fileStorageProperties.hotCache();
+        this.hits = requestCounter(registry, "hit");
+        this.misses = requestCounter(registry, "miss");
+        this.sizeEvictions = evictionCounter(registry, "size");
+        this.expiredEvictions = evictionCounter(registry, "expired");
+        Gauge.builder("personalcolor.files.hot-cache.bytes", this, HotFileCache::getTotalBytes)
+                .description("메모리 캐시에 올라간 파일 바이트 합계")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * 캐시 조회 (없거나 만료되었으면 null)
+     */
+    public CachedFile get(String fileName) {
+        if (!properties.enabled()) {
+            return null;
+        }
+        long now = System.nanoTime();
+        synchronized (entries) {
+            CachedFile cached = entries.get(fileName);
+            if (cached != null && cached.expiresAt() - now > 0) {
+                CachedFile touched = cached.withExpiry(now + properties.ttl().toNanos());
+                entries.put(fileName, touched);
+                hits.increment();
+                return touched;
+            }
+            if (cached != null) {
+                remove(fileName);
+                expiredEvictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 파일을 읽어 캐시에 추가 (비활성이거나 항목 상한보다 크면 null)
+     */
+    public CachedFile put(String fileName, Path file) {
+        if (!properties.enabled()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > properties.maxEntryBytes() || size > properties.maxBytes()) {
+                return null;
+            }
+
+            ByteBuffer content = ByteBuffer.allocateDirect((int) size);
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+                // 끝까지 읽기
+            }
+            content.flip();
+
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            CachedFile cached = new CachedFile(content, lastModified, System.nanoTime() + properties.ttl().toNanos());
+            synchronized (entries) {
+                remove(fileName);
+                entries.put(fileName, cached);
+                totalBytes += cached.size();
+                evictOverflow();
+            }
+            return cached;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("파일 캐시 실패: {}", fileName, e);
+            return null;
+        }
+    }
+
+    /**
+     * 파일 삭제 시 캐시에서 제거
+     */
+    public void invalidate(String fileName) {
+        synchronized (entries) {
+            remove(fileName);
+        }
+    }
+
+    /**
+     * 현재 캐시된 바이트 합계
+     */
+    public long getTotalBytes() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+
+    // === 내부 메서드들 ===
+
+    private void remove(String fileName) {
+        CachedFile removed = entries.remove(fileName);
+        if (removed != null) {
+            totalBytes -= removed.size();
+        }
+    }
+
+    /**
+     * 만료된 항목을 먼저, 그래도 상한을 넘으면 가장 오래 사용하지 않은 항목부터 제거 (entries 잠금 안에서 호출)
+     */
+    private void evictOverflow() {
+        if (totalBytes <= properties.maxBytes()) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Iterator<CachedFile> it = entries.values().iterator(); it.hasNext(); ) {
+            CachedFile cached = it.next();
+            if (cached.expiresAt() - now <= 0) {
+                it.remove();
+                totalBytes -= cached.size();
+                expiredEvictions.increment();
+            }
+        }
+        for (Iterator<Map.Entry<String, CachedFile>> it = entries.entrySet().iterator();
+             it.hasNext() && totalBytes > properties.maxBytes(); ) {
+            CachedFile cached = it.next().getValue();
+            it.remove();
+            totalBytes -= cached.size();
+            sizeEvictions.increment();
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("personalcolor.files.hot-cache.requests")
+                .description("파일 메모리 캐시 조회 결과")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter evictionCounter(MeterRegistry registry, String cause) {
+        return Counter.builder("personalcolor.files.hot-cache.evictions")
+                .description("파일 메모리 캐시에서 제거된 항목 수")
+                .tag("cause", cause)
+                .register(registry);
+    }
+
+    /**
+     * 캐시된 파일
+     *
+     * @param content      파일 내용 (direct 버퍼, 위치 0 ~ limit)
+     * @param lastModified 파일 수정 시각 (epoch ms, Last-Modified 응답용)
+     * @param expiresAt    만료 시각 (System.nanoTime 기준)
+     */
+    public record CachedFile(
+            ByteBuffer content,
+            long lastModified,
+            long expiresAt
+    ) {
+        public long size() {
+            return content.limit();
+        }
+
+        public ByteBufferResource toResource(String fileName) {
+            return new ByteBufferResource(content, fileName);
+        }
+
+        CachedFile withExpiry(long expiresAt) {
+            return new CachedFile(content, lastModified, expiresAt);
+        }
+    }
+}
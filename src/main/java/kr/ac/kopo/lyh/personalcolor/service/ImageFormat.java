@@ -0,0 +1,84 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+/**
+ * 업로드 허용 이미지 포맷
+ * 파일명 확장자나 클라이언트가 보낸 Content-Type 대신 파일 앞부분의 시그니처(매직 바이트)로 판별
+ */
+public enum ImageFormat {
+
+    JPEG(".jpg", "image/jpeg", new int[]{0xFF, 0xD8, 0xFF}),
+    PNG(".png", "image/png", new int[]{0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A}),
+    GIF(".gif", "image/gif", new int[]{'G', 'I', 'F', '8'}),
+    BMP(".bmp", "image/bmp", new int[]{'B', 'M'});
+
+    /** 판별에 필요한 최대 바이트 수 */
+    public static final int SNIFF_LENGTH = 8;
+
+    private final String extension;
+    private final String mimeType;
+    private final int[] signature;
+
+    ImageFormat(String extension, String mimeType, int[] signature) {
+        this.extension = extension;
+        this.mimeType = mimeType;
+        this.signature = signature;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * 파일 앞부분 바이트로 포맷 판별
+     *
+     * @param header 파일 첫 바이트들
+     * @param length header에서 유효한 길이
+     * @return 허용 포맷이 아니면 null
+     */
+    public static ImageFormat sniff(byte[] header, int length) {
+        for (ImageFormat format : values()) {
+            if (format.matches(header, length)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 저장 파일명의 확장자로 포맷 조회 (저장 시 매직 바이트로 확장자를 정하므로 실제 내용과 일치)
+     *
+     * @return 허용 포맷의 확장자가 아니면 null
+     */
+    public static ImageFormat fromFileName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        String extension = fileName.substring(dot).toLowerCase();
+        if (".jpeg".equals(extension)) {
+            return JPEG;
+        }
+        for (ImageFormat format : values()) {
+            if (format.extension.equals(extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(byte[] header, int length) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+/**
+ * 이미지 헤더에서 읽은 메타데이터
+ *
+ * @param format 이미지 포맷
+ * @param width  원본 너비 (px)
+ * @param height 원본 높이 (px)
+ */
+public record ImageHeader(
+        ImageFormat format,
+        int width,
+        int height
+) {
+
+    public long pixelCount() {
+        return (long) width * height;
+    }
+}
@@ -0,0 +1,143 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 이미지 헤더 판독기
+ * 픽셀 데이터를 디코딩하지 않고 포맷별 헤더(JPEG SOF, PNG IHDR, GIF 논리 화면, BMP DIB)만 읽어 크기를 구한다.
+ * JPEG은 마커 세그먼트 길이만 따라가며 건너뛰므로 EXIF 등 앞쪽 세그먼트가 커도 읽는 양은 수십 바이트 수준이다.
+ */
+public final class ImageHeaderReader {
+
+    private static final int PREFIX_LENGTH = 32;
+
+    private ImageHeaderReader() {
+    }
+
+    /**
+     * 파일 헤더 판독
+     *
+     * @throws IOException 허용 포맷이 아니거나 헤더가 손상된 경우
+     */
+    public static ImageHeader read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer prefix = ByteBuffer.allocate(PREFIX_LENGTH);
+            int length = readAt(channel, prefix, 0);
+
+            ImageFormat format = ImageFormat.sniff(prefix.array(), length);
+            if (format == null) {
+                throw new IOException("이미지 형식을 인식할 수 없습니다: " + file.getFileName());
+            }
+
+            ImageHeader header = switch (format) {
+                case PNG -> png(prefix, length);
+                case GIF -> gif(prefix, length);
+                case BMP -> bmp(prefix, length);
+                case JPEG -> jpeg(channel);
+            };
+            if (header.width() <= 0 || header.height() <= 0) {
+                throw new IOException("이미지 크기가 올바르지 않습니다: " + header.width() + "x" + header.height());
+            }
+            return header;
+        }
+    }
+
+    private static ImageHeader png(ByteBuffer prefix, int length) throws IOException {
+        // 시그니처(8) + 청크 길이(4) + "IHDR"(4) 다음에 너비, 높이 (빅 엔디언)
+        requireLength(length, 24);
+        if (prefix.getInt(12) != 0x49484452) {
+            throw new IOException("PNG IHDR 청크가 없습니다.");
+        }
+        return new ImageHeader(ImageFormat.PNG, prefix.getInt(16), prefix.getInt(20));
+    }
+
+    private static ImageHeader gif(ByteBuffer prefix, int length) throws IOException {
+        // "GIF89a"(6) 다음에 논리 화면 너비, 높이 (리틀 엔디언 16비트)
+        requireLength(length, 10);
+        prefix.order(ByteOrder.LITTLE_ENDIAN);
+        return new ImageHeader(ImageFormat.GIF,
+                Short.toUnsignedInt(prefix.getShort(6)), Short.toUnsignedInt(prefix.getShort(8)));
+    }
+
+    private static ImageHeader bmp(ByteBuffer prefix, int length) throws IOException {
+        // 파일 헤더(14) 다음 DIB 헤더 크기로 OS/2(12바이트, 16비트 크기)와 Windows(32비트 크기) 구분
+        requireLength(length, 26);
+        prefix.order(ByteOrder.LITTLE_ENDIAN);
+        if (prefix.getInt(14) == 12) {
+            return new ImageHeader(ImageFormat.BMP,
+                    Short.toUnsignedInt(prefix.getShort(18)), Short.toUnsignedInt(prefix.getShort(20)));
+        }
+        // 높이가 음수면 위에서 아래로 저장된 비트맵
+        return new ImageHeader(ImageFormat.BMP, prefix.getInt(18), Math.abs(prefix.getInt(22)));
+    }
+
+    private static ImageHeader jpeg(FileChannel channel) throws IOException {
+        ByteBuffer segment = ByteBuffer.allocate(9);
+        long position = 2;
+        long size = channel.size();
+
+        while (position + 4 <= size) {
+            segment.clear().limit(4);
+            requireLength(readAt(channel, segment, position), 4);
+            if ((segment.get(0) & 0xFF) != 0xFF) {
+                throw new IOException("JPEG 마커 위치가 올바르지 않습니다: " + position);
+            }
+
+            int marker = segment.get(1) & 0xFF;
+            if (marker == 0xFF) {
+                // 채움 바이트
+                position++;
+                continue;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                // 길이 필드가 없는 독립 마커
+                position += 2;
+                continue;
+            }
+            if (marker == 0xDA || marker == 0xD9) {
+                break;
+            }
+
+            if (isStartOfFrame(marker)) {
+                // 마커(2) + 길이(2) + 정밀도(1) 다음에 높이, 너비 (빅 엔디언 16비트)
+                segment.clear().limit(9);
+                requireLength(readAt(channel, segment, position), 9);
+                return new ImageHeader(ImageFormat.JPEG,
+                        Short.toUnsignedInt(segment.getShort(7)), Short.toUnsignedInt(segment.getShort(5)));
+            }
+
+            position += 2 + Short.toUnsignedInt(segment.getShort(2));
+        }
+        throw new IOException("JPEG SOF 세그먼트를 찾을 수 없습니다.");
+    }
+
+    /**
+     * SOF0~SOF15 (DHT, JPG, DAC 제외)
+     */
+    private static boolean isStartOfFrame(int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    private static int readAt(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static void requireLength(int length, int required) throws IOException {
+        if (length < required) {
+            throw new IOException("이미지 헤더가 잘려 있습니다.");
+        }
+    }
+}
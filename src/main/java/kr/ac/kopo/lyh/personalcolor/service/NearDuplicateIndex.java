@@ -0,0 +1,253 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.config.AnalysisConfig;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.PerceptualHash;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자별 유사 이미지 인덱스
+ * 최근 분석 결과의 dHash를 사용자별 long[] 배열에 보관하고 해밍 거리로 선형 탐색한다.
+ * 사용자 한 명의 보관 기간 내 분석 건수는 많지 않으므로 트리 구조보다 배열 순회가 빠르고 메모리도 작다.
+ * 애플리케이션 시작 시 color_analyses 테이블에서 해시 컬럼만 조회하여 다시 만든다.
+ * 트랜잭션 안에서 추가한 항목은 커밋된 뒤에만 보이게 하고, 항목이 모두 빠진 사용자는 인덱스에서 제거한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NearDuplicateIndex {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final ColorAnalysisRepository colorAnalysisRepository;
+    private final AnalysisConfig.AnalysisProperties analysisProperties;
+
+    /** 재구성도 이 맵에 병합 (조회와 재구성 사이에 커밋된 추가가 사라지지 않도록 교체하지 않음) */
+    private final Map<Long, UserHashes> index = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return analysisProperties.nearDuplicate().enabled();
+    }
+
+    /**
+     * 보관 기간 내 분석 결과로 인덱스 재구성
+     * 조회 결과를 사용자 단위로 묶어 기존 인덱스에 병합하고, 그사이 커밋되어 이미 들어간 항목은 중복 추가하지 않는다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        LocalDateTime since = LocalDateTime.now().minus(analysisProperties.nearDuplicate().retention());
+        List<Object[]> rows = colorAnalysisRepository.findPerceptualHashesSince(since);
+
+        Map<Long, UserHashes> loaded = new HashMap<>();
+        for (Object[] row : rows) {
+            Long analysisId = (Long) row[0];
+            Long userId = (Long) row[1];
+            Long hash = (Long) row[2];
+            LocalDateTime analyzedAt = (LocalDateTime) row[3];
+            loaded.computeIfAbsent(userId, id -> new UserHashes())
+                    .add(analysisId, hash, toEpochMilli(analyzedAt));
+        }
+        loaded.forEach((userId, hashes) -> index.merge(userId, hashes, UserHashes::mergeFrom));
+
+        log.info("유사 이미지 인덱스 구성 완료 - 사용자: {}, 항목: {}, 소요: {}ms",
+                loaded.size(), rows.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 해밍 거리 임계치 이내에서 가장 가까운 분석 결과 ID (없으면 null)
+     */
+    public Long findNearest(Long userId, long hash) {
+        if (!isEnabled()) {
+            return null;
+        }
+        UserHashes hashes = index.get(userId);
+        if (hashes == null) {
+            return null;
+        }
+        long id = hashes.nearest(hash, analysisProperties.nearDuplicate().maxDistance(), retentionCutoff());
+        return id >= 0 ? id : null;
+    }
+
+    /**
+     * 분석 결과 추가 (트랜잭션 안이면 커밋된 뒤에 추가, 롤백되면 추가하지 않음)
+     */
+    public void add(Long userId, Long analysisId, long hash) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addNow(userId, analysisId, hash);
+                }
+            });
+            return;
+        }
+        addNow(userId, analysisId, hash);
+    }
+
+    public void remove(Long userId, Long analysisId) {
+        index.computeIfPresent(userId, (id, hashes) -> {
+            hashes.remove(analysisId);
+            return hashes.isEmpty() ? null : hashes;
+        });
+    }
+
+    /**
+     * 보관 기간이 지난 항목 정리 (항목이 남지 않은 사용자는 제거)
+     */
+    @Scheduled(fixedDelay = 3_600_000)
+    public void pruneExpired() {
+        long cutoff = retentionCutoff();
+        for (Long userId : index.keySet()) {
+            index.computeIfPresent(userId, (id, hashes) -> {
+                hashes.prune(cutoff);
+                return hashes.isEmpty() ? null : hashes;
+            });
+        }
+    }
+
+    /**
+     * 인덱스에 항목이 있는 사용자 수
+     */
+    public int getUserCount() {
+        return index.size();
+    }
+
+    // === 내부 메서드들 ===
+
+    /**
+     * 사용자 목록 교체/제거와 겹치지 않도록 맵의 키 단위 잠금 안에서 추가
+     */
+    private void addNow(Long userId, Long analysisId, long hash) {
+        long cutoff = retentionCutoff();
+        index.compute(userId, (id, hashes) -> {
+            UserHashes target = hashes != null ? hashes : new UserHashes();
+            target.prune(cutoff);
+            target.add(analysisId, hash, System.currentTimeMillis());
+            return target;
+        });
+    }
+
+    private long retentionCutoff() {
+        return System.currentTimeMillis() - analysisProperties.nearDuplicate().retention().toMillis();
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 사용자 한 명의 해시 목록 (분석 ID, 해시, 분석 시각을 병렬 배열로 보관)
+     */
+    private static final class UserHashes {
+
+        private long[] ids = new long[4];
+        private long[] hashes = new long[4];
+        private long[] times = new long[4];
+        private int size;
+
+        /**
+         * 다른 목록의 항목 중 없는 ID만 추가하고 자신을 반환
+         */
+        synchronized UserHashes mergeFrom(UserHashes other) {
+            for (int i = 0; i < other.size; i++) {
+                if (indexOf(other.ids[i]) < 0) {
+                    add(other.ids[i], other.hashes[i], other.times[i]);
+                }
+            }
+            return this;
+        }
+
+        synchronized void add(long analysisId, long hash, long time) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                hashes = Arrays.copyOf(hashes, capacity);
+                times = Arrays.copyOf(times, capacity);
+            }
+            ids[size] = analysisId;
+            hashes[size] = hash;
+            times[size] = time;
+            size++;
+        }
+
+        /**
+         * 거리가 가장 작은 항목의 ID, 거리가 같으면 최근 항목 (없으면 -1)
+         */
+        synchronized long nearest(long hash, int maxDistance, long cutoff) {
+            long bestId = -1L;
+            int bestDistance = maxDistance + 1;
+            long bestTime = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                if (times[i] < cutoff) {
+                    continue;
+                }
+                int distance = PerceptualHash.distance(hash, hashes[i]);
+                if (distance < bestDistance || (distance == bestDistance && times[i] > bestTime)) {
+                    bestId = ids[i];
+                    bestDistance = distance;
+                    bestTime = times[i];
+                }
+            }
+            return bestId;
+        }
+
+        synchronized void remove(long analysisId) {
+            int i = indexOf(analysisId);
+            if (i >= 0) {
+                removeAt(i);
+            }
+        }
+
+        synchronized boolean isEmpty() {
+            return size == 0;
+        }
+
+        synchronized void prune(long cutoff) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (times[i] < cutoff) {
+                    removeAt(i);
+                }
+            }
+        }
+
+        private int indexOf(long analysisId) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == analysisId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void removeAt(int i) {
+            size--;
+            ids[i] = ids[size];
+            hashes[i] = hashes[size];
+            times[i] = times[size];
+        }
+    }
+}
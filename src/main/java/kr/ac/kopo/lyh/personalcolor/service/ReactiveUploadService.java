@@ -0,0 +1,166 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 논블로킹 업로드 서비스
+ * 업로드 본문의 DataBuffer를 도착하는 대로 SHA-256에 반영하고 AsynchronousFileChannel로 임시 파일에 기록하므로,
+ * 느린 클라이언트가 보내는 동안 요청 스레드를 점유하지 않는다.
+ * 저장소 이동과 분석(JPA, 디코딩)은 블로킹 작업이므로 크기가 제한된 분석 스케줄러에서 실행한다.
+ */
+@Slf4j
+public class ReactiveUploadService {
+
+    private static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+    private static final String STAGED_PREFIX = "reactive_";
+    private static final String STAGED_SUFFIX = ".part";
+
+    private final FileStorageService fileStorageService;
+    private final AnalysisRequestCoalescer analysisRequestCoalescer;
+    private final Scheduler analysisScheduler;
+    private final Path stagingPath;
+    private final long maxFileSize;
+
+    public ReactiveUploadService(FileStorageService fileStorageService,
+                                 AnalysisRequestCoalescer analysisRequestCoalescer,
+                                 ApplicationConfig.FileStorageProperties fileStorageProperties,
+                                 Scheduler analysisScheduler) {
+        this.fileStorageService = fileStorageService;
+        this.analysisRequestCoalescer = analysisRequestCoalescer;
+        this.analysisScheduler = analysisScheduler;
+        // 이어 올리기와 같은 임시 디렉토리를 사용하여 비정상 종료로 남은 파일도 같은 정리 작업이 지운다
+        this.stagingPath = Paths.get(fileStorageProperties.resumable().stagingDir()).toAbsolutePath().normalize();
+        this.maxFileSize = fileStorageProperties.maxFileSize();
+    }
+
+    /**
+     * 업로드 본문을 임시 파일에 기록
+     * 최대 파일 크기를 넘으면 DataBufferLimitException으로 중단하고, 실패하면 임시 파일을 지운다.
+     * 결과를 내보낸 뒤의 취소(next() 등)는 정상 종료이므로 파일을 지우지 않는다 (이후 store()가 옮기거나 지움).
+     *
+     * @param originalFileName 클라이언트가 보낸 원본 파일명
+     * @param content          파일 내용
+     */
+    public Mono<StagedUpload> stage(String originalFileName, Publisher<DataBuffer> content) {
+        return Mono.fromCallable(() -> {
+                    Files.createDirectories(stagingPath);
+                    return Files.createTempFile(stagingPath, STAGED_PREFIX, STAGED_SUFFIX);
+                })
+                .flatMap(staged -> {
+                    MessageDigest digest = newDigest();
+                    AtomicLong size = new AtomicLong();
+                    AtomicBoolean emitted = new AtomicBoolean();
+                    Flux<DataBuffer> hashed = Flux.from(content).handle((buffer, sink) -> {
+                        if (size.addAndGet(buffer.readableByteCount()) > maxFileSize) {
+                            DataBufferUtils.release(buffer);
+                            sink.error(new DataBufferLimitException(
+                                    "파일 크기가 허용된 최대 크기를 초과합니다: " + maxFileSize + " bytes"));
+                            return;
+                        }
+                        try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+                            buffers.forEachRemaining(digest::update);
+                        }
+                        sink.next(buffer);
+                    });
+
+                    return DataBufferUtils.write(hashed, staged, StandardOpenOption.WRITE)
+                            .then(Mono.fromCallable(() -> new StagedUpload(cleanFileName(originalFileName), staged,
+                                    HexFormat.of().formatHex(digest.digest()), size.get())))
+                            .doOnNext(upload -> emitted.set(true))
+                            .doOnError(e -> deleteQuietly(staged))
+                            .doOnCancel(() -> {
+                                if (!emitted.get()) {
+                                    deleteQuietly(staged);
+                                }
+                            });
+                });
+    }
+
+    /**
+     * 임시 파일을 저장소로 옮기고 분석 (분석 스케줄러에서 실행)
+     *
+     * @param idempotencyKey 요청의 Idempotency-Key (null 가능, 같은 키의 동시 요청은 분석 결과를 공유)
+     */
+    public Mono<ColorAnalysis> storeAndAnalyze(User user, StagedUpload staged, String idempotencyKey) {
+        return Mono.fromCallable(() -> analysisRequestCoalescer.analyzeImage(
+                        user, staged.originalFileName(), store(staged), idempotencyKey))
+                .subscribeOn(analysisScheduler);
+    }
+
+    /**
+     * 임시 파일을 내용 해시 저장소로 이동 (실패하면 임시 파일 삭제)
+     */
+    StoredFile store(StagedUpload staged) {
+        if (staged.size() == 0) {
+            deleteQuietly(staged.file());
+            throw new FileStorageException("파일이 비어있습니다.");
+        }
+        try {
+            return fileStorageService.storeStagedFile(staged.file(), staged.originalFileName(), staged.contentHash());
+        } catch (RuntimeException e) {
+            deleteQuietly(staged.file());
+            throw e;
+        }
+    }
+
+    // === 내부 메서드들 ===
+
+    private static String cleanFileName(String originalFileName) {
+        return StringUtils.hasText(originalFileName) ? StringUtils.cleanPath(originalFileName) : "upload";
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(CONTENT_HASH_ALGORITHM + " 미지원", e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("업로드 임시 파일 삭제 실패: {}", file, e);
+        }
+    }
+
+    /**
+     * 임시 파일에 기록된 업로드
+     *
+     * @param originalFileName 클라이언트가 보낸 원본 파일명
+     * @param file             임시 파일 경로
+     * @param contentHash      내용 SHA-256 (16진수)
+     * @param size             기록한 바이트 수
+     */
+    public record StagedUpload(
+            String originalFileName,
+            Path file,
+            String contentHash,
+            long size
+    ) {
+    }
+}
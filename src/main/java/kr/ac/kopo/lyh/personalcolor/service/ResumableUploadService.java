@@ -0,0 +1,370 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import jakarta.annotation.PostConstruct;
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import kr.ac.kopo.lyh.personalcolor.exception.UnauthorizedAccessException;
+import kr.ac.kopo.lyh.personalcolor.exception.UploadSessionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 이어 올리기(tus 방식 분할 업로드) 서비스
+ * 세션을 만들면 임시 디렉토리에 조각 파일을 만들고, 조각은 서버가 기록한 오프셋 위치에 FileChannel로 이어 쓴다.
+ * 받은 바이트는 바로 SHA-256에 반영하므로 완료 시 파일을 다시 읽지 않고 내용 해시 저장소로 옮긴다.
+ * 연결이 끊겨도 실제로 기록된 바이트까지는 오프셋이 남으므로 클라이언트는 HEAD로 오프셋을 확인하고 이어 보낸다.
+ * 세션은 메모리에만 두므로 재시작하면 진행 중인 업로드는 처음부터 다시 보내야 한다.
+ */
+@Slf4j
+@Service
+public class ResumableUploadService {
+
+    private static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+    private static final String PART_SUFFIX = ".part";
+    private static final int CHUNK_BUFFER_SIZE = 64 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final ApplicationConfig.FileStorageProperties.Resumable properties;
+    private final long maxFileSize;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public ResumableUploadService(FileStorageService fileStorageService,
+                                  ApplicationConfig.FileStorageProperties fileStorageProperties) {
+        this.fileStorageService = fileStorageService;
+        this.properties = fileStorageProperties.resumable();
+        this.maxFileSize = fileStorageProperties.maxFileSize();
+    }
+
+    /**
+     * 임시 디렉토리 생성 및 이전 실행에서 남은 조각 파일 정리
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            Files.createDirectories(getStagingPath());
+        } catch (IOException e) {
+            throw new FileStorageException("이어 올리기 임시 디렉토리 생성 실패", e);
+        }
+        sweepExpired();
+    }
+
+    /**
+     * 업로드 세션 생성
+     *
+     * @param length 전체 파일 크기 (bytes)
+     * @return 생성된 세션 ID
+     */
+    public String create(User user, String originalFileName, long length) {
+        if (length <= 0 || length > maxFileSize) {
+            throw new UploadSessionException(UploadSessionException.Reason.TOO_LARGE,
+                    "파일 크기가 올바르지 않습니다: " + length + " (최대 " + maxFileSize + " bytes)", 0);
+        }
+
+        String id = UUID.randomUUID().toString();
+        Path partFile = getStagingPath().resolve(id + PART_SUFFIX);
+        try {
+            Files.createFile(partFile);
+        } catch (IOException e) {
+            throw new FileStorageException("이어 올리기 세션 생성 실패", e);
+        }
+
+        String fileName = StringUtils.hasText(originalFileName) ? StringUtils.cleanPath(originalFileName) : id;
+        sessions.put(id, new UploadSession(id, user.getId(), fileName, length, partFile, newDigest()));
+        log.info("이어 올리기 시작: {} - {} ({} bytes)", id, fileName, length);
+        return id;
+    }
+
+    /**
+     * 세션 상태 조회 (HEAD 응답용)
+     */
+    public UploadStatus getStatus(String id, User user) {
+        UploadSession session = requireSession(id, user);
+        return session.status();
+    }
+
+    /**
+     * 조각 이어 쓰기
+     * 요청한 오프셋이 서버 오프셋과 같아야 하며, 본문을 끝까지 읽거나 연결이 끊긴 지점까지 기록한다.
+     * 본문 읽기 실패(클라이언트 연결 끊김)는 중단으로 보고 기록된 오프셋을 반환하지만,
+     * 임시 파일 기록 실패는 서버 문제이므로 FileStorageException으로 알린다 (오프셋은 마지막으로 온전히 기록한 위치 유지).
+     *
+     * @param offset 클라이언트가 보낸 Upload-Offset
+     * @return 기록 후 오프셋
+     * @throws FileStorageException 임시 파일을 열거나 기록하지 못한 경우
+     */
+    public long append(String id, User user, long offset, InputStream body) {
+        UploadSession session = requireSession(id, user);
+        if (!session.lock.tryLock()) {
+            throw new UploadSessionException(UploadSessionException.Reason.BUSY,
+                    "다른 조각을 기록하는 중입니다.", session.offset);
+        }
+        try {
+            if (offset != session.offset) {
+                throw new UploadSessionException(UploadSessionException.Reason.OFFSET_MISMATCH,
+                        "오프셋이 일치하지 않습니다: 요청 " + offset + ", 서버 " + session.offset, session.offset);
+            }
+            try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+                writeChunk(session, channel, body);
+            } catch (IOException e) {
+                throw new FileStorageException("이어 올리기 조각 기록 실패: " + id, e);
+            } finally {
+                session.lastActivity = Instant.now();
+            }
+            return session.offset;
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * 업로드 완료 - 조립된 파일을 내용 해시 저장소로 옮기고 세션 종료
+     */
+    public CompletedUpload complete(String id, User user) {
+        UploadSession session = requireSession(id, user);
+        if (!session.lock.tryLock()) {
+            throw new UploadSessionException(UploadSessionException.Reason.BUSY,
+                    "다른 조각을 기록하는 중입니다.", session.offset);
+        }
+        try {
+            if (session.offset < session.length) {
+                throw new UploadSessionException(UploadSessionException.Reason.INCOMPLETE,
+                        "아직 받지 못한 데이터가 있습니다: " + session.offset + " / " + session.length, session.offset);
+            }
+            String contentHash = HexFormat.of().formatHex(session.digest.digest());
+            try {
+                StoredFile storedFile = fileStorageService.storeStagedFile(session.partFile, session.originalFileName, contentHash);
+                log.info("이어 올리기 완료: {} -> {}", id, storedFile.storedFileName());
+                return new CompletedUpload(session.originalFileName, storedFile);
+            } finally {
+                // 저장에 실패한 파일(이미지가 아님, 해상도 초과)은 다시 보내도 같은 결과이므로 세션도 함께 정리
+                sessions.remove(id);
+                deleteQuietly(session.partFile);
+            }
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * 업로드 취소
+     */
+    public void cancel(String id, User user) {
+        UploadSession session = requireSession(id, user);
+        sessions.remove(id);
+        session.lock.lock();
+        try {
+            deleteQuietly(session.partFile);
+        } finally {
+            session.lock.unlock();
+        }
+        log.info("이어 올리기 취소: {}", id);
+    }
+
+    /**
+     * 버려진 업로드 정리 - 마지막 조각 이후 만료 시간이 지난 세션과 세션 없이 남은 조각 파일 삭제
+     *
+     * @return 삭제한 세션/파일 수
+     */
+    @Scheduled(fixedDelayString = "${app.file-storage.resumable.sweep-interval:PT15M}",
+            initialDelayString = "${app.file-storage.resumable.sweep-interval:PT15M}")
+    public int sweepExpired() {
+        Instant cutoff = Instant.now().minus(properties.expiry());
+        int removed = 0;
+
+        for (UploadSession session : sessions.values()) {
+            // 기록 중인 세션은 건너뛴다 (다음 주기에 다시 확인)
+            if (session.lastActivity.isBefore(cutoff) && session.lock.tryLock()) {
+                try {
+                    if (sessions.remove(session.id, session)) {
+                        deleteQuietly(session.partFile);
+                        removed++;
+                    }
+                } finally {
+                    session.lock.unlock();
+                }
+            }
+        }
+
+        try (Stream<Path> files = Files.list(getStagingPath())) {
+            for (Path file : files.filter(ResumableUploadService::isPartFile).toList()) {
+                String id = file.getFileName().toString();
+                id = id.substring(0, id.length() - PART_SUFFIX.length());
+                if (!sessions.containsKey(id) && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    deleteQuietly(file);
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("이어 올리기 임시 디렉토리 정리 실패", e);
+        }
+
+        if (removed > 0) {
+            log.info("버려진 이어 올리기 정리 - {}개", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * 진행 중인 세션 수
+     */
+    public int getActiveCount() {
+        return sessions.size();
+    }
+
+    public Duration getExpiry() {
+        return properties.expiry();
+    }
+
+    // === 내부 메서드들 ===
+
+    private UploadSession requireSession(String id, User user) {
+        UploadSession session = id != null ? sessions.get(id) : null;
+        if (session == null) {
+            throw new UploadSessionException(UploadSessionException.Reason.NOT_FOUND,
+                    "업로드 세션을 찾을 수 없습니다: " + id, 0);
+        }
+        if (!Objects.equals(session.userId, user.getId())) {
+            throw new UnauthorizedAccessException("업로드 세션에 접근할 권한이 없습니다.");
+        }
+        return session;
+    }
+
+    /**
+     * 본문을 읽어 세션 오프셋 위치에 기록하고 해시에 반영 (세션 잠금 안에서 호출)
+     * 선언한 크기를 넘는 데이터는 기록하지 않고 거절한다.
+     */
+    /**
+     * 본문을 읽어 임시 파일에 이어 쓰기 (읽기 실패는 중단으로 처리하고, 기록 실패만 IOException으로 전달)
+     */
+    private void writeChunk(UploadSession session, FileChannel channel, InputStream body) throws IOException {
+        byte[] buffer = new byte[CHUNK_BUFFER_SIZE];
+        int read;
+        while ((read = readChunk(session, body, buffer)) != -1) {
+            if (session.offset + read > session.length) {
+                throw new UploadSessionException(UploadSessionException.Reason.TOO_LARGE,
+                        "선언한 크기보다 많은 데이터를 보냈습니다: " + session.length + " bytes", session.offset);
+            }
+            ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+            long position = session.offset;
+            while (chunk.hasRemaining()) {
+                position += channel.write(chunk, position);
+            }
+            session.digest.update(buffer, 0, read);
+            session.offset = position;
+        }
+    }
+
+    private static int readChunk(UploadSession session, InputStream body, byte[] buffer) {
+        try {
+            return body.read(buffer);
+        } catch (IOException e) {
+            // 끊긴 지점까지는 기록되어 있으므로 클라이언트는 HEAD로 오프셋을 확인하고 이어 보낸다
+            log.info("이어 올리기 조각 중단: {} - {} / {} bytes ({})",
+                    session.id, session.offset, session.length, e.getMessage());
+            return -1;
+        }
+    }
+
+    private Path getStagingPath() {
+        return Paths.get(properties.stagingDir()).toAbsolutePath().normalize();
+    }
+
+    private static boolean isPartFile(Path file) {
+        return Files.isRegularFile(file) && file.getFileName().toString().endsWith(PART_SUFFIX);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(CONTENT_HASH_ALGORITHM + " 미지원", e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("이어 올리기 임시 파일 삭제 실패: {}", file, e);
+        }
+    }
+
+    /**
+     * 진행 중인 업로드 세션 (offset, digest는 lock을 잡은 상태에서만 변경)
+     */
+    private static final class UploadSession {
+        private final String id;
+        private final Long userId;
+        private final String originalFileName;
+        private final long length;
+        private final Path partFile;
+        private final MessageDigest digest;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long offset;
+        private volatile Instant lastActivity = Instant.now();
+
+        private UploadSession(String id, Long userId, String originalFileName, long length,
+                              Path partFile, MessageDigest digest) {
+            this.id = id;
+            this.userId = userId;
+            this.originalFileName = originalFileName;
+            this.length = length;
+            this.partFile = partFile;
+            this.digest = digest;
+        }
+
+        private UploadStatus status() {
+            return new UploadStatus(offset, length, lastActivity);
+        }
+    }
+
+    /**
+     * 업로드 진행 상태
+     *
+     * @param offset       서버에 기록된 바이트 수
+     * @param length       선언된 전체 크기
+     * @param lastActivity 마지막 조각 기록 시각
+     */
+    public record UploadStatus(
+            long offset,
+            long length,
+            Instant lastActivity
+    ) {
+    }
+
+    /**
+     * 완료된 업로드
+     *
+     * @param originalFileName 클라이언트가 알려준 원본 파일명
+     * @param storedFile       저장된 파일 정보
+     */
+    public record CompletedUpload(
+            String originalFileName,
+            StoredFile storedFile
+    ) {
+    }
+}
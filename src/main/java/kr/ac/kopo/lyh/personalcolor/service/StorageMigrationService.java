@@ -0,0 +1,225 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 업로드 저장소 배치 전환 서비스
+ * 업로드 디렉토리 바로 아래의 파일을 샤드 하위 디렉토리로 배치 단위로 옮긴다.
+ * 이전 형식 파일명(yyyyMMdd_HHmmss_uuid.ext)은 내용 해시 파일명으로 바꾸고 color_analyses의 storedFileName도 함께 갱신한다.
+ * 새 위치에 하드 링크를 먼저 만든 뒤 원본을 지우므로 전환 중에도 파일 조회가 끊기지 않는다.
+ */
+@Slf4j
+@Service
+public class StorageMigrationService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final ColorAnalysisRepository colorAnalysisRepository;
+    private final ApplicationConfig.FileStorageProperties fileStorageProperties;
+    private final Executor taskExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile MigrationStatus status = new MigrationStatus(false, 0, 0, 0, 0, 0, null, null);
+
+    public StorageMigrationService(FileStorageService fileStorageService,
+                                   ColorAnalysisRepository colorAnalysisRepository,
+                                   ApplicationConfig.FileStorageProperties fileStorageProperties,
+                                   @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.fileStorageService = fileStorageService;
+        this.colorAnalysisRepository = colorAnalysisRepository;
+        this.fileStorageProperties = fileStorageProperties;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * 전환 시작 (이미 실행 중이면 현재 상태만 반환)
+     *
+     * @throws IllegalStateException 저장소 배치가 SHARDED가 아닌 경우
+     */
+    public MigrationStatus start() {
+        if (fileStorageProperties.layout() != ApplicationConfig.FileStorageProperties.Layout.SHARDED) {
+            throw new IllegalStateException("app.file-storage.layout=sharded 설정 후 실행할 수 있습니다.");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return status;
+        }
+
+        status = new MigrationStatus(true, 0, 0, 0, 0, 0, LocalDateTime.now(), null);
+        try {
+            taskExecutor.execute(this::run);
+        } catch (RuntimeException e) {
+            running.set(false);
+            status = status.finish();
+            throw e;
+        }
+        log.info("저장소 배치 전환 시작 - 배치 크기: {}, 대기: {}",
+                fileStorageProperties.migration().batchSize(), fileStorageProperties.migration().pause());
+        return status;
+    }
+
+    public MigrationStatus getStatus() {
+        return status;
+    }
+
+    private void run() {
+        ApplicationConfig.FileStorageProperties.Migration migration = fileStorageProperties.migration();
+        Counters counters = new Counters();
+        int inBatch = 0;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(fileStorageService.getUploadPath(), Files::isRegularFile)) {
+            for (Path file : files) {
+                counters.scanned++;
+                migrate(file, counters);
+
+                if (++inBatch >= migration.batchSize()) {
+                    inBatch = 0;
+                    status = counters.snapshot(status, true);
+                    Thread.sleep(migration.pause().toMillis());
+                }
+            }
+        } catch (IOException e) {
+            log.error("저장소 배치 전환 중 디렉토리 읽기 실패", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("저장소 배치 전환 중단");
+        } finally {
+            status = counters.snapshot(status, false).finish();
+            running.set(false);
+            log.info("저장소 배치 전환 종료 - {}", status);
+        }
+    }
+
+    private void migrate(Path file, Counters counters) {
+        String name = file.getFileName().toString();
+        if (name.startsWith("upload_") && name.endsWith(".tmp")) {
+            // 저장 중인 임시 파일
+            counters.skipped++;
+            return;
+        }
+        try {
+            if (FileStorageService.isContentAddressed(name)) {
+                // 파일명은 그대로, 위치만 샤드 디렉토리로
+                link(file, fileStorageService.getStoragePath(name));
+                Files.delete(file);
+                counters.moved++;
+                return;
+            }
+
+            ContentDigest digest = digest(file);
+            if (digest == null) {
+                // 이미지가 아닌 파일은 그대로 둠
+                counters.skipped++;
+                return;
+            }
+
+            String newName = digest.hash() + digest.format().getExtension();
+            link(file, fileStorageService.getStoragePath(newName));
+            int updated = colorAnalysisRepository.renameStoredFile(name, newName, digest.hash());
+            Files.delete(file);
+            counters.renamed++;
+            log.debug("파일명 전환: {} -> {} (분석 결과 {}건)", name, newName, updated);
+
+        } catch (IOException | RuntimeException e) {
+            counters.failed++;
+            log.warn("파일 전환 실패: {}", name, e);
+        }
+    }
+
+    /**
+     * 새 위치에 하드 링크 생성 (같은 내용이 이미 있으면 생략, 링크를 지원하지 않으면 복사)
+     */
+    private void link(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException e) {
+            Files.copy(source, target);
+        }
+    }
+
+    /**
+     * 파일 내용의 SHA-256과 매직 바이트 포맷 (이미지가 아니면 null)
+     */
+    private ContentDigest digest(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int headerLength = in.readNBytes(buffer, 0, ImageFormat.SNIFF_LENGTH);
+            ImageFormat format = ImageFormat.sniff(buffer, headerLength);
+            if (format == null) {
+                return null;
+            }
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(buffer, 0, headerLength);
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return new ContentDigest(HexFormat.of().formatHex(digest.digest()), format);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 알고리즘을 사용할 수 없습니다.", e);
+        }
+    }
+
+    private record ContentDigest(String hash, ImageFormat format) {
+    }
+
+    /**
+     * 전환 진행 상태
+     *
+     * @param running    실행 중 여부
+     * @param scanned    확인한 파일 수
+     * @param moved      위치만 옮긴 내용 해시 파일 수
+     * @param renamed    내용 해시 파일명으로 바꾼 이전 형식 파일 수
+     * @param skipped    임시 파일이거나 이미지가 아니어서 건너뛴 파일 수
+     * @param failed     실패한 파일 수
+     * @param startedAt  시작 시각
+     * @param finishedAt 종료 시각
+     */
+    public record MigrationStatus(
+            boolean running,
+            long scanned,
+            long moved,
+            long renamed,
+            long skipped,
+            long failed,
+            LocalDateTime startedAt,
+            LocalDateTime finishedAt
+    ) {
+        MigrationStatus finish() {
+            return new MigrationStatus(false, scanned, moved, renamed, skipped, failed, startedAt, LocalDateTime.now());
+        }
+    }
+
+    private static final class Counters {
+        long scanned;
+        long moved;
+        long renamed;
+        long skipped;
+        long failed;
+
+        MigrationStatus snapshot(MigrationStatus current, boolean running) {
+            return new MigrationStatus(running, scanned, moved, renamed, skipped, failed, current.startedAt(), null);
+        }
+    }
+}
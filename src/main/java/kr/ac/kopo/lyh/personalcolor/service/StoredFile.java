@@ -0,0 +1,19 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+/**
+ * 저장된 업로드 파일 정보
+ *
+ * @param storedFileName 업로드 디렉토리 기준 저장 파일명 (내용 해시 기반)
+ * @param contentHash    파일 내용의 SHA-256 (소문자 16진수)
+ * @param size           파일 크기 (bytes)
+ * @param header         헤더에서 읽은 포맷과 원본 크기
+ * @param duplicate      같은 내용의 파일이 이미 저장되어 있어 기존 파일을 재사용했는지 여부
+ */
+public record StoredFile(
+        String storedFileName,
+        String contentHash,
+        long size,
+        ImageHeader header,
+        boolean duplicate
+) {
+}
@@ -0,0 +1,362 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import jakarta.annotation.PostConstruct;
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import kr.ac.kopo.lyh.personalcolor.exception.ImageTooLargeException;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.CpuBoundExecutor;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeBudget;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeRejectedException;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodedImage;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.SubsampledImageDecoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 저장 파일 축소 이미지 서비스
+ * 목록/결과 화면용 축소 이미지를 처음 요청될 때 한 번만 만들어 디스크에 보관한다.
+ * 디스크 사용량은 바이트 단위로 집계해 상한을 넘으면 가장 오래 사용하지 않은 파일부터 지우고,
+ * 같은 축소 이미지에 대한 동시 요청은 하나의 생성 작업을 함께 기다린다.
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final FileStorageService fileStorageService;
+    private final ApplicationConfig.FileStorageProperties.Derivatives properties;
+    private final SubsampledImageDecoder decoder;
+    private final CpuBoundExecutor analysisCpuExecutor;
+
+    /** 파일명 -> 바이트 수, 접근 순서 (가장 오래 사용하지 않은 항목이 맨 앞) */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generatedCount = new AtomicLong();
+    private long totalBytes;
+
+    public ThumbnailService(FileStorageService fileStorageService,
+                            ApplicationConfig.FileStorageProperties fileStorageProperties,
+                            DecodeBudget decodeBudget,
+                            CpuBoundExecutor analysisCpuExecutor) {
+        this.fileStorageService = fileStorageService;
+        this.properties = fileStorageProperties.derivatives();
+        this.decoder = new SubsampledImageDecoder(decodeBudget);
+        this.analysisCpuExecutor = analysisCpuExecutor;
+    }
+
+    /**
+     * 캐시 디렉토리 초기화 및 기존 축소 이미지 색인 (수정 시각 순으로 LRU 순서 복원)
+     */
+    @PostConstruct
+    public void init() {
+        Path dir = getDerivativePath();
+        try {
+            Files.createDirectories(dir);
+            List<Path> files;
+            try (Stream<Path> stream = Files.list(dir)) {
+                files = stream.filter(Files::isRegularFile)
+                        .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                        .sorted(Comparator.comparing(ThumbnailService::lastModified))
+                        .toList();
+            }
+            synchronized (entries) {
+                for (Path file : files) {
+                    long size = Files.size(file);
+                    entries.put(file.getFileName().toString(), size);
+                    totalBytes += size;
+                }
+            }
+            evictOverflow();
+            log.info("축소 이미지 캐시 초기화 - {}개, {} bytes", files.size(), totalBytes);
+        } catch (IOException e) {
+            throw new FileStorageException("축소 이미지 디렉토리 초기화 실패", e);
+        }
+    }
+
+    /**
+     * 허용된 축소 너비인지 확인
+     */
+    public boolean isAllowedWidth(int width) {
+        return Arrays.stream(properties.widths()).anyMatch(allowed -> allowed == width);
+    }
+
+    /**
+     * 축소 이미지 경로 반환 (없으면 생성)
+     *
+     * @param fileName 원본 저장 파일명
+     * @param width    축소 너비 (원본이 더 작으면 원본 너비)
+     * @param format   출력 포맷 (JPEG 또는 PNG)
+     * @throws IllegalArgumentException 허용되지 않는 너비나 포맷
+     * @throws FileStorageException     원본이 없거나 생성 실패 (디코딩 예산 부족이면 원인이 DecodeRejectedException)
+     * @throws ImageTooLargeException   원본 해상도가 디코딩 상한 초과
+     */
+    public Path getThumbnail(String fileName, int width, ImageFormat format) {
+        if (!isAllowedWidth(width)) {
+            throw new IllegalArgumentException("허용되지 않는 너비입니다: " + width);
+        }
+        if (format != ImageFormat.JPEG && format != ImageFormat.PNG) {
+            throw new IllegalArgumentException("허용되지 않는 출력 형식입니다: " + format);
+        }
+
+        String derivativeName = derivativeName(fileName, width, format);
+        Path target = getDerivativePath().resolve(derivativeName);
+        if (touch(derivativeName) && Files.exists(target)) {
+            return target;
+        }
+
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> pending = inFlight.putIfAbsent(derivativeName, created);
+        if (pending != null) {
+            return await(pending);
+        }
+
+        try {
+            // 직전에 다른 요청이 생성을 마쳤으면 다시 만들지 않음
+            if (!touch(derivativeName) || !Files.exists(target)) {
+                generate(fileName, width, format, target);
+            }
+            created.complete(target);
+            return target;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(derivativeName, created);
+        }
+    }
+
+    /**
+     * 원본 파일 삭제 시 해당 원본의 축소 이미지 모두 삭제
+     */
+    public void evict(String fileName) {
+        for (int width : properties.widths()) {
+            for (ImageFormat format : new ImageFormat[]{ImageFormat.JPEG, ImageFormat.PNG}) {
+                String derivativeName = derivativeName(fileName, width, format);
+                synchronized (entries) {
+                    Long size = entries.remove(derivativeName);
+                    if (size == null) {
+                        continue;
+                    }
+                    totalBytes -= size;
+                }
+                deleteQuietly(getDerivativePath().resolve(derivativeName));
+            }
+        }
+    }
+
+    /**
+     * 현재 캐시된 축소 이미지의 총 바이트 수
+     */
+    public long getTotalBytes() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * 시작 이후 새로 생성한 축소 이미지 수
+     */
+    public long getGeneratedCount() {
+        return generatedCount.get();
+    }
+
+    // === 내부 메서드들 ===
+
+    private void generate(String fileName, int width, ImageFormat format, Path target) {
+        Path source = fileStorageService.getFilePath(fileName);
+        if (!Files.exists(source)) {
+            throw new FileStorageException("원본 파일을 찾을 수 없습니다: " + fileName);
+        }
+
+        long started = System.nanoTime();
+        try {
+            // 목표 크기의 2배 이하까지는 디코더 서브샘플링으로 줄이고 나머지는 보간 축소
+            ImageHeader header = ImageHeaderReader.read(source);
+            int targetWidth = Math.min(width, header.width());
+            int targetHeight = Math.max(1, (int) Math.round((double) header.height() * targetWidth / header.width()));
+            Path tempFile = Files.createTempFile(target.getParent(), "derivative_", ".tmp");
+            try {
+                // 디코딩/축소/인코딩은 CPU 위주이므로 분석 전용 스레드에서 실행 (가상 스레드 모드에서 캐리어 점유 방지)
+                analysisCpuExecutor.call(() -> {
+                    try {
+                        DecodedImage decoded = decoder.decode(source, 2 * Math.max(targetWidth, targetHeight));
+                        write(resize(decoded, targetWidth, targetHeight, format == ImageFormat.PNG), format, tempFile);
+                        return tempFile;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                deleteQuietly(tempFile);
+            }
+
+            long size = Files.size(target);
+            generatedCount.incrementAndGet();
+            synchronized (entries) {
+                Long previous = entries.put(target.getFileName().toString(), size);
+                totalBytes += size - (previous != null ? previous : 0L);
+            }
+            evictOverflow();
+
+            log.debug("축소 이미지 생성: {} -> {} ({}x{}, {} bytes, {} ms)", fileName, target.getFileName(),
+                    targetWidth, targetHeight, size, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            throw generationFailed(fileName, e);
+        } catch (UncheckedIOException e) {
+            throw generationFailed(fileName, e.getCause());
+        }
+    }
+
+    /**
+     * 생성 실패 예외 (해상도 초과는 ImageTooLargeException, 디코딩 예산 부족은 원인으로 DecodeRejectedException을 담음)
+     */
+    private static FileStorageException generationFailed(String fileName, IOException e) {
+        if (e instanceof DecodeRejectedException rejected
+                && rejected.getReason() == DecodeRejectedException.Reason.TOO_MANY_PIXELS) {
+            return new ImageTooLargeException(e.getMessage(), e);
+        }
+        return new FileStorageException("축소 이미지 생성 실패: " + fileName, e);
+    }
+
+    private static BufferedImage resize(DecodedImage decoded, int width, int height, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage source = new BufferedImage(decoded.width(), decoded.height(), type);
+        source.setRGB(0, 0, decoded.width(), decoded.height(), decoded.argb(), 0, decoded.width());
+        if (decoded.width() == width && decoded.height() == height) {
+            return source;
+        }
+
+        BufferedImage resized = new BufferedImage(width, height, type);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private static void write(BufferedImage image, ImageFormat format, Path file) throws IOException {
+        String formatName = format == ImageFormat.PNG ? "png" : "jpeg";
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+        if (!writers.hasNext()) {
+            throw new IOException("이미지 인코더가 없습니다: " + formatName);
+        }
+
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format == ImageFormat.JPEG) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * 캐시에 있으면 최근 사용으로 갱신
+     */
+    private boolean touch(String derivativeName) {
+        synchronized (entries) {
+            return entries.get(derivativeName) != null;
+        }
+    }
+
+    /**
+     * 상한을 넘은 만큼 가장 오래 사용하지 않은 축소 이미지 삭제
+     */
+    private void evictOverflow() {
+        while (true) {
+            String eldest;
+            synchronized (entries) {
+                if (totalBytes <= properties.maxBytes() || entries.isEmpty()) {
+                    return;
+                }
+                Map.Entry<String, Long> entry = entries.entrySet().iterator().next();
+                eldest = entry.getKey();
+                totalBytes -= entry.getValue();
+                entries.remove(eldest);
+            }
+            deleteQuietly(getDerivativePath().resolve(eldest));
+            log.debug("축소 이미지 캐시 정리: {}", eldest);
+        }
+    }
+
+    private Path await(CompletableFuture<Path> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Path getDerivativePath() {
+        return Paths.get(properties.dir()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * 축소 이미지 파일명 (원본 파일명은 저장 시 정해진 값만 들어오므로 확장자만 떼어 사용)
+     */
+    static String derivativeName(String fileName, int width, ImageFormat format) {
+        int dot = fileName.lastIndexOf('.');
+        String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+        if (base.contains("/") || base.contains("\\") || base.contains("..")) {
+            throw new FileStorageException("잘못된 파일명입니다: " + fileName);
+        }
+        return base + "_w" + width + format.getExtension();
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("축소 이미지 삭제 실패: {}", path, e);
+        }
+    }
+}
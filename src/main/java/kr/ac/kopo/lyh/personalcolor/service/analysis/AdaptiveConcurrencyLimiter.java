@@ -0,0 +1,223 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisOverloadedException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 분석 동시 실행 수 적응형 제한 (AIMD)
+ * 분석 지연 시간이 목표 이하이고 한도를 충분히 쓰고 있으면 한도를 조금씩 올리고(가법 증가),
+ * 목표를 넘거나 엔진이 실패하면 한도를 비율로 줄인다(승법 감소).
+ * 한도를 넘는 요청은 제한된 대기열에서 도착 순서대로 최대 queueTimeout까지만 기다리고, 그 안에 차례가 오지 않으면
+ * 예상 대기 시간을 담은 AnalysisOverloadedException으로 바로 거절한다 (부하가 몰려도 실행 중인 분석의 지연은 유지).
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    /** 제한 없음 (테스트, 단독 도구용) */
+    public static final AdaptiveConcurrencyLimiter UNLIMITED =
+            new AdaptiveConcurrencyLimiter(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 0, Duration.ZERO,
+                    Duration.ofDays(1), 1.0);
+
+    /** 평균 지연 시간 지수 이동 평균 가중치 */
+    private static final double LATENCY_EWMA_ALPHA = 0.2;
+
+    /** 계산한 Retry-After 상한 */
+    private static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(60);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotAvailable = lock.newCondition();
+    private final AtomicLong rejections = new AtomicLong();
+
+    // lock 안에서만 변경
+    private double limit;
+    private int inFlight;
+    private final Deque<Object> waiters = new ArrayDeque<>();
+    private double averageLatencyNanos;
+
+    /**
+     * @param initialLimit  시작 한도
+     * @param minLimit      최소 한도
+     * @param maxLimit      최대 한도
+     * @param maxQueue      한도가 찼을 때 기다릴 수 있는 요청 수
+     * @param queueTimeout  대기열 최대 대기 시간
+     * @param latencyTarget 이 시간을 넘는 분석은 과부하 신호로 보고 한도를 줄임
+     * @param backoffRatio  한도 감소 비율 (0~1)
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue,
+                                      Duration queueTimeout, Duration latencyTarget, double backoffRatio) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.maxQueue = Math.max(0, maxQueue);
+        this.queueTimeoutNanos = queueTimeout != null ? queueTimeout.toNanos() : 0L;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * 실행 차례 확보 (한도가 찼으면 queueTimeout까지 대기)
+     *
+     * @return 분석이 끝나면 닫아야 하는 퍼밋
+     * @throws AnalysisOverloadedException 대기열이 가득 찼거나 대기 시간 안에 차례가 오지 않은 경우
+     */
+    public Permit acquire() {
+        lock.lock();
+        try {
+            // 대기 중인 요청이 있으면 빈자리가 있어도 새치기하지 않고 줄 뒤에 선다
+            if (waiters.isEmpty() && inFlight < currentLimit()) {
+                inFlight++;
+                return new Permit();
+            }
+            if (waiters.size() >= maxQueue || queueTimeoutNanos <= 0) {
+                throw reject("분석 요청이 많아 처리할 수 없습니다.");
+            }
+
+            Object ticket = new Object();
+            waiters.addLast(ticket);
+            try {
+                long remaining = queueTimeoutNanos;
+                while (waiters.peekFirst() != ticket || inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        throw reject("분석 대기 시간이 초과되었습니다.");
+                    }
+                    remaining = slotAvailable.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject("분석 대기 중 인터럽트");
+            } finally {
+                waiters.remove(ticket);
+                // 맨 앞이 바뀌었으므로 다음 대기 요청이 차례를 확인하도록 깨움
+                slotAvailable.signalAll();
+            }
+            inFlight++;
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 앞에 queued개의 요청이 있을 때 예상 대기 시간 (최소 1초, 최대 60초)
+     */
+    public Duration estimateWait(long queued) {
+        lock.lock();
+        try {
+            return estimateWaitLocked(queued);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    // === 내부 메서드들 ===
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private AnalysisOverloadedException reject(String message) {
+        rejections.incrementAndGet();
+        return new AnalysisOverloadedException(message, estimateWaitLocked(waiters.size() + 1L));
+    }
+
+    private Duration estimateWaitLocked(long queued) {
+        // 평균 지연 시간 동안 한도만큼 처리된다고 보고 앞선 요청이 모두 빠질 때까지의 시간
+        double latency = averageLatencyNanos > 0 ? averageLatencyNanos : latencyTargetNanos;
+        long nanos = (long) Math.ceil(Math.max(1, queued) * latency / Math.max(1, currentLimit()));
+        long seconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+        return Duration.ofSeconds(Math.min(seconds, MAX_RETRY_AFTER.toSeconds()));
+    }
+
+    private void release(long latencyNanos, boolean dropped) {
+        lock.lock();
+        try {
+            int before = inFlight--;
+            averageLatencyNanos = averageLatencyNanos > 0
+                    ? averageLatencyNanos + LATENCY_EWMA_ALPHA * (latencyNanos - averageLatencyNanos)
+                    : latencyNanos;
+
+            if (dropped || latencyNanos > latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (before * 2 >= currentLimit()) {
+                // 한도의 절반 이상을 쓰고 있을 때만 증가 (한가할 때 한도가 끝없이 커지지 않도록)
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            slotAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 확보한 실행 차례 (닫으면 반환하고 지연 시간을 한도 계산에 반영)
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long startNanos = System.nanoTime();
+        private boolean dropped;
+        private boolean closed;
+
+        private Permit() {
+        }
+
+        /**
+         * 엔진 과부하 등으로 실패한 실행 (한도를 줄임)
+         */
+        public void dropped() {
+            dropped = true;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            release(System.nanoTime() - startNanos, dropped);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 컬러 분석 파이프라인 메트릭
+ * 분석 1건당 분석 스레드 할당 바이트, 작업 래스터 크기, 팔레트 추출 시간, 단계적 분석 종료 단계, 디코딩 거절 건수를 기록
+ */
+@Component
+public class AnalysisMetrics {
+
+    public static final String STAGE_THUMBNAIL = "thumbnail";
+    public static final String STAGE_FULL = "full";
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final DistributionSummary threadAllocatedBytes;
+    private final DistributionSummary rasterBytes;
+    private final DistributionSummary subsampling;
+    private final Timer paletteTime;
+    private final DistributionSummary cascadeMargin;
+    private final Counter thumbnailExits;
+    private final Counter fullExits;
+    private final Timer thumbnailTime;
+    private final Timer fullTime;
+    private final Counter tooManyPixelsRejections;
+    private final Counter budgetRejections;
+
+    public AnalysisMetrics(MeterRegistry registry) {
+        this.threadMXBean = resolveThreadMXBean();
+        this.threadAllocatedBytes = DistributionSummary.builder("personalcolor.analysis.thread.allocated")
+                .description("분석 1건 동안 분석 스레드가 할당한 누적 바이트 (최대 힙 사용량이 아님, 타일 병렬 작업 스레드 제외)")
+                .baseUnit("bytes")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.rasterBytes = DistributionSummary.builder("personalcolor.analysis.raster.bytes")
+                .description("작업 해상도 ARGB 래스터 크기")
+                .baseUnit("bytes")
+                .register(registry);
+        this.subsampling = DistributionSummary.builder("personalcolor.analysis.decode.subsampling")
+                .description("디코딩 시 적용된 서브샘플링 간격")
+                .register(registry);
+        this.paletteTime = Timer.builder("personalcolor.analysis.palette")
+                .description("대표 색상 팔레트 추출 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.cascadeMargin = DistributionSummary.builder("personalcolor.analysis.cascade.margin")
+                .description("썸네일 판정의 1·2순위 확률 차이 (임계치 조정용)")
+                .publishPercentiles(0.1, 0.25, 0.5, 0.75)
+                .register(registry);
+        this.thumbnailExits = cascadeExitCounter(registry, STAGE_THUMBNAIL);
+        this.fullExits = cascadeExitCounter(registry, STAGE_FULL);
+        this.thumbnailTime = cascadeTimer(registry, STAGE_THUMBNAIL);
+        this.fullTime = cascadeTimer(registry, STAGE_FULL);
+        this.tooManyPixelsRejections = decodeRejectionCounter(registry, DecodeRejectedException.Reason.TOO_MANY_PIXELS);
+        this.budgetRejections = decodeRejectionCounter(registry, DecodeRejectedException.Reason.BUDGET_EXHAUSTED);
+    }
+
+    /**
+     * 현재 스레드의 누적 힙 할당량 (측정 불가 시 -1)
+     */
+    public long currentThreadAllocatedBytes() {
+        return threadMXBean != null ? threadMXBean.getCurrentThreadAllocatedBytes() : -1L;
+    }
+
+    /**
+     * 분석 시작 시점의 누적 할당량과 비교하여 분석 1건 동안 현재 스레드가 할당한 바이트 기록
+     * (그동안 GC로 회수된 양도 포함하므로 최대 힙 사용량과는 다름)
+     */
+    public void recordThreadAllocatedBytes(long allocatedAtStart) {
+        if (allocatedAtStart < 0) {
+            return;
+        }
+        long delta = currentThreadAllocatedBytes() - allocatedAtStart;
+        if (delta >= 0) {
+            threadAllocatedBytes.record(delta);
+        }
+    }
+
+    public void recordDecode(DecodedImage image) {
+        rasterBytes.record(image.rasterBytes());
+        subsampling.record(image.subsampling());
+    }
+
+    public void recordPalette(long nanos) {
+        paletteTime.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCascadeMargin(double margin) {
+        cascadeMargin.record(margin);
+    }
+
+    /**
+     * 단계적 분석이 종료된 단계와 분석 시작부터 종료까지 걸린 시간 기록
+     */
+    public void recordCascadeExit(String stage, long nanos) {
+        if (STAGE_THUMBNAIL.equals(stage)) {
+            thumbnailExits.increment();
+            thumbnailTime.record(nanos, TimeUnit.NANOSECONDS);
+        } else {
+            fullExits.increment();
+            fullTime.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 디코딩 전 거절 건수 기록
+     */
+    public void recordDecodeRejected(DecodeRejectedException.Reason reason) {
+        if (reason == DecodeRejectedException.Reason.TOO_MANY_PIXELS) {
+            tooManyPixelsRejections.increment();
+        } else {
+            budgetRejections.increment();
+        }
+    }
+
+    private static Counter decodeRejectionCounter(MeterRegistry registry, DecodeRejectedException.Reason reason) {
+        return Counter.builder("personalcolor.analysis.decode.rejected")
+                .description("픽셀 상한 초과 또는 디코딩 예산 부족으로 거절된 디코딩 건수")
+                .tag("reason", reason.name().toLowerCase())
+                .register(registry);
+    }
+
+    private static Counter cascadeExitCounter(MeterRegistry registry, String stage) {
+        return Counter.builder("personalcolor.analysis.cascade.exit")
+                .description("단계적 분석이 종료된 단계별 건수")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    private static Timer cascadeTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("personalcolor.analysis.cascade.latency")
+                .description("종료 단계별 분석 소요 시간")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    private static com.sun.management.ThreadMXBean resolveThreadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        }
+        return null;
+    }
+}
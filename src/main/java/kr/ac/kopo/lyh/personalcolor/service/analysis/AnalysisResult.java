@@ -0,0 +1,33 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+
+/**
+ * 컬러 분석 엔진 결과
+ *
+ * @param colorType  최종 판정 컬러 타입
+ * @param confidence 판정 타입의 확률 (0~1)
+ * @param margin     1순위와 2순위 타입 확률 차이
+ * @param scores     ColorType.ordinal() 순서의 타입별 확률
+ * @param features   판정에 사용된 피부 특징값 (없으면 null)
+ * @param region     분석에 사용된 피부 영역 (원본 이미지 좌표, 없으면 null)
+ * @param palette    대표 색상 팔레트 (없으면 null)
+ */
+public record AnalysisResult(
+        ColorAnalysis.ColorType colorType,
+        double confidence,
+        double margin,
+        double[] scores,
+        SkinToneFeatures features,
+        SkinRegion region,
+        DominantPalette palette
+) {
+
+    public AnalysisResult withRegion(SkinRegion region) {
+        return new AnalysisResult(colorType, confidence, margin, scores, features, region, palette);
+    }
+
+    public AnalysisResult withPalette(DominantPalette palette) {
+        return new AnalysisResult(colorType, confidence, margin, scores, features, region, palette);
+    }
+}
@@ -0,0 +1,44 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import java.nio.file.Path;
+
+/**
+ * 컬러 분석 엔진 SPI
+ * app.analysis.engine 설정에 따라 JVM 내부(local) 또는 모델 서버(remote) 구현이 선택된다.
+ */
+public interface ColorAnalysisEngine {
+
+    /**
+     * 저장된 이미지 파일 분석
+     *
+     * @param imageFile 업로드 디렉토리 내 이미지 파일 경로
+     * @return 분석 결과
+     * @throws kr.ac.kopo.lyh.personalcolor.exception.AnalysisEngineException 엔진 호출 실패 시
+     */
+    AnalysisResult analyze(Path imageFile);
+
+    /**
+     * 이전 분석에서 검출한 피부 영역을 재사용하여 분석 (재분석 시 영역 검출 생략)
+     * 영역 정보를 활용하지 않는 엔진은 전체 이미지를 분석한다.
+     *
+     * @param imageFile  업로드 디렉토리 내 이미지 파일 경로
+     * @param regionHint 원본 이미지 좌표의 피부 영역 (null이면 검출부터 수행)
+     * @return 분석 결과
+     */
+    default AnalysisResult analyze(Path imageFile, SkinRegion regionHint) {
+        return analyze(imageFile);
+    }
+
+    /**
+     * JVM 안에서 픽셀을 계산하는 엔진인지 여부
+     * true이면 가상 스레드 모드에서 분석 전용 플랫폼 스레드 풀로 넘겨 실행한다 (CpuBoundExecutor).
+     */
+    default boolean isCpuBound() {
+        return true;
+    }
+
+    /**
+     * 로그 및 모니터링용 엔진 이름
+     */
+    String getName();
+}
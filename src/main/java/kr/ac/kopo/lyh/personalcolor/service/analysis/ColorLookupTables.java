@@ -0,0 +1,110 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+/**
+ * sRGB → Lab 변환 룩업 테이블 (불변, 애플리케이션 전역 공유)
+ *
+ * - 64³ 격자 RGB → Lab 테이블 (삼선형 보간)
+ * - 피부 히스토그램 빈(32³) 중앙값의 Lab 테이블
+ *
+ * 픽셀마다 pow/cbrt를 계산하는 대신 테이블 조회와 보간만 수행한다.
+ * 8비트 채널의 감마 선형화 테이블은 ColorSpaces에 하나만 두고 빈 중앙값 Lab 계산에 사용한다.
+ */
+public final class ColorLookupTables {
+
+    public static final int GRID_SIZE = 64;
+
+    private static final int GRID_MAX = GRID_SIZE - 1;
+    private static final float GRID_SCALE = GRID_MAX / 255.0f;
+
+    private final float[] gridLab;
+    private final float[] binLab;
+
+    private ColorLookupTables(float[] gridLab, float[] binLab) {
+        this.gridLab = gridLab;
+        this.binLab = binLab;
+    }
+
+    /**
+     * 직접 계산(ColorSpaces)으로 모든 테이블 생성
+     */
+    public static ColorLookupTables build() {
+        double[] lab = new double[3];
+
+        float[] gridLab = new float[GRID_SIZE * GRID_SIZE * GRID_SIZE * 3];
+        int index = 0;
+        for (int r = 0; r < GRID_SIZE; r++) {
+            for (int g = 0; g < GRID_SIZE; g++) {
+                for (int b = 0; b < GRID_SIZE; b++) {
+                    ColorSpaces.srgbToLab(gridValue(r), gridValue(g), gridValue(b), lab);
+                    gridLab[index++] = (float) lab[0];
+                    gridLab[index++] = (float) lab[1];
+                    gridLab[index++] = (float) lab[2];
+                }
+            }
+        }
+
+        float[] binLab = new float[SkinToneHistogram.BIN_COUNT * 3];
+        for (int bin = 0; bin < SkinToneHistogram.BIN_COUNT; bin++) {
+            ColorSpaces.srgbToLab(
+                    SkinToneHistogram.binCenter(bin, 0),
+                    SkinToneHistogram.binCenter(bin, 1),
+                    SkinToneHistogram.binCenter(bin, 2),
+                    lab);
+            binLab[bin * 3] = (float) lab[0];
+            binLab[bin * 3 + 1] = (float) lab[1];
+            binLab[bin * 3 + 2] = (float) lab[2];
+        }
+
+        return new ColorLookupTables(gridLab, binLab);
+    }
+
+    /**
+     * 8비트 sRGB 값을 삼선형 보간으로 Lab 변환하여 out[offset..offset+2]에 기록
+     */
+    public void toLab(int r, int g, int b, float[] out, int offset) {
+        float fr = r * GRID_SCALE;
+        float fg = g * GRID_SCALE;
+        float fb = b * GRID_SCALE;
+        int r0 = Math.min((int) fr, GRID_MAX - 1);
+        int g0 = Math.min((int) fg, GRID_MAX - 1);
+        int b0 = Math.min((int) fb, GRID_MAX - 1);
+        float tr = fr - r0;
+        float tg = fg - g0;
+        float tb = fb - b0;
+
+        int base = ((r0 * GRID_SIZE + g0) * GRID_SIZE + b0) * 3;
+        int dr = GRID_SIZE * GRID_SIZE * 3;
+        int dg = GRID_SIZE * 3;
+        int db = 3;
+        float[] t = gridLab;
+
+        for (int c = 0; c < 3; c++) {
+            int i = base + c;
+            float c00 = t[i] + (t[i + db] - t[i]) * tb;
+            float c01 = t[i + dg] + (t[i + dg + db] - t[i + dg]) * tb;
+            float c10 = t[i + dr] + (t[i + dr + db] - t[i + dr]) * tb;
+            float c11 = t[i + dr + dg] + (t[i + dr + dg + db] - t[i + dr + dg]) * tb;
+            float c0 = c00 + (c01 - c00) * tg;
+            float c1 = c10 + (c11 - c10) * tg;
+            out[offset + c] = c0 + (c1 - c0) * tr;
+        }
+    }
+
+    /**
+     * 피부 히스토그램 빈 중앙값의 Lab 성분 (channel: 0=L, 1=a, 2=b)
+     */
+    public float binLab(int bin, int channel) {
+        return binLab[bin * 3 + channel];
+    }
+
+    /**
+     * 테이블 전체 메모리 사용량 (바이트)
+     */
+    public long footprintBytes() {
+        return (long) (gridLab.length + binLab.length) * Float.BYTES;
+    }
+
+    private static double gridValue(int index) {
+        return (double) index / GRID_MAX;
+    }
+}
@@ -0,0 +1,100 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+/**
+ * sRGB → CIE Lab(D65) 색공간 변환 유틸리티
+ * 호출자가 넘겨준 버퍼에 결과를 기록하여 픽셀 단위 객체 할당이 없도록 구성
+ */
+public final class ColorSpaces {
+
+    // D65 기준 백색점
+    private static final double XN = 0.95047;
+    private static final double YN = 1.00000;
+    private static final double ZN = 1.08883;
+
+    private static final double EPSILON = 216.0 / 24389.0;
+    private static final double KAPPA = 24389.0 / 27.0;
+
+    private static final double[] SRGB_TO_LINEAR = new double[256];
+
+    static {
+        for (int i = 0; i < SRGB_TO_LINEAR.length; i++) {
+            SRGB_TO_LINEAR[i] = linearize(i / 255.0);
+        }
+    }
+
+    private ColorSpaces() {
+    }
+
+    /**
+     * 감마 보정된 sRGB 채널값(0~1)을 선형 값으로 변환
+     */
+    public static double linearize(double channel) {
+        return channel <= 0.04045
+                ? channel / 12.92
+                : Math.pow((channel + 0.055) / 1.055, 2.4);
+    }
+
+    /**
+     * 8비트 sRGB 값을 Lab으로 변환하여 out[0..2]에 L, a, b 순서로 기록
+     */
+    public static void srgbToLab(int r, int g, int b, double[] out) {
+        linearToLab(SRGB_TO_LINEAR[r], SRGB_TO_LINEAR[g], SRGB_TO_LINEAR[b], out);
+    }
+
+    /**
+     * 0~1 범위 sRGB 값을 Lab으로 변환하여 out[0..2]에 기록 (LUT 격자 생성용)
+     */
+    public static void srgbToLab(double r, double g, double b, double[] out) {
+        linearToLab(linearize(r), linearize(g), linearize(b), out);
+    }
+
+    /**
+     * Lab 값을 8비트 sRGB로 역변환하여 0xRRGGBB 형태로 반환 (범위 밖 값은 잘라냄)
+     */
+    public static int labToSrgb(double lightness, double a, double b) {
+        double fy = (lightness + 16.0) / 116.0;
+        double fx = fy + a / 500.0;
+        double fz = fy - b / 200.0;
+
+        double x = labFInverse(fx) * XN;
+        double y = labFInverse(fy) * YN;
+        double z = labFInverse(fz) * ZN;
+
+        double rl = 3.2404542 * x - 1.5371385 * y - 0.4985314 * z;
+        double gl = -0.9692660 * x + 1.8760108 * y + 0.0415560 * z;
+        double bl = 0.0556434 * x - 0.2040259 * y + 1.0572252 * z;
+
+        return (toSrgb8(rl) << 16) | (toSrgb8(gl) << 8) | toSrgb8(bl);
+    }
+
+    private static void linearToLab(double rl, double gl, double bl, double[] out) {
+        double x = (0.4124564 * rl + 0.3575761 * gl + 0.1804375 * bl) / XN;
+        double y = (0.2126729 * rl + 0.7151522 * gl + 0.0721750 * bl) / YN;
+        double z = (0.0193339 * rl + 0.1191920 * gl + 0.9503041 * bl) / ZN;
+
+        double fx = labF(x);
+        double fy = labF(y);
+        double fz = labF(z);
+
+        out[0] = 116.0 * fy - 16.0;
+        out[1] = 500.0 * (fx - fy);
+        out[2] = 200.0 * (fy - fz);
+    }
+
+    private static double labF(double t) {
+        return t > EPSILON ? Math.cbrt(t) : (KAPPA * t + 16.0) / 116.0;
+    }
+
+    private static double labFInverse(double f) {
+        double cube = f * f * f;
+        return cube > EPSILON ? cube : (116.0 * f - 16.0) / KAPPA;
+    }
+
+    private static int toSrgb8(double linear) {
+        double clamped = Math.min(1.0, Math.max(0.0, linear));
+        double encoded = clamped <= 0.0031308
+                ? clamped * 12.92
+                : 1.055 * Math.pow(clamped, 1.0 / 2.4) - 0.055;
+        return (int) Math.round(encoded * 255.0);
+    }
+}
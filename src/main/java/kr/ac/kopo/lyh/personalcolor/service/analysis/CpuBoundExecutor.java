@@ -0,0 +1,73 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * CPU 위주 분석을 실행할 스레드 선택
+ * 요청을 가상 스레드에서 처리할 때 픽셀 계산을 그대로 실행하면 캐리어 스레드를 오래 점유해
+ * 다른 요청(입출력 대기 중인 가상 스레드)이 재개되지 못하므로, 크기가 제한된 플랫폼 스레드 풀로 넘기고
+ * 호출한 가상 스레드는 결과를 기다리는 동안 캐리어를 반납한다.
+ * 플랫폼 스레드로 요청을 처리할 때는 호출 스레드에서 바로 실행한다 (CALLER_RUNS).
+ */
+public final class CpuBoundExecutor implements AutoCloseable {
+
+    /** 호출 스레드에서 바로 실행 (플랫폼 스레드 모드, 테스트용) */
+    public static final CpuBoundExecutor CALLER_RUNS = new CpuBoundExecutor(null);
+
+    private final ExecutorService executor;
+
+    /**
+     * @param executor 분석 전용 플랫폼 스레드 풀 (null이면 호출 스레드에서 실행)
+     */
+    public CpuBoundExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 분석 실행 후 결과 반환 (풀이 가득 차면 RejectedExecutionException)
+     * 분석 중 발생한 런타임 예외는 감싸지 않고 그대로 던진다.
+     */
+    public <T> T call(Supplier<T> task) {
+        if (executor == null) {
+            return task.get();
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, executor).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 별도 풀에서 실행하는지 여부
+     */
+    public boolean isOffloading() {
+        return executor != null;
+    }
+
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
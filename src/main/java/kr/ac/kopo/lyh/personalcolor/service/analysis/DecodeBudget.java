@@ -0,0 +1,112 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이미지 디코딩 메모리 예산
+ * 디코딩 전에 헤더에 선언된 크기로 최대 픽셀 수를 확인하고(압축 폭탄 차단),
+ * 동시에 진행 중인 디코딩의 래스터 메모리 합계를 예상 바이트 단위 가중 세마포어로 제한한다.
+ * 예산이 부족하면 maxWait 동안 대기열에서 기다린 뒤에도 확보하지 못하면 거절한다.
+ */
+public final class DecodeBudget {
+
+    /** 제한 없음 (테스트, 단독 도구용) */
+    public static final DecodeBudget UNLIMITED = new DecodeBudget(0, 0, Duration.ZERO);
+
+    /** 디코딩 픽셀당 예상 바이트 (BufferedImage INT 래스터 + getRGB로 복사한 int[]) */
+    static final int BYTES_PER_DECODED_PIXEL = 2 * Integer.BYTES;
+
+    /** 세마포어 퍼밋 1개가 나타내는 바이트 수 */
+    private static final int PERMIT_BYTES = 1024;
+
+    private static final Permit NO_OP = () -> {
+    };
+
+    private final long maxPixels;
+    private final Semaphore permits;
+    private final int totalPermits;
+    private final Duration maxWait;
+
+    /**
+     * @param maxPixels    허용하는 원본 최대 픽셀 수 (0 이하면 제한 없음)
+     * @param budgetBytes  동시 디코딩 래스터 메모리 합계 상한 (0 이하면 제한 없음)
+     * @param maxWait      예산 확보 최대 대기 시간
+     */
+    public DecodeBudget(long maxPixels, long budgetBytes, Duration maxWait) {
+        this.maxPixels = maxPixels;
+        this.totalPermits = budgetBytes > 0 ? (int) Math.min(Integer.MAX_VALUE, Math.max(1, budgetBytes / PERMIT_BYTES)) : 0;
+        this.permits = totalPermits > 0 ? new Semaphore(totalPermits, true) : null;
+        this.maxWait = maxWait != null ? maxWait : Duration.ZERO;
+    }
+
+    /**
+     * 헤더에 선언된 원본 크기 확인
+     *
+     * @throws DecodeRejectedException 최대 픽셀 수 초과
+     */
+    public void checkDimensions(int width, int height) throws DecodeRejectedException {
+        long pixels = (long) width * height;
+        if (maxPixels > 0 && pixels > maxPixels) {
+            throw new DecodeRejectedException(DecodeRejectedException.Reason.TOO_MANY_PIXELS, String.format(
+                    "이미지 해상도가 너무 큽니다: %dx%d (%.1f MP, 최대 %.1f MP)",
+                    width, height, pixels / 1e6, maxPixels / 1e6));
+        }
+    }
+
+    /**
+     * 디코딩 결과 래스터 크기만큼 예산 확보 (부족하면 maxWait까지 대기)
+     * 예산 전체보다 큰 요청은 예산 전체를 확보하여 단독으로 실행한다.
+     *
+     * @param decodedWidth  서브샘플링 후 너비
+     * @param decodedHeight 서브샘플링 후 높이
+     * @return 디코딩이 끝나면 닫아야 하는 퍼밋
+     * @throws DecodeRejectedException 대기 시간 안에 예산을 확보하지 못한 경우
+     */
+    public Permit acquire(int decodedWidth, int decodedHeight) throws DecodeRejectedException {
+        if (permits == null) {
+            return NO_OP;
+        }
+        long bytes = estimateBytes(decodedWidth, decodedHeight);
+        int required = (int) Math.min(totalPermits, Math.max(1, (bytes + PERMIT_BYTES - 1) / PERMIT_BYTES));
+        try {
+            if (!permits.tryAcquire(required, maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new DecodeRejectedException(DecodeRejectedException.Reason.BUDGET_EXHAUSTED,
+                        "동시 디코딩 메모리 예산이 부족합니다: " + bytes / 1024 + " KB 요청");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DecodeRejectedException(DecodeRejectedException.Reason.BUDGET_EXHAUSTED,
+                    "디코딩 예산 대기 중 인터럽트");
+        }
+        return () -> permits.release(required);
+    }
+
+    /**
+     * 디코딩 래스터 예상 바이트
+     */
+    public static long estimateBytes(int decodedWidth, int decodedHeight) {
+        return (long) decodedWidth * decodedHeight * BYTES_PER_DECODED_PIXEL;
+    }
+
+    public long getMaxPixels() {
+        return maxPixels;
+    }
+
+    /**
+     * 현재 남은 예산 (제한 없으면 -1)
+     */
+    public long availableBytes() {
+        return permits != null ? (long) permits.availablePermits() * PERMIT_BYTES : -1L;
+    }
+
+    /**
+     * 확보한 디코딩 예산 (닫으면 반환)
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
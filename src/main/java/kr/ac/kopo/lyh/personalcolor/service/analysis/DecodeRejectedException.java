@@ -0,0 +1,32 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import java.io.IOException;
+
+/**
+ * 디코딩 전 거절 (해상도 초과 또는 디코딩 메모리 예산 부족)
+ */
+public class DecodeRejectedException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 거절 사유
+     */
+    public enum Reason {
+        /** 헤더에 선언된 픽셀 수가 상한 초과 (재시도해도 실패) */
+        TOO_MANY_PIXELS,
+        /** 동시 디코딩이 많아 예산 확보 실패 (잠시 후 재시도 가능) */
+        BUDGET_EXHAUSTED
+    }
+
+    private final Reason reason;
+
+    public DecodeRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,30 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+/**
+ * 작업 해상도로 디코딩된 ARGB 래스터
+ *
+ * @param argb         행 우선(row-major) ARGB 픽셀
+ * @param width        디코딩된 너비
+ * @param height       디코딩된 높이
+ * @param sourceWidth  원본 이미지 너비
+ * @param sourceHeight 원본 이미지 높이
+ * @param subsampling  가로/세로 서브샘플링 간격 (1이면 원본 해상도)
+ * @param formatName   이미지 리더가 인식한 포맷 이름
+ */
+public record DecodedImage(
+        int[] argb,
+        int width,
+        int height,
+        int sourceWidth,
+        int sourceHeight,
+        int subsampling,
+        String formatName
+) {
+
+    /**
+     * 디코딩된 래스터가 차지하는 바이트 수
+     */
+    public long rasterBytes() {
+        return (long) width * height * Integer.BYTES;
+    }
+}
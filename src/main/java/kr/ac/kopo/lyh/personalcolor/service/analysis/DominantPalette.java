@@ -0,0 +1,32 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+/**
+ * 대표 색상 팔레트 (비중 내림차순)
+ *
+ * @param colors    0xRRGGBB 형태의 대표 색상
+ * @param weights   색상별 샘플 비중 (0~1)
+ * @param skinIndex 피부색 인덱스 (없으면 NONE)
+ * @param hairIndex 머리카락색 인덱스 (없으면 NONE)
+ * @param eyeIndex  눈동자색 인덱스 (없으면 NONE)
+ */
+public record DominantPalette(
+        int[] colors,
+        float[] weights,
+        int skinIndex,
+        int hairIndex,
+        int eyeIndex
+) {
+
+    public static final int NONE = -1;
+
+    public int size() {
+        return colors.length;
+    }
+
+    /**
+     * #RRGGBB 형식 색상 코드 (인덱스가 NONE이면 null)
+     */
+    public String hex(int index) {
+        return index == NONE ? null : String.format("#%06X", colors[index]);
+    }
+}
@@ -0,0 +1,388 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import java.util.Arrays;
+
+/**
+ * 대표 색상(피부, 머리카락, 눈동자) 추출기
+ * 얼굴 주변을 격자 샘플링하여 float[] Lab 버퍼에 담고 k-means++로 군집화한다.
+ * 샘플, 중심점, 누적 버퍼는 스레드별 작업 공간에 두고 재사용하므로 반복 중 객체 할당이 없다.
+ */
+public final class DominantPaletteExtractor {
+
+    static final int CLUSTERS = 6;
+    static final int MAX_ITERATIONS = 12;
+    static final int MAX_SAMPLES = 8192;
+
+    /** 모든 중심점 이동량(ΔE²)이 이 값보다 작으면 수렴으로 판단 */
+    static final float CONVERGENCE = 0.25f;
+
+    /** 중심점 사이 거리(ΔE)가 이보다 가까운 군집은 같은 색으로 보고 병합 */
+    static final float MERGE_DELTA_E = 8f;
+
+    /** 눈동자/머리카락 후보가 되기 위한 최대 명도 (흰 벽, 조명 반사 제외) */
+    static final float EYE_MAX_LIGHTNESS = 45f;
+    static final float HAIR_MAX_LIGHTNESS = 75f;
+
+    // 샘플 위치 태그: 얼굴 위쪽, 얼굴 영역 안의 비피부, 피부, 그 외
+    private static final int ABOVE = 0;
+    private static final int FACE = 1;
+    private static final int SKIN = 2;
+    private static final int OTHER = 3;
+    private static final int TAGS = 4;
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final ColorLookupTables lookupTables;
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    public DominantPaletteExtractor(ColorLookupTables lookupTables) {
+        this.lookupTables = lookupTables;
+    }
+
+    /**
+     * 래스터에서 대표 색상 팔레트 추출
+     *
+     * @param faceRegion 래스터 좌표의 피부 영역. 주어지면 머리카락이 포함되도록 위쪽으로 넓혀 샘플링,
+     *                   null이면 전체 프레임을 샘플링하고 피부색만 지정
+     * @return 샘플이 부족하면 null
+     */
+    public DominantPalette extract(int[] argb, int width, int height, SkinRegion faceRegion) {
+        Workspace ws = workspaces.get();
+        int sampleCount = sample(argb, width, height, faceRegion, ws);
+        if (sampleCount < CLUSTERS) {
+            return null;
+        }
+
+        seedCentroids(ws, sampleCount);
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            assign(ws, sampleCount);
+            if (update(ws, sampleCount) < CONVERGENCE) {
+                break;
+            }
+        }
+        assign(ws, sampleCount);
+        return toPalette(ws, sampleCount);
+    }
+
+    /**
+     * 얼굴 주변 영역을 격자 간격으로 샘플링하여 Lab 값과 위치 태그 기록
+     */
+    private int sample(int[] argb, int width, int height, SkinRegion faceRegion, Workspace ws) {
+        int x0 = 0;
+        int y0 = 0;
+        int x1 = width;
+        int y1 = height;
+        if (faceRegion != null) {
+            int padX = faceRegion.width() / 4;
+            x0 = Math.max(0, faceRegion.x() - padX);
+            x1 = Math.min(width, faceRegion.x() + faceRegion.width() + padX);
+            y0 = Math.max(0, faceRegion.y() - faceRegion.height() / 2);
+            y1 = Math.min(height, faceRegion.y() + faceRegion.height() + faceRegion.height() / 4);
+        }
+
+        long area = (long) (x1 - x0) * (y1 - y0);
+        int step = Math.max(1, (int) Math.ceil(Math.sqrt((double) area / MAX_SAMPLES)));
+
+        float[] samples = ws.samples;
+        byte[] tags = ws.tags;
+        int count = 0;
+        for (int y = y0; y < y1 && count < MAX_SAMPLES; y += step) {
+            int row = y * width;
+            for (int x = x0; x < x1 && count < MAX_SAMPLES; x += step) {
+                int p = argb[row + x];
+                if ((p >>> 24) < SkinToneHistogram.ALPHA_MIN) {
+                    continue;
+                }
+                int r = (p >>> 16) & 0xFF;
+                int g = (p >>> 8) & 0xFF;
+                int b = p & 0xFF;
+                lookupTables.toLab(r, g, b, samples, count * 3);
+
+                int tag;
+                if (SkinToneHistogram.isSkin(r, g, b)) {
+                    tag = SKIN;
+                } else if (faceRegion == null) {
+                    tag = OTHER;
+                } else if (y < faceRegion.y()) {
+                    tag = ABOVE;
+                } else if (x >= faceRegion.x() && x < faceRegion.x() + faceRegion.width()
+                        && y < faceRegion.y() + faceRegion.height()) {
+                    tag = FACE;
+                } else {
+                    tag = OTHER;
+                }
+                tags[count++] = (byte) tag;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * k-means++ 초기화: 기존 중심점과의 거리 제곱에 비례하는 확률로 다음 중심점 선택
+     */
+    private void seedCentroids(Workspace ws, int sampleCount) {
+        float[] samples = ws.samples;
+        float[] centroids = ws.centroids;
+        float[] minDistance = ws.minDistance;
+        ws.random = SEED;
+
+        int first = (int) (nextDouble(ws) * sampleCount);
+        System.arraycopy(samples, first * 3, centroids, 0, 3);
+        for (int i = 0; i < sampleCount; i++) {
+            minDistance[i] = distance(samples, i * 3, centroids, 0);
+        }
+
+        for (int k = 1; k < CLUSTERS; k++) {
+            double total = 0;
+            for (int i = 0; i < sampleCount; i++) {
+                total += minDistance[i];
+            }
+
+            int chosen = sampleCount - 1;
+            double target = nextDouble(ws) * total;
+            for (int i = 0; i < sampleCount; i++) {
+                target -= minDistance[i];
+                if (target <= 0) {
+                    chosen = i;
+                    break;
+                }
+            }
+
+            System.arraycopy(samples, chosen * 3, centroids, k * 3, 3);
+            for (int i = 0; i < sampleCount; i++) {
+                float d = distance(samples, i * 3, centroids, k * 3);
+                if (d < minDistance[i]) {
+                    minDistance[i] = d;
+                }
+            }
+        }
+    }
+
+    /**
+     * 각 샘플을 가장 가까운 중심점에 배정 (minDistance에 해당 거리 기록)
+     */
+    private void assign(Workspace ws, int sampleCount) {
+        float[] samples = ws.samples;
+        float[] centroids = ws.centroids;
+        int[] assignment = ws.assignment;
+        float[] minDistance = ws.minDistance;
+
+        for (int i = 0; i < sampleCount; i++) {
+            int best = 0;
+            float bestDistance = distance(samples, i * 3, centroids, 0);
+            for (int k = 1; k < CLUSTERS; k++) {
+                float d = distance(samples, i * 3, centroids, k * 3);
+                if (d < bestDistance) {
+                    bestDistance = d;
+                    best = k;
+                }
+            }
+            assignment[i] = best;
+            minDistance[i] = bestDistance;
+        }
+    }
+
+    /**
+     * 배정 결과로 중심점 갱신, 비어 있는 군집은 가장 먼 샘플로 다시 시드
+     *
+     * @return 중심점 최대 이동량 (ΔE²)
+     */
+    private float update(Workspace ws, int sampleCount) {
+        float[] samples = ws.samples;
+        float[] centroids = ws.centroids;
+        double[] sums = ws.sums;
+        int[] counts = ws.counts;
+        int[] assignment = ws.assignment;
+
+        Arrays.fill(sums, 0.0);
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < sampleCount; i++) {
+            int k = assignment[i];
+            sums[k * 3] += samples[i * 3];
+            sums[k * 3 + 1] += samples[i * 3 + 1];
+            sums[k * 3 + 2] += samples[i * 3 + 2];
+            counts[k]++;
+        }
+
+        float maxShift = 0f;
+        for (int k = 0; k < CLUSTERS; k++) {
+            int c = k * 3;
+            float l;
+            float a;
+            float b;
+            if (counts[k] == 0) {
+                int farthest = farthestSample(ws, sampleCount);
+                ws.minDistance[farthest] = 0f;
+                l = samples[farthest * 3];
+                a = samples[farthest * 3 + 1];
+                b = samples[farthest * 3 + 2];
+            } else {
+                l = (float) (sums[c] / counts[k]);
+                a = (float) (sums[c + 1] / counts[k]);
+                b = (float) (sums[c + 2] / counts[k]);
+            }
+
+            float dl = l - centroids[c];
+            float da = a - centroids[c + 1];
+            float db = b - centroids[c + 2];
+            maxShift = Math.max(maxShift, dl * dl + da * da + db * db);
+            centroids[c] = l;
+            centroids[c + 1] = a;
+            centroids[c + 2] = b;
+        }
+        return maxShift;
+    }
+
+    private static int farthestSample(Workspace ws, int sampleCount) {
+        float[] minDistance = ws.minDistance;
+        int farthest = 0;
+        for (int i = 1; i < sampleCount; i++) {
+            if (minDistance[i] > minDistance[farthest]) {
+                farthest = i;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * 군집별 위치 태그 분포로 피부/눈동자/머리카락을 지정하고 비중 순으로 정렬
+     */
+    private static DominantPalette toPalette(Workspace ws, int sampleCount) {
+        float[] centroids = ws.centroids;
+        int[] counts = ws.counts;
+        int[] tagCounts = ws.tagCounts;
+
+        Arrays.fill(counts, 0);
+        Arrays.fill(tagCounts, 0);
+        for (int i = 0; i < sampleCount; i++) {
+            int k = ws.assignment[i];
+            counts[k]++;
+            tagCounts[k * TAGS + ws.tags[i]]++;
+        }
+        int clusters = mergeNearbyClusters(ws);
+
+        // 피부: 피부 마스크 샘플을 가장 많이 포함한 군집
+        int skin = argmaxTag(ws, SKIN, DominantPalette.NONE, DominantPalette.NONE, Float.MAX_VALUE);
+        // 눈동자: 얼굴 영역 안의 어두운 비피부 군집
+        int eye = argmaxTag(ws, FACE, skin, DominantPalette.NONE, EYE_MAX_LIGHTNESS);
+        // 머리카락: 얼굴 위쪽 띠에서 가장 많은 군집
+        int hair = argmaxTag(ws, ABOVE, skin, eye, HAIR_MAX_LIGHTNESS);
+
+        // 비중 내림차순 삽입 정렬 (군집 수가 작으므로 충분)
+        int[] order = ws.order;
+        for (int k = 0; k < CLUSTERS; k++) {
+            int j = k;
+            while (j > 0 && counts[order[j - 1]] < counts[k]) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = k;
+        }
+
+        // 병합되어 비어 있는 군집은 정렬 결과의 뒤쪽에 모이므로 앞의 clusters개만 사용
+        int[] colors = new int[clusters];
+        float[] weights = new float[clusters];
+        int skinIndex = DominantPalette.NONE;
+        int hairIndex = DominantPalette.NONE;
+        int eyeIndex = DominantPalette.NONE;
+        for (int i = 0; i < clusters; i++) {
+            int k = order[i];
+            colors[i] = ColorSpaces.labToSrgb(centroids[k * 3], centroids[k * 3 + 1], centroids[k * 3 + 2]);
+            weights[i] = (float) counts[k] / sampleCount;
+            if (k == skin) {
+                skinIndex = i;
+            } else if (k == hair) {
+                hairIndex = i;
+            } else if (k == eye) {
+                eyeIndex = i;
+            }
+        }
+        return new DominantPalette(colors, weights, skinIndex, hairIndex, eyeIndex);
+    }
+
+    /**
+     * 노이즈로 갈라진 인접 군집을 샘플 수 가중 평균으로 병합
+     *
+     * @return 남은 군집 수
+     */
+    private static int mergeNearbyClusters(Workspace ws) {
+        float[] centroids = ws.centroids;
+        int[] counts = ws.counts;
+        int[] tagCounts = ws.tagCounts;
+        float threshold = MERGE_DELTA_E * MERGE_DELTA_E;
+
+        int remaining = 0;
+        for (int i = 0; i < CLUSTERS; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            for (int j = i + 1; j < CLUSTERS; j++) {
+                if (counts[j] == 0 || distance(centroids, j * 3, centroids, i * 3) >= threshold) {
+                    continue;
+                }
+                float total = counts[i] + counts[j];
+                for (int c = 0; c < 3; c++) {
+                    centroids[i * 3 + c] = (centroids[i * 3 + c] * counts[i] + centroids[j * 3 + c] * counts[j]) / total;
+                }
+                for (int t = 0; t < TAGS; t++) {
+                    tagCounts[i * TAGS + t] += tagCounts[j * TAGS + t];
+                    tagCounts[j * TAGS + t] = 0;
+                }
+                counts[i] += counts[j];
+                counts[j] = 0;
+            }
+            remaining++;
+        }
+        return remaining;
+    }
+
+    private static int argmaxTag(Workspace ws, int tag, int excludeA, int excludeB, float maxLightness) {
+        int best = DominantPalette.NONE;
+        int bestCount = 0;
+        for (int k = 0; k < CLUSTERS; k++) {
+            if (k == excludeA || k == excludeB || ws.centroids[k * 3] > maxLightness) {
+                continue;
+            }
+            int count = ws.tagCounts[k * TAGS + tag];
+            if (count > bestCount) {
+                bestCount = count;
+                best = k;
+            }
+        }
+        return best;
+    }
+
+    private static float distance(float[] samples, int sampleOffset, float[] centroids, int centroidOffset) {
+        float dl = samples[sampleOffset] - centroids[centroidOffset];
+        float da = samples[sampleOffset + 1] - centroids[centroidOffset + 1];
+        float db = samples[sampleOffset + 2] - centroids[centroidOffset + 2];
+        return dl * dl + da * da + db * db;
+    }
+
+    /**
+     * 고정 시드 SplitMix64 난수 (같은 이미지는 항상 같은 팔레트)
+     */
+    private static double nextDouble(Workspace ws) {
+        long z = (ws.random += SEED);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * 스레드별 재사용 버퍼
+     */
+    private static final class Workspace {
+        final float[] samples = new float[MAX_SAMPLES * 3];
+        final byte[] tags = new byte[MAX_SAMPLES];
+        final int[] assignment = new int[MAX_SAMPLES];
+        final float[] minDistance = new float[MAX_SAMPLES];
+        final float[] centroids = new float[CLUSTERS * 3];
+        final double[] sums = new double[CLUSTERS * 3];
+        final int[] counts = new int[CLUSTERS];
+        final int[] tagCounts = new int[CLUSTERS * TAGS];
+        final int[] order = new int[CLUSTERS];
+        long random;
+    }
+}
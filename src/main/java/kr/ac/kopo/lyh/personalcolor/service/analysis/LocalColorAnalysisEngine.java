@@ -0,0 +1,35 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * JVM 내부 픽셀 분석 엔진 (기본값)
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.analysis", name = "engine", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LocalColorAnalysisEngine implements ColorAnalysisEngine {
+
+    public static final String NAME = "local";
+
+    private final PixelColorAnalyzer pixelColorAnalyzer;
+
+    @Override
+    public AnalysisResult analyze(Path imageFile) {
+        return pixelColorAnalyzer.analyze(imageFile, null);
+    }
+
+    @Override
+    public AnalysisResult analyze(Path imageFile, SkinRegion regionHint) {
+        return pixelColorAnalyzer.analyze(imageFile, regionHint);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+}
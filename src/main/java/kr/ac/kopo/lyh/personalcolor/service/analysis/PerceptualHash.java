@@ -0,0 +1,74 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 64비트 차분 해시(dHash)
+ * 이미지를 9x8 밝기 격자로 면적 평균 축소한 뒤 가로로 이웃한 칸의 대소 관계를 비트로 기록한다.
+ * 재압축, 약간의 잘라내기, 크기 변경에는 해밍 거리가 작게 유지된다.
+ */
+public final class PerceptualHash {
+
+    private static final int GRID_WIDTH = 9;
+    private static final int GRID_HEIGHT = 8;
+
+    /** 해시용 디코딩 최대 해상도 (격자보다 충분히 크면 됨) */
+    static final int DECODE_EDGE = 72;
+
+    private static final SubsampledImageDecoder DECODER = new SubsampledImageDecoder();
+
+    private PerceptualHash() {
+    }
+
+    /**
+     * 이미지 파일의 dHash
+     *
+     * @throws IOException 지원하지 않는 포맷이거나 읽기 실패 시
+     */
+    public static long of(Path imageFile) throws IOException {
+        DecodedImage image = DECODER.decode(imageFile, DECODE_EDGE);
+        return compute(image.argb(), image.width(), image.height());
+    }
+
+    /**
+     * ARGB 래스터의 dHash
+     */
+    public static long compute(int[] argb, int width, int height) {
+        long[] sums = new long[GRID_WIDTH * GRID_HEIGHT];
+        int[] counts = new int[GRID_WIDTH * GRID_HEIGHT];
+
+        for (int y = 0; y < height; y++) {
+            int cellRow = (int) ((long) y * GRID_HEIGHT / height) * GRID_WIDTH;
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int p = argb[row + x];
+                int luma = (((p >>> 16) & 0xFF) * 299 + ((p >>> 8) & 0xFF) * 587 + (p & 0xFF) * 114) / 1000;
+                int cell = cellRow + (int) ((long) x * GRID_WIDTH / width);
+                sums[cell] += luma;
+                counts[cell]++;
+            }
+        }
+
+        long hash = 0L;
+        int bit = 0;
+        for (int gy = 0; gy < GRID_HEIGHT; gy++) {
+            for (int gx = 0; gx < GRID_WIDTH - 1; gx++) {
+                int left = gy * GRID_WIDTH + gx;
+                // 정수 나눗셈 오차 없이 평균 비교: sumL / countL < sumR / countR
+                if (sums[left] * counts[left + 1] < sums[left + 1] * counts[left]) {
+                    hash |= 1L << bit;
+                }
+                bit++;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * 두 해시의 해밍 거리
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
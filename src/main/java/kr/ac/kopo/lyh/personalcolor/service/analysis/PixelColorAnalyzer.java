@@ -0,0 +1,193 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import kr.ac.kopo.lyh.personalcolor.config.AnalysisConfig;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisEngineException;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import kr.ac.kopo.lyh.personalcolor.exception.ImageTooLargeException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * JVM 내부 픽셀 기반 컬러 분석기
+ * 저장된 이미지를 작업 해상도로 서브샘플링 디코딩하여 int[] ARGB 래스터 위에서 피부 톤을 분석
+ * 가장 큰 피부 영역으로 잘라낸 뒤 분석하며, 임계치 이상의 큰 래스터는 ForkJoinPool에서 타일 단위로 병렬 누적
+ * 단계적 분석 사용 시 썸네일 판정이 명확하면 전체 해상도 분석을 생략 (대표 색상 팔레트는 썸네일 래스터에서 추출)
+ */
+@Slf4j
+@Component
+public class PixelColorAnalyzer {
+
+    /** 디코딩 예산 부족 시 클라이언트에 권장하는 재시도 대기 시간 */
+    private static final Duration DECODE_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final AnalysisConfig.AnalysisProperties analysisProperties;
+    private final AnalysisMetrics analysisMetrics;
+    private final SkinToneKernel kernel;
+    private final ForkJoinPool analysisForkJoinPool;
+
+    private final SubsampledImageDecoder decoder;
+    private final SkinRegionDetector skinRegionDetector = new SkinRegionDetector();
+    private final SkinToneClassifier classifier;
+    private final DominantPaletteExtractor paletteExtractor;
+
+    public PixelColorAnalyzer(AnalysisConfig.AnalysisProperties analysisProperties,
+                              AnalysisMetrics analysisMetrics,
+                              ForkJoinPool analysisForkJoinPool,
+                              ColorLookupTables colorLookupTables,
+                              DecodeBudget decodeBudget) {
+        this.analysisProperties = analysisProperties;
+        this.decoder = new SubsampledImageDecoder(decodeBudget);
+        this.analysisMetrics = analysisMetrics;
+        this.analysisForkJoinPool = analysisForkJoinPool;
+        this.classifier = new SkinToneClassifier(colorLookupTables);
+        this.paletteExtractor = new DominantPaletteExtractor(colorLookupTables);
+        this.kernel = SkinToneKernels.select(analysisProperties.simdEnabled());
+
+        if (analysisProperties.simdEnabled() && kernel == SkinToneKernels.scalar()) {
+            log.warn("SIMD 커널을 로드할 수 없어 스칼라 커널을 사용합니다. " +
+                    "-PvectorApi 빌드와 --add-modules jdk.incubator.vector 실행 옵션을 확인하세요.");
+        }
+        log.info("피부 히스토그램 커널: {}", kernel.getName());
+    }
+
+    /**
+     * 이미지 파일 분석
+     */
+    public AnalysisResult analyze(Path imageFile) {
+        return analyze(imageFile, null);
+    }
+
+    /**
+     * 이미지 파일 분석
+     *
+     * @param imageFile  이미지 파일
+     * @param regionHint 이전 분석에서 검출한 피부 영역 (원본 좌표). 주어지면 해당 영역만 디코딩하고 검출과 팔레트 추출을 생략
+     */
+    public AnalysisResult analyze(Path imageFile, SkinRegion regionHint) {
+        long allocatedAtStart = analysisMetrics.currentThreadAllocatedBytes();
+        try {
+            if (regionHint != null) {
+                DecodedImage image = decode(imageFile, analysisProperties.maxWorkingEdge(), regionHint);
+                return analyze(image.argb(), image.width(), image.height())
+                        .withRegion(regionHint.clamp(image.sourceWidth(), image.sourceHeight()));
+            }
+
+            AnalysisConfig.AnalysisProperties.Cascade cascade = analysisProperties.cascade();
+            if (!cascade.enabled()) {
+                return analyzeDecoded(imageFile, decode(imageFile, analysisProperties.maxWorkingEdge(), null), true);
+            }
+
+            // 1단계: 썸네일만으로 판정이 명확하면 썸네일 래스터에서 팔레트까지 추출하고 종료
+            long stageStart = System.nanoTime();
+            DecodedImage thumbnail = decode(imageFile, cascade.thumbnailEdge(), null);
+            SkinRegion thumbnailRegion = detectRegion(imageFile, thumbnail);
+            AnalysisResult coarse = analyzeRegion(thumbnail, thumbnailRegion);
+            analysisMetrics.recordCascadeMargin(coarse.margin());
+            if (coarse.margin() >= cascade.marginThreshold()) {
+                AnalysisResult result = coarse.withPalette(extractPalette(thumbnail, thumbnailRegion));
+                analysisMetrics.recordCascadeExit(AnalysisMetrics.STAGE_THUMBNAIL, System.nanoTime() - stageStart);
+                return result;
+            }
+
+            // 2단계: 전체 해상도 피부 영역 분할 및 팔레트 추출
+            log.debug("썸네일 판정 불확실 (차이 {}), 전체 해상도 분석: {}",
+                    String.format("%.4f", coarse.margin()), imageFile.getFileName());
+            AnalysisResult fine = analyzeDecoded(imageFile, decode(imageFile, analysisProperties.maxWorkingEdge(), null), true);
+            analysisMetrics.recordCascadeExit(AnalysisMetrics.STAGE_FULL, System.nanoTime() - stageStart);
+            return fine;
+        } finally {
+            analysisMetrics.recordThreadAllocatedBytes(allocatedAtStart);
+        }
+    }
+
+    /**
+     * 디코딩된 래스터에서 가장 큰 피부 영역을 잘라내어 분석
+     *
+     * @param withPalette 대표 색상 팔레트 추출 여부
+     */
+    private AnalysisResult analyzeDecoded(Path imageFile, DecodedImage image, boolean withPalette) {
+        SkinRegion region = detectRegion(imageFile, image);
+        AnalysisResult result = analyzeRegion(image, region);
+        return withPalette ? result.withPalette(extractPalette(image, region)) : result;
+    }
+
+    /**
+     * 래스터 좌표의 가장 큰 피부 영역 (없으면 null)
+     */
+    private SkinRegion detectRegion(Path imageFile, DecodedImage image) {
+        SkinRegion region = skinRegionDetector.detect(image.argb(), image.width(), image.height());
+        if (region == null) {
+            log.debug("피부 영역 미검출, 전체 이미지 분석: {}", imageFile.getFileName());
+        }
+        return region;
+    }
+
+    /**
+     * 피부 영역으로 잘라낸 래스터 분석 (영역이 없으면 전체), 결과 영역은 원본 좌표로 변환
+     */
+    private AnalysisResult analyzeRegion(DecodedImage image, SkinRegion region) {
+        if (region == null) {
+            return analyze(image.argb(), image.width(), image.height());
+        }
+        int[] cropped = SkinRegionDetector.crop(image.argb(), image.width(), region);
+        return analyze(cropped, region.width(), region.height())
+                .withRegion(region.scale(image.subsampling(), image.sourceWidth(), image.sourceHeight()));
+    }
+
+    /**
+     * ARGB 래스터 분석
+     */
+    public AnalysisResult analyze(int[] argb, int width, int height) {
+        SkinToneHistogram histogram = accumulate(argb, width * height);
+
+        AnalysisResult result = classifier.classify(histogram);
+        log.debug("픽셀 분석 결과 - {}x{}, 피부 비율: {}, 타입: {}, 신뢰도: {}",
+                width, height, String.format("%.3f", result.features().skinRatio()),
+                result.colorType(), String.format("%.4f", result.confidence()));
+        return result;
+    }
+
+    /**
+     * 픽셀 수가 병렬 임계치 이상이면 타일 병렬, 아니면 호출 스레드에서 누적
+     */
+    private SkinToneHistogram accumulate(int[] argb, int pixelCount) {
+        AnalysisConfig.AnalysisProperties.Parallel parallel = analysisProperties.parallel();
+        if (pixelCount < parallel.thresholdPixels()) {
+            SkinToneHistogram histogram = new SkinToneHistogram();
+            kernel.accumulate(histogram, argb, 0, pixelCount);
+            return histogram;
+        }
+        return analysisForkJoinPool.invoke(
+                new SkinToneHistogramTask(kernel, argb, 0, pixelCount, parallel.tilePixels()));
+    }
+
+    private DominantPalette extractPalette(DecodedImage image, SkinRegion faceRegion) {
+        long start = System.nanoTime();
+        DominantPalette palette = paletteExtractor.extract(image.argb(), image.width(), image.height(), faceRegion);
+        analysisMetrics.recordPalette(System.nanoTime() - start);
+        return palette;
+    }
+
+    private DecodedImage decode(Path imageFile, int maxEdge, SkinRegion sourceRegion) {
+        try {
+            DecodedImage image = decoder.decode(imageFile, maxEdge, sourceRegion);
+            analysisMetrics.recordDecode(image);
+            log.debug("이미지 디코딩 - {}: {}x{} -> {}x{} (1/{})", imageFile.getFileName(),
+                    image.sourceWidth(), image.sourceHeight(), image.width(), image.height(), image.subsampling());
+            return image;
+        } catch (DecodeRejectedException e) {
+            analysisMetrics.recordDecodeRejected(e.getReason());
+            if (e.getReason() == DecodeRejectedException.Reason.TOO_MANY_PIXELS) {
+                throw new ImageTooLargeException(e.getMessage(), e);
+            }
+            throw new AnalysisEngineException(LocalColorAnalysisEngine.NAME, e.getMessage(), DECODE_RETRY_AFTER, e);
+        } catch (IOException e) {
+            throw new FileStorageException("이미지 디코딩 실패: " + imageFile.getFileName(), e);
+        }
+    }
+}
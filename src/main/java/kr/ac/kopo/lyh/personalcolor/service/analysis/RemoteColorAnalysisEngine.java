@@ -0,0 +1,203 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.netty.channel.ChannelOption;
+import kr.ac.kopo.lyh.personalcolor.config.AnalysisConfig;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis.ColorType;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisEngineException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 모델 서버(/predict) HTTP 클라이언트 엔진
+ *
+ * 커넥션 풀, 호출별 타임아웃, 동시 호출 제한(bulkhead), 서킷 브레이커를 적용하여
+ * 모델 서버가 느리거나 다운된 경우 요청 스레드가 쌓이지 않고 즉시 실패하도록 한다.
+ */
+@Slf4j
+public class RemoteColorAnalysisEngine implements ColorAnalysisEngine {
+
+    private static final String NAME = "remote";
+
+    private final WebClient webClient;
+    private final AnalysisConfig.AnalysisProperties.Remote properties;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public RemoteColorAnalysisEngine(WebClient.Builder webClientBuilder,
+                                     ConnectionProvider connectionProvider,
+                                     AnalysisConfig.AnalysisProperties.Remote properties) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+                .responseTimeout(properties.responseTimeout());
+
+        this.webClient = webClientBuilder
+                .baseUrl(properties.baseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.properties = properties;
+        this.bulkhead = new Semaphore(properties.maxConcurrentCalls());
+        this.circuitBreaker = new CircuitBreaker("model-server", properties.failureThreshold(), properties.openDuration());
+    }
+
+    @Override
+    public AnalysisResult analyze(Path imageFile) {
+        acquireBulkhead();
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                throw new AnalysisEngineException(NAME, "모델 서버 호출이 일시적으로 차단되었습니다.",
+                        circuitBreaker.getRemainingOpenDuration(), null);
+            }
+            return call(imageFile);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * 응답을 기다리는 동안 블로킹만 하므로 호출 스레드(가상 스레드)에서 그대로 실행
+     */
+    @Override
+    public boolean isCpuBound() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    private AnalysisResult call(Path imageFile) {
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("file", new FileSystemResource(imageFile));
+
+        PredictResponse response;
+        try {
+            response = webClient.post()
+                    .uri(properties.predictPath())
+                    .contentType(MediaType.MULTIPART_FORM_DATA)
+                    .body(BodyInserters.fromMultipartData(body.build()))
+                    .retrieve()
+                    .bodyToMono(PredictResponse.class)
+                    .timeout(properties.responseTimeout())
+                    .block();
+        } catch (WebClientResponseException e) {
+            if (e.getStatusCode().is4xxClientError()) {
+                // 요청 자체의 문제이므로 모델 서버 장애로 집계하지 않음
+                circuitBreaker.onSuccess();
+                throw new AnalysisEngineException(NAME, "모델 서버가 요청을 거부했습니다: " + e.getStatusCode(), e);
+            }
+            circuitBreaker.onFailure();
+            throw new AnalysisEngineException(NAME, "모델 서버 오류: " + e.getStatusCode(), e);
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            log.warn("모델 서버 호출 실패 - 파일: {}, 원인: {}", imageFile.getFileName(), e.toString());
+            throw new AnalysisEngineException(NAME, "모델 서버 호출에 실패했습니다.", e);
+        }
+
+        circuitBreaker.onSuccess();
+        if (response == null) {
+            throw new AnalysisEngineException(NAME, "모델 서버 응답이 비어있습니다.");
+        }
+        return toResult(response);
+    }
+
+    private void acquireBulkhead() {
+        try {
+            if (!bulkhead.tryAcquire(properties.bulkheadWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new AnalysisEngineException(NAME, "모델 서버 동시 호출 한도를 초과했습니다.",
+                        properties.bulkheadWait(), null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisEngineException(NAME, "모델 서버 호출 대기 중 인터럽트되었습니다.", e);
+        }
+    }
+
+    static AnalysisResult toResult(PredictResponse response) {
+        ColorType[] types = ColorType.values();
+        double[] scores = new double[types.length];
+        if (response.scores() != null) {
+            response.scores().forEach((key, value) -> {
+                ColorType type = parseColorType(key);
+                if (value != null) {
+                    scores[type.ordinal()] = value;
+                }
+            });
+        }
+
+        ColorType colorType = parseColorType(response.season());
+        double confidence = response.confidence() != null
+                ? response.confidence()
+                : scores[colorType.ordinal()];
+        if (response.scores() == null) {
+            scores[colorType.ordinal()] = confidence;
+        }
+
+        double second = 0.0;
+        for (int i = 0; i < types.length; i++) {
+            if (i != colorType.ordinal()) {
+                second = Math.max(second, scores[i]);
+            }
+        }
+        return new AnalysisResult(colorType, confidence, Math.max(0.0, confidence - second), scores, null, null, null);
+    }
+
+    /**
+     * 모델 서버의 계절 레이블을 ColorType으로 변환 (예: "SPRING_WARM", "spring", "봄 웜톤")
+     */
+    static ColorType parseColorType(String label) {
+        if (label == null) {
+            return ColorType.NEUTRAL;
+        }
+        String normalized = label.trim().toUpperCase(Locale.ROOT);
+        for (ColorType type : ColorType.values()) {
+            if (type.name().equals(normalized)) {
+                return type;
+            }
+        }
+        if (normalized.contains("SPRING") || normalized.contains("봄")) {
+            return ColorType.SPRING_WARM;
+        }
+        if (normalized.contains("SUMMER") || normalized.contains("여름")) {
+            return ColorType.SUMMER_COOL;
+        }
+        if (normalized.contains("AUTUMN") || normalized.contains("FALL") || normalized.contains("가을")) {
+            return ColorType.AUTUMN_WARM;
+        }
+        if (normalized.contains("WINTER") || normalized.contains("겨울")) {
+            return ColorType.WINTER_COOL;
+        }
+        return ColorType.NEUTRAL;
+    }
+
+    /**
+     * 모델 서버 /predict 응답
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record PredictResponse(
+            String season,
+            String tone,
+            Double confidence,
+            Map<String, Double> scores
+    ) {
+    }
+}
@@ -0,0 +1,126 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키의 동시 호출 병합 (single-flight)
+ * 키마다 먼저 도착한 호출(리더)만 작업을 실행하고, 실행 중에 도착한 같은 키의 호출은
+ * 리더의 CompletableFuture를 기다려 같은 결과(또는 같은 예외)를 받는다.
+ * 진행 중 항목은 키 해시로 나눈 구간(stripe)별 잠금 + HashMap에 두어 서로 다른 키끼리 경합하지 않게 하고,
+ * 리더가 끝나면 바로 제거하므로 끝난 키가 남지 않는다 (결과를 캐시하지 않음).
+ *
+ * @param <K> 병합 키
+ * @param <V> 결과 타입
+ */
+public final class SingleFlight<K, V> {
+
+    private final Stripe<K, V>[] stripes;
+    private final int mask;
+    private final AtomicLong shared = new AtomicLong();
+
+    /**
+     * @param stripes 잠금 구간 수 (2의 거듭제곱으로 올림)
+     */
+    @SuppressWarnings("unchecked")
+    public SingleFlight(int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe<>();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 키가 같은 호출이 진행 중이면 그 결과를 기다리고, 없으면 호출 스레드에서 작업 실행
+     * 작업이 던진 런타임 예외는 리더와 대기한 호출 모두에게 감싸지 않고 그대로 던진다.
+     */
+    public V execute(K key, Supplier<V> work) {
+        Stripe<K, V> stripe = stripeFor(key);
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight;
+
+        stripe.lock.lock();
+        try {
+            inFlight = stripe.flights.putIfAbsent(key, flight);
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (inFlight != null) {
+            shared.incrementAndGet();
+            return join(inFlight);
+        }
+
+        try {
+            V value = work.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            stripe.lock.lock();
+            try {
+                stripe.flights.remove(key, flight);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 진행 중인 키 수
+     */
+    public int inFlight() {
+        int count = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                count += stripe.flights.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 진행 중인 호출의 결과를 받아 간(작업을 실행하지 않은) 호출 수
+     */
+    public long getShared() {
+        return shared.get();
+    }
+
+    // === 내부 메서드들 ===
+
+    private Stripe<K, V> stripeFor(K key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static <V> V join(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Stripe<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<K, CompletableFuture<V>> flights = new HashMap<>();
+    }
+}
@@ -0,0 +1,46 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+/**
+ * 피부 영역 경계 상자
+ *
+ * @param x      왼쪽 위 x 좌표
+ * @param y      왼쪽 위 y 좌표
+ * @param width  너비
+ * @param height 높이
+ */
+public record SkinRegion(
+        int x,
+        int y,
+        int width,
+        int height
+) {
+
+    public long area() {
+        return (long) width * height;
+    }
+
+    /**
+     * 서브샘플링된 좌표를 원본 이미지 좌표로 변환 (원본 크기로 클램프)
+     */
+    public SkinRegion scale(int factor, int maxWidth, int maxHeight) {
+        int sx = Math.min(x * factor, maxWidth - 1);
+        int sy = Math.min(y * factor, maxHeight - 1);
+        int sw = Math.min(width * factor, maxWidth - sx);
+        int sh = Math.min(height * factor, maxHeight - sy);
+        return new SkinRegion(sx, sy, sw, sh);
+    }
+
+    /**
+     * 이미지 경계 안으로 잘라낸 영역 (겹치는 부분이 없으면 null)
+     */
+    public SkinRegion clamp(int maxWidth, int maxHeight) {
+        int x0 = Math.max(0, x);
+        int y0 = Math.max(0, y);
+        int x1 = Math.min(maxWidth, x + width);
+        int y1 = Math.min(maxHeight, y + height);
+        if (x1 <= x0 || y1 <= y0) {
+            return null;
+        }
+        return new SkinRegion(x0, y0, x1 - x0, y1 - y0);
+    }
+}
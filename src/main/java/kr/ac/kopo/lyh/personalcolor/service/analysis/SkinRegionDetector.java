@@ -0,0 +1,113 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+/**
+ * 피부 영역 검출기
+ * 작업 해상도 래스터에 YCbCr 피부 마스크를 적용하고, 4-연결 성분별 경계 상자 중
+ * 픽셀 수가 가장 많은 영역을 반환한다. 마스크와 탐색 스택은 모두 기본형 배열을 사용한다.
+ */
+public final class SkinRegionDetector {
+
+    /** 전체 픽셀 대비 최소 영역 비율 (이보다 작으면 검출 실패) */
+    static final double MIN_REGION_RATIO = 0.01;
+
+    /**
+     * 가장 큰 피부 연결 성분의 경계 상자 검출
+     *
+     * @return 래스터 좌표의 영역, 충분히 큰 영역이 없으면 null
+     */
+    public SkinRegion detect(int[] argb, int width, int height) {
+        int pixelCount = width * height;
+        byte[] mask = new byte[pixelCount];
+        for (int i = 0; i < pixelCount; i++) {
+            int p = argb[i];
+            if ((p >>> 24) >= SkinToneHistogram.ALPHA_MIN
+                    && SkinToneHistogram.isSkin((p >>> 16) & 0xFF, (p >>> 8) & 0xFF, p & 0xFF)) {
+                mask[i] = 1;
+            }
+        }
+
+        int[] stack = new int[pixelCount];
+        int bestCount = 0;
+        int bestMinX = 0;
+        int bestMinY = 0;
+        int bestMaxX = -1;
+        int bestMaxY = -1;
+
+        for (int seed = 0; seed < pixelCount; seed++) {
+            if (mask[seed] == 0) {
+                continue;
+            }
+
+            // 방문한 픽셀은 마스크를 0으로 지워 재방문 방지
+            int top = 0;
+            stack[top++] = seed;
+            mask[seed] = 0;
+            int count = 0;
+            int minX = width;
+            int minY = height;
+            int maxX = -1;
+            int maxY = -1;
+
+            while (top > 0) {
+                int index = stack[--top];
+                int x = index % width;
+                int y = index / width;
+                count++;
+                if (x < minX) {
+                    minX = x;
+                }
+                if (x > maxX) {
+                    maxX = x;
+                }
+                if (y < minY) {
+                    minY = y;
+                }
+                if (y > maxY) {
+                    maxY = y;
+                }
+
+                if (x > 0 && mask[index - 1] != 0) {
+                    mask[index - 1] = 0;
+                    stack[top++] = index - 1;
+                }
+                if (x < width - 1 && mask[index + 1] != 0) {
+                    mask[index + 1] = 0;
+                    stack[top++] = index + 1;
+                }
+                if (y > 0 && mask[index - width] != 0) {
+                    mask[index - width] = 0;
+                    stack[top++] = index - width;
+                }
+                if (y < height - 1 && mask[index + width] != 0) {
+                    mask[index + width] = 0;
+                    stack[top++] = index + width;
+                }
+            }
+
+            if (count > bestCount) {
+                bestCount = count;
+                bestMinX = minX;
+                bestMinY = minY;
+                bestMaxX = maxX;
+                bestMaxY = maxY;
+            }
+        }
+
+        if (bestCount < pixelCount * MIN_REGION_RATIO) {
+            return null;
+        }
+        return new SkinRegion(bestMinX, bestMinY, bestMaxX - bestMinX + 1, bestMaxY - bestMinY + 1);
+    }
+
+    /**
+     * 래스터에서 영역만 잘라낸 새 래스터
+     */
+    public static int[] crop(int[] argb, int width, SkinRegion region) {
+        int[] cropped = new int[region.width() * region.height()];
+        for (int row = 0; row < region.height(); row++) {
+            System.arraycopy(argb, (region.y() + row) * width + region.x(),
+                    cropped, row * region.width(), region.width());
+        }
+        return cropped;
+    }
+}
@@ -0,0 +1,140 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis.ColorType;
+
+/**
+ * 피부 히스토그램으로부터 퍼스널 컬러 타입을 판정하는 분류기
+ *
+ * 피부 영역의 평균 색상각(웜/쿨), 명도(라이트/딥), 채도(클리어/소프트)를
+ * 기준값으로 정규화한 뒤, 타입별 원형(prototype)과의 거리로 확률을 계산한다.
+ * 같은 입력에 대해 항상 같은 결과를 반환한다.
+ */
+public final class SkinToneClassifier {
+
+    /** 판정에 필요한 최소 피부 픽셀 수 */
+    static final long MIN_SKIN_PIXELS = 64;
+
+    // 특징값 정규화 기준 (중심, 스케일)
+    private static final double HUE_CENTER = 55.0;
+    private static final double HUE_SCALE = 6.0;
+    private static final double LIGHTNESS_CENTER = 64.0;
+    private static final double LIGHTNESS_SCALE = 7.0;
+    private static final double CHROMA_CENTER = 21.0;
+    private static final double CHROMA_SCALE = 5.0;
+
+    /** 확률 분포의 뾰족함 (작을수록 1순위 확률이 커짐) */
+    private static final double SIGMA = 0.6;
+
+    // ColorType.ordinal() 순서의 원형 좌표: {웜톤, 명도, 채도}
+    private static final double[][] PROTOTYPES = new double[ColorType.values().length][];
+
+    static {
+        PROTOTYPES[ColorType.SPRING_WARM.ordinal()] = new double[]{1.0, 1.0, 0.75};
+        PROTOTYPES[ColorType.SUMMER_COOL.ordinal()] = new double[]{-1.0, 1.0, -0.75};
+        PROTOTYPES[ColorType.AUTUMN_WARM.ordinal()] = new double[]{1.0, -1.0, -0.75};
+        PROTOTYPES[ColorType.WINTER_COOL.ordinal()] = new double[]{-1.0, -1.0, 0.75};
+        PROTOTYPES[ColorType.NEUTRAL.ordinal()] = new double[]{0.0, 0.0, 0.0};
+    }
+
+    private final ColorLookupTables lookupTables;
+
+    public SkinToneClassifier(ColorLookupTables lookupTables) {
+        this.lookupTables = lookupTables;
+    }
+
+    /**
+     * 히스토그램을 분석하여 컬러 타입 판정
+     */
+    public AnalysisResult classify(SkinToneHistogram histogram) {
+        SkinToneFeatures features = extractFeatures(histogram);
+        if (features.skinPixels() < MIN_SKIN_PIXELS) {
+            return undetermined(features);
+        }
+        return classify(features);
+    }
+
+    /**
+     * 특징값으로부터 컬러 타입 판정
+     */
+    public AnalysisResult classify(SkinToneFeatures features) {
+        double warmth = (features.hue() - HUE_CENTER) / HUE_SCALE;
+        double lightness = (features.lightness() - LIGHTNESS_CENTER) / LIGHTNESS_SCALE;
+        double clarity = (features.chroma() - CHROMA_CENTER) / CHROMA_SCALE;
+
+        ColorType[] types = ColorType.values();
+        double[] scores = new double[types.length];
+        double sum = 0.0;
+        for (int i = 0; i < types.length; i++) {
+            double[] p = PROTOTYPES[i];
+            double dw = warmth - p[0];
+            double dl = lightness - p[1];
+            double dc = clarity - p[2];
+            double distance = dw * dw + dl * dl + dc * dc;
+            scores[i] = Math.exp(-distance / (2.0 * SIGMA * SIGMA));
+            sum += scores[i];
+        }
+
+        int best = 0;
+        int second = 1;
+        for (int i = 0; i < types.length; i++) {
+            scores[i] = sum > 0.0 ? scores[i] / sum : 1.0 / types.length;
+        }
+        if (scores[second] > scores[best]) {
+            best = 1;
+            second = 0;
+        }
+        for (int i = 2; i < types.length; i++) {
+            if (scores[i] > scores[best]) {
+                second = best;
+                best = i;
+            } else if (scores[i] > scores[second]) {
+                second = i;
+            }
+        }
+
+        double margin = scores[best] - scores[second];
+        return new AnalysisResult(types[best], scores[best], margin, scores, features, null, null);
+    }
+
+    /**
+     * 히스토그램 빈 중앙값의 Lab(LUT)으로 피부 평균 특징값 계산
+     */
+    SkinToneFeatures extractFeatures(SkinToneHistogram histogram) {
+        double sumL = 0.0;
+        double sumA = 0.0;
+        double sumB = 0.0;
+        long weight = 0;
+
+        for (int bin = 0; bin < SkinToneHistogram.BIN_COUNT; bin++) {
+            int count = histogram.count(bin);
+            if (count == 0) {
+                continue;
+            }
+            sumL += (double) lookupTables.binLab(bin, 0) * count;
+            sumA += (double) lookupTables.binLab(bin, 1) * count;
+            sumB += (double) lookupTables.binLab(bin, 2) * count;
+            weight += count;
+        }
+
+        if (weight == 0) {
+            return new SkinToneFeatures(0.0, 0.0, 0.0, 0.0, 0.0, 0, histogram.getTotalPixels());
+        }
+
+        double l = sumL / weight;
+        double a = sumA / weight;
+        double b = sumB / weight;
+        double chroma = Math.hypot(a, b);
+        double hue = Math.toDegrees(Math.atan2(b, a));
+        if (hue < 0.0) {
+            hue += 360.0;
+        }
+        return new SkinToneFeatures(l, a, b, chroma, hue, weight, histogram.getTotalPixels());
+    }
+
+    private AnalysisResult undetermined(SkinToneFeatures features) {
+        ColorType[] types = ColorType.values();
+        double[] scores = new double[types.length];
+        scores[ColorType.NEUTRAL.ordinal()] = 1.0;
+        return new AnalysisResult(ColorType.NEUTRAL, 0.0, 0.0, scores, features, null, null);
+    }
+}
@@ -0,0 +1,27 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+/**
+ * 피부 영역의 Lab 통계 특징값
+ *
+ * @param lightness  평균 L*
+ * @param a          평균 a*
+ * @param b          평균 b*
+ * @param chroma     평균 채도 C*ab
+ * @param hue        평균 색상각 h_ab (도)
+ * @param skinPixels 피부로 판정된 픽셀 수
+ * @param totalPixels 분석 대상 전체 픽셀 수
+ */
+public record SkinToneFeatures(
+        double lightness,
+        double a,
+        double b,
+        double chroma,
+        double hue,
+        long skinPixels,
+        long totalPixels
+) {
+
+    public double skinRatio() {
+        return totalPixels == 0 ? 0.0 : (double) skinPixels / totalPixels;
+    }
+}
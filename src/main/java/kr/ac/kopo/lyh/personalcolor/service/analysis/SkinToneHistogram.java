@@ -0,0 +1,118 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+/**
+ * 피부 픽셀 RGB 히스토그램
+ * ARGB 래스터를 정수 연산만으로 YCbCr 피부 마스크에 통과시키고,
+ * 채널당 5비트로 양자화한 RGB 빈에 누적한다.
+ * 모든 누적값이 정수이므로 병합 순서와 무관하게 결과가 동일하다.
+ */
+public final class SkinToneHistogram {
+
+    public static final int CHANNEL_BITS = 5;
+    public static final int CHANNEL_LEVELS = 1 << CHANNEL_BITS;
+    public static final int BIN_COUNT = CHANNEL_LEVELS * CHANNEL_LEVELS * CHANNEL_LEVELS;
+
+    // YCbCr 피부 영역 범위 (Chai & Ngan)
+    static final int CB_MIN = 77;
+    static final int CB_MAX = 127;
+    static final int CR_MIN = 133;
+    static final int CR_MAX = 173;
+    static final int Y_MIN = 40;
+    static final int ALPHA_MIN = 0x80;
+
+    private final int[] counts = new int[BIN_COUNT];
+    private long skinPixels;
+    private long totalPixels;
+
+    /**
+     * argb[offset, offset + length) 구간의 픽셀을 스칼라 연산으로 누적
+     * SIMD 커널은 이 구현과 비트 단위로 동일한 결과를 내야 한다.
+     */
+    public void accumulate(int[] argb, int offset, int length) {
+        int[] bins = counts;
+        long skin = 0;
+        long total = 0;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            int p = argb[i];
+            if ((p >>> 24) < ALPHA_MIN) {
+                continue;
+            }
+            total++;
+            int r = (p >>> 16) & 0xFF;
+            int g = (p >>> 8) & 0xFF;
+            int b = p & 0xFF;
+            if (isSkin(r, g, b)) {
+                bins[binIndex(r, g, b)]++;
+                skin++;
+            }
+        }
+        skinPixels += skin;
+        totalPixels += total;
+    }
+
+    /**
+     * 커널이 직접 누적한 픽셀 수 반영
+     */
+    void addPixelCounts(long skin, long total) {
+        skinPixels += skin;
+        totalPixels += total;
+    }
+
+    /**
+     * 커널 구현용 빈 배열 (복사본이 아닌 내부 배열)
+     */
+    int[] bins() {
+        return counts;
+    }
+
+    /**
+     * 다른 히스토그램의 누적값을 합산
+     */
+    public void merge(SkinToneHistogram other) {
+        int[] src = other.counts;
+        for (int i = 0; i < BIN_COUNT; i++) {
+            counts[i] += src[i];
+        }
+        skinPixels += other.skinPixels;
+        totalPixels += other.totalPixels;
+    }
+
+    /**
+     * 8비트 정수 YCbCr(BT.601) 기반 피부색 판정
+     */
+    public static boolean isSkin(int r, int g, int b) {
+        int y = (77 * r + 150 * g + 29 * b) >> 8;
+        int cb = ((-43 * r - 85 * g + 128 * b) >> 8) + 128;
+        int cr = ((128 * r - 107 * g - 21 * b) >> 8) + 128;
+        return y >= Y_MIN
+                && cb >= CB_MIN && cb <= CB_MAX
+                && cr >= CR_MIN && cr <= CR_MAX;
+    }
+
+    public static int binIndex(int r, int g, int b) {
+        int shift = 8 - CHANNEL_BITS;
+        return ((r >>> shift) << (2 * CHANNEL_BITS)) | ((g >>> shift) << CHANNEL_BITS) | (b >>> shift);
+    }
+
+    /**
+     * 빈 인덱스의 채널 대표값(빈 중앙값)
+     */
+    public static int binCenter(int bin, int channel) {
+        int shift = 8 - CHANNEL_BITS;
+        int level = (bin >>> ((2 - channel) * CHANNEL_BITS)) & (CHANNEL_LEVELS - 1);
+        return (level << shift) | (1 << (shift - 1));
+    }
+
+    public int count(int bin) {
+        return counts[bin];
+    }
+
+    public long getSkinPixels() {
+        return skinPixels;
+    }
+
+    public long getTotalPixels() {
+        return totalPixels;
+    }
+}
@@ -0,0 +1,44 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 타일 병렬 피부 히스토그램 누적 작업
+ * 래스터를 tilePixels 이하의 구간으로 분할하여 구간별 부분 히스토그램을 만들고 병합한다.
+ * 히스토그램 누적값이 정수 합이므로 분할 방식과 무관하게 단일 스레드 결과와 동일하다.
+ */
+final class SkinToneHistogramTask extends RecursiveTask<SkinToneHistogram> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient SkinToneKernel kernel;
+    private final int[] argb;
+    private final int offset;
+    private final int length;
+    private final int tilePixels;
+
+    SkinToneHistogramTask(SkinToneKernel kernel, int[] argb, int offset, int length, int tilePixels) {
+        this.kernel = kernel;
+        this.argb = argb;
+        this.offset = offset;
+        this.length = length;
+        this.tilePixels = Math.max(1, tilePixels);
+    }
+
+    @Override
+    protected SkinToneHistogram compute() {
+        if (length <= tilePixels) {
+            SkinToneHistogram histogram = new SkinToneHistogram();
+            kernel.accumulate(histogram, argb, offset, length);
+            return histogram;
+        }
+
+        int half = length / 2;
+        SkinToneHistogramTask left = new SkinToneHistogramTask(kernel, argb, offset, half, tilePixels);
+        SkinToneHistogramTask right = new SkinToneHistogramTask(kernel, argb, offset + half, length - half, tilePixels);
+        left.fork();
+        SkinToneHistogram histogram = right.compute();
+        histogram.merge(left.join());
+        return histogram;
+    }
+}
@@ -0,0 +1,18 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+/**
+ * 피부 히스토그램 누적 커널
+ * ARGB 언패킹, YCbCr 변환, 피부 마스크, 히스토그램 누적을 수행한다.
+ */
+public interface SkinToneKernel {
+
+    /**
+     * argb[offset, offset + length) 구간의 픽셀을 히스토그램에 누적
+     */
+    void accumulate(SkinToneHistogram histogram, int[] argb, int offset, int length);
+
+    /**
+     * 로그 및 모니터링용 커널 이름
+     */
+    String getName();
+}
@@ -0,0 +1,48 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+/**
+ * 피부 히스토그램 커널 선택
+ *
+ * SIMD 커널(VectorSkinToneKernel)은 jdk.incubator.vector 모듈이 필요하므로
+ * -PvectorApi 빌드에만 포함되고, 실행 시에도 --add-modules jdk.incubator.vector가 있어야 로드된다.
+ * 로드할 수 없으면 스칼라 커널로 대체한다.
+ */
+public final class SkinToneKernels {
+
+    static final String VECTOR_KERNEL_CLASS =
+            "kr.ac.kopo.lyh.personalcolor.service.analysis.VectorSkinToneKernel";
+
+    private static final SkinToneKernel SCALAR = new SkinToneKernel() {
+        @Override
+        public void accumulate(SkinToneHistogram histogram, int[] argb, int offset, int length) {
+            histogram.accumulate(argb, offset, length);
+        }
+
+        @Override
+        public String getName() {
+            return "scalar";
+        }
+    };
+
+    private SkinToneKernels() {
+    }
+
+    public static SkinToneKernel scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * simdEnabled가 true이고 Vector API 커널을 로드할 수 있으면 SIMD 커널, 아니면 스칼라 커널 반환
+     */
+    public static SkinToneKernel select(boolean simdEnabled) {
+        if (!simdEnabled) {
+            return SCALAR;
+        }
+        try {
+            Class<?> type = Class.forName(VECTOR_KERNEL_CLASS);
+            return (SkinToneKernel) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * 서브샘플링 이미지 디코더
+ * 헤더에서 크기만 먼저 읽은 뒤 ImageIO 소스 서브샘플링으로
+ * 긴 변이 maxEdge 이하가 되도록 디코딩하여 원본 해상도 래스터를 만들지 않는다.
+ * 관심 영역(ROI)이 주어지면 해당 영역만 디코딩한다.
+ * 디코딩 전에 헤더 크기로 픽셀 상한을 확인하고, 결과 래스터 크기만큼 디코딩 예산을 확보한 뒤 읽는다.
+ */
+public final class SubsampledImageDecoder {
+
+    private final DecodeBudget budget;
+
+    public SubsampledImageDecoder() {
+        this(DecodeBudget.UNLIMITED);
+    }
+
+    public SubsampledImageDecoder(DecodeBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * 이미지 디코딩
+     *
+     * @param file    이미지 파일
+     * @param maxEdge 디코딩 결과의 최대 긴 변 길이 (px)
+     * @return 디코딩된 래스터
+     * @throws IOException 지원하지 않는 포맷이거나 읽기 실패 시
+     */
+    public DecodedImage decode(Path file, int maxEdge) throws IOException {
+        return decode(file, maxEdge, null);
+    }
+
+    /**
+     * 관심 영역만 디코딩
+     *
+     * @param file         이미지 파일
+     * @param maxEdge      디코딩 결과의 최대 긴 변 길이 (px)
+     * @param sourceRegion 원본 이미지 좌표의 디코딩 영역 (null이면 전체)
+     * @return 디코딩된 래스터 (sourceWidth/sourceHeight는 원본 이미지 전체 크기)
+     * @throws DecodeRejectedException 픽셀 상한 초과 또는 디코딩 예산 부족
+     * @throws IOException              지원하지 않는 포맷이거나 읽기 실패 시
+     */
+    public DecodedImage decode(Path file, int maxEdge, SkinRegion sourceRegion) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                throw new IOException("이미지 스트림을 열 수 없습니다: " + file.getFileName());
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("지원하지 않는 이미지 형식입니다: " + file.getFileName());
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                budget.checkDimensions(sourceWidth, sourceHeight);
+
+                SkinRegion region = sourceRegion != null ? sourceRegion.clamp(sourceWidth, sourceHeight) : null;
+                int regionWidth = region != null ? region.width() : sourceWidth;
+                int regionHeight = region != null ? region.height() : sourceHeight;
+                int step = subsamplingFor(regionWidth, regionHeight, maxEdge);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (region != null) {
+                    param.setSourceRegion(new Rectangle(region.x(), region.y(), region.width(), region.height()));
+                }
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                int decodedWidth = (regionWidth + step - 1) / step;
+                int decodedHeight = (regionHeight + step - 1) / step;
+                try (DecodeBudget.Permit permit = budget.acquire(decodedWidth, decodedHeight)) {
+                    BufferedImage image = reader.read(0, param);
+
+                    int width = image.getWidth();
+                    int height = image.getHeight();
+                    int[] argb = image.getRGB(0, 0, width, height, null, 0, width);
+                    return new DecodedImage(argb, width, height, sourceWidth, sourceHeight, step, reader.getFormatName());
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 긴 변이 maxEdge 이하가 되는 최소 서브샘플링 간격
+     */
+    static int subsamplingFor(int width, int height, int maxEdge) {
+        int longEdge = Math.max(width, height);
+        if (maxEdge <= 0 || longEdge <= maxEdge) {
+            return 1;
+        }
+        return (longEdge + maxEdge - 1) / maxEdge;
+    }
+}
@@ -0,0 +1,119 @@
+package kr.ac.kopo.lyh.personalcolor.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import kr.ac.kopo.lyh.personalcolor.service.FileStorageService;
+import kr.ac.kopo.lyh.personalcolor.service.HotFileCache;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 저장 파일 다운로드의 조건부 요청(304), 단일 구간 요청(206/416), 메모리 캐시 적중과 미적중 확인
+ */
+class FileControllerTests {
+
+    private static final String FILE_NAME = "face.png";
+    private static final String ETAG = "\"" + FILE_NAME + "\"";
+    private static final int SIZE = 100;
+
+    @TempDir
+    Path tempDir;
+
+    private HotFileCache hotFileCache;
+    private Path file;
+    private byte[] bytes;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ApplicationConfig.FileStorageProperties properties = new ApplicationConfig.FileStorageProperties(
+                tempDir.resolve("uploads").toString(), 0, null, null, null, null,
+                new ApplicationConfig.FileStorageProperties.HotCache(true, 1024 * 1024, 1024, Duration.ofMinutes(10)),
+                null);
+        hotFileCache = new HotFileCache(properties, new SimpleMeterRegistry());
+        FileStorageService fileStorageService = new FileStorageService(properties, new MultipartProperties(),
+                hotFileCache, DecodeBudget.UNLIMITED);
+        fileStorageService.init();
+
+        bytes = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            bytes[i] = (byte) i;
+        }
+        file = Files.write(fileStorageService.getFilePath(FILE_NAME), bytes);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new FileController(fileStorageService, null, hotFileCache))
+                .build();
+    }
+
+    @Test
+    void answersNotModifiedForMatchingEtag() throws Exception {
+        mockMvc.perform(get("/files/" + FILE_NAME).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().bytes(new byte[0]));
+
+        // 304는 본문을 읽지 않으므로 캐시에 올리지 않음
+        assertThat(hotFileCache.get(FILE_NAME)).isNull();
+    }
+
+    @Test
+    void servesSingleRangeAsPartialContent() throws Exception {
+        mockMvc.perform(get("/files/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/" + SIZE))
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, 10, 20)));
+
+        // 구간 요청은 파일에서 바로 전송하고 캐시에 올리지 않음
+        assertThat(hotFileCache.get(FILE_NAME)).isNull();
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/files/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=" + SIZE + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + SIZE));
+    }
+
+    @Test
+    void cachesFullResponseOnMissAndServesHitWithoutFile() throws Exception {
+        assertThat(hotFileCache.get(FILE_NAME)).isNull();
+
+        mockMvc.perform(get("/files/" + FILE_NAME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().bytes(bytes));
+        assertThat(hotFileCache.get(FILE_NAME)).isNotNull();
+
+        // 적중 시에는 파일시스템을 보지 않으므로 원본이 사라져도 캐시에서 응답
+        Files.delete(file);
+        mockMvc.perform(get("/files/" + FILE_NAME))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(bytes));
+        mockMvc.perform(get("/files/" + FILE_NAME).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void answersNotFoundForMissingFile() throws Exception {
+        mockMvc.perform(get("/files/missing.png"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,86 @@
+package kr.ac.kopo.lyh.personalcolor.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import kr.ac.kopo.lyh.personalcolor.service.FileStorageService;
+import kr.ac.kopo.lyh.personalcolor.service.HotFileCache;
+import kr.ac.kopo.lyh.personalcolor.service.ReactiveUploadService;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * multipart 파트 스트림을 next()로 끊은 뒤에도 임시 파일이 남아 있는지 확인 (핸들러 경로)
+ */
+class ReactiveUploadHandlerTests {
+
+    @TempDir
+    Path tempDir;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationConfig.FileStorageProperties properties = new ApplicationConfig.FileStorageProperties(
+                tempDir.resolve("uploads").toString(), 10L * 1024 * 1024, null, null, null, null, null,
+                new ApplicationConfig.FileStorageProperties.Resumable(tempDir.resolve("staging").toString(), null));
+        FileStorageService fileStorageService = new FileStorageService(properties, new MultipartProperties(),
+                new HotFileCache(properties, new SimpleMeterRegistry()), DecodeBudget.UNLIMITED);
+        fileStorageService.init();
+        ReactiveUploadHandler handler = new ReactiveUploadHandler(
+                new ReactiveUploadService(fileStorageService, null, properties, Schedulers.immediate()),
+                properties.maxFileSize());
+
+        client = WebTestClient.bindToRouterFunction(RouterFunctions.route(RequestPredicates.POST("/stage"),
+                request -> handler.stageFilePart(request).flatMap(staged -> ServerResponse.ok().bodyValue(Map.of(
+                        "exists", Files.exists(staged.file()),
+                        "size", staged.size(),
+                        "fileName", staged.originalFileName()))))).build();
+    }
+
+    @Test
+    void keepsStagedFileAfterPartStreamIsCancelledByNext() {
+        byte[] content = new byte[200_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("note", "앞선 텍스트 파트");
+        body.part("file", new ByteArrayResource(content)).filename("face.png");
+        body.part("trailing", "뒤 파트");
+
+        client.post().uri("/stage")
+                .body(BodyInserters.fromMultipartData(body.build()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.exists").isEqualTo(true)
+                .jsonPath("$.size").isEqualTo(content.length)
+                .jsonPath("$.fileName").isEqualTo("face.png");
+    }
+
+    @Test
+    void rejectsRequestWithoutFilePart() {
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("note", "파일 없음");
+
+        client.post().uri("/stage")
+                .body(BodyInserters.fromMultipartData(body.build()))
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+}
@@ -0,0 +1,255 @@
+package kr.ac.kopo.lyh.personalcolor.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import kr.ac.kopo.lyh.personalcolor.PersonalColorApplication;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 플랫폼 스레드 / 가상 스레드 모드의 실제 업로드 경로 처리량 비교
+ * 모드마다 애플리케이션을 임의 포트로 띄우고, 동시 클라이언트가 서로 다른 이미지를 /upload로 올린 뒤
+ * 분석 작업이 끝날 때까지(/api/jobs/{id}) 기다린 시간으로 처리량을 잰다.
+ * 결과는 하드웨어와 설정에 따라 달라지므로 우열을 단정하지 않고 수치만 출력한다 (./gradlew benchmark -PjavaVersion=21).
+ */
+@Tag("benchmark")
+class UploadThroughputBenchmarkTests {
+
+    private static final int CLIENTS = 32;
+    private static final int UPLOADS_PER_CLIENT = 8;
+    private static final int IMAGE_EDGE = 800;
+    private static final String BOUNDARY = "----PersonalColorBenchmark";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void comparesUploadThroughputOnPlatformAndVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "가상 스레드는 JDK 21 이상 필요");
+        List<byte[]> images = createImages(CLIENTS * UPLOADS_PER_CLIENT);
+
+        Result platform = run("platform", false, images);
+        Result virtual = run("virtual", true, images);
+
+        System.out.printf("clients=%d uploads=%d cpus=%d%n",
+                CLIENTS, images.size(), Runtime.getRuntime().availableProcessors());
+        System.out.println(platform);
+        System.out.println(virtual);
+    }
+
+    /**
+     * 한 모드로 애플리케이션을 띄워 모든 클라이언트의 업로드가 끝날 때까지 측정
+     */
+    private Result run(String mode, boolean virtualThreads, List<byte[]> images) throws Exception {
+        Path dir = tempDir.resolve(mode);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                PersonalColorApplication.class, BenchmarkConfig.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:upload-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database=h2",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--app.file-storage.upload-dir=" + dir.resolve("uploads"),
+                "--app.file-storage.derivatives.dir=" + dir.resolve("derivatives"),
+                "--app.file-storage.resumable.staging-dir=" + dir.resolve("staging"),
+                // 모든 업로드가 엔진까지 가도록 유사 이미지 재사용을 끄고, 작업 대기열은 전체 업로드 수만큼
+                "--app.analysis.near-duplicate.enabled=false",
+                "--app.analysis.jobs.queue-capacity=" + images.size(),
+                "--app.analysis.jobs.poll-interval=PT0.05S")) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            AtomicInteger completed = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            long start = System.nanoTime();
+            try {
+                List<Future<?>> runs = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    int first = c * UPLOADS_PER_CLIENT;
+                    runs.add(clients.submit(() -> {
+                        for (int i = first; i < first + UPLOADS_PER_CLIENT; i++) {
+                            (uploadAndWait(client, baseUrl, images.get(i), i) ? completed : failed).incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> clientRun : runs) {
+                    clientRun.get();
+                }
+            } finally {
+                clients.shutdownNow();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return new Result(mode, completed.get(), failed.get(), seconds);
+        }
+    }
+
+    /**
+     * 업로드 후 작업이 끝날 때까지 상태 조회 (완료면 true, 거절/실패면 false)
+     */
+    private boolean uploadAndWait(HttpClient client, String baseUrl, byte[] image, int index) throws Exception {
+        HttpResponse<String> upload = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/upload"))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipart(image, "face-" + index + ".png")))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (upload.statusCode() != 202) {
+            return false;
+        }
+
+        URI statusUrl = URI.create(baseUrl + objectMapper.readTree(upload.body()).path("statusUrl").asText());
+        while (true) {
+            HttpResponse<String> status = client.send(HttpRequest.newBuilder(statusUrl).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (status.statusCode() != 200) {
+                return false;
+            }
+            JsonNode body = objectMapper.readTree(status.body());
+            String state = body.path("state").asText();
+            if ("COMPLETED".equals(state)) {
+                return true;
+            }
+            if ("FAILED".equals(state)) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static byte[] multipart(byte[] image, String fileName) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 256);
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(image);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    /**
+     * 서로 내용이 다른 피부색 계열 그라데이션 이미지 (내용 해시 재사용이 일어나지 않도록 색조를 조금씩 바꿈)
+     */
+    private static List<byte[]> createImages(int count) throws IOException {
+        List<byte[]> images = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            BufferedImage image = new BufferedImage(IMAGE_EDGE, IMAGE_EDGE, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < IMAGE_EDGE; y++) {
+                for (int x = 0; x < IMAGE_EDGE; x++) {
+                    int r = 180 + (x * 60 / IMAGE_EDGE);
+                    int g = 120 + (y * 60 / IMAGE_EDGE);
+                    int b = 90 + (n * 7 + x + y) % 60;
+                    image.setRGB(x, y, (r << 16) | (g << 8) | b);
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            images.add(out.toByteArray());
+        }
+        return images;
+    }
+
+    private record Result(String mode, int completed, int failed, double seconds) {
+        @Override
+        public String toString() {
+            return String.format("%s: completed=%d failed=%d elapsed=%.1fs throughput=%.1f/s",
+                    mode, completed, failed, seconds, completed / seconds);
+        }
+    }
+
+    /**
+     * 벤치마크용 로그인: 모든 요청 세션에 같은 사용자를 넣고 업로드/작업 조회 경로는 인증 없이 허용
+     */
+    @TestConfiguration
+    static class BenchmarkConfig {
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        SecurityFilterChain benchmarkFilterChain(HttpSecurity http) throws Exception {
+            return http.securityMatcher("/upload", "/api/jobs/**")
+                    .csrf(AbstractHttpConfigurer::disable)
+                    .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                    .build();
+        }
+
+        @Bean
+        OncePerRequestFilter benchmarkLoginFilter(UserRepository userRepository) {
+            return new OncePerRequestFilter() {
+                private volatile User user;
+
+                @Override
+                protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                                FilterChain chain) throws ServletException, IOException {
+                    HttpSession session = request.getSession();
+                    if (session.getAttribute("user") == null) {
+                        session.setAttribute("user", user());
+                    }
+                    chain.doFilter(request, response);
+                }
+
+                private User user() {
+                    User current = user;
+                    if (current == null) {
+                        synchronized (this) {
+                            if (user == null) {
+                                user = userRepository.save(User.builder()
+                                        .email("benchmark@example.com")
+                                        .password("benchmark-password")
+                                        .name("benchmark")
+                                        .build());
+                            }
+                            current = user;
+                        }
+                    }
+                    return current;
+                }
+            };
+        }
+    }
+}
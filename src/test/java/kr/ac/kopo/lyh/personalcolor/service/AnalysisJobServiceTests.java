@@ -0,0 +1,234 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.config.AnalysisConfig;
+import kr.ac.kopo.lyh.personalcolor.entity.AnalysisJob;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisOverloadedException;
+import kr.ac.kopo.lyh.personalcolor.exception.ImageTooLargeException;
+import kr.ac.kopo.lyh.personalcolor.exception.UnauthorizedAccessException;
+import kr.ac.kopo.lyh.personalcolor.repository.UserRepository;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.AdaptiveConcurrencyLimiter;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.CpuBoundExecutor;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.SingleFlight;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * DB 대기열 기반 분석 작업의 선점, 임대 연장과 회수, 백오프 재시도, 완료 알림 상태, 소유자 확인 확인
+ * 임베디드 H2(MySQL 호환 모드)에서 실행한다.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:analysis-jobs;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AnalysisJobQueue.class, AnalysisJobService.class, AnalysisRequestCoalescer.class,
+        AnalysisJobServiceTests.TestConfig.class})
+class AnalysisJobServiceTests {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final StoredFile storedFile = new StoredFile("a.jpg", "a", 10, new ImageHeader(ImageFormat.JPEG, 10, 10), false);
+
+    @Autowired
+    private AnalysisJobService service;
+
+    @Autowired
+    private AnalysisJobQueue queue;
+
+    @Autowired
+    private StubColorAnalysisService colorAnalysisService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void completesSubmittedJobWithAnalysisResult() {
+        User owner = saveUser("owner@example.com");
+        colorAnalysisService.willReturn(() -> ColorAnalysis.builder()
+                .id(7L)
+                .colorType(ColorAnalysis.ColorType.SPRING_WARM)
+                .confidence(new BigDecimal("0.91"))
+                .description("밝고 따뜻한 톤")
+                .recommendedColors("{}")
+                .build());
+
+        String jobId = service.submit(owner, "face.jpg", storedFile, null).jobId();
+        AnalysisJobService.JobStatus status = service.getStatus(jobId, owner);
+
+        assertThat(status.state()).isEqualTo(AnalysisJob.Status.COMPLETED);
+        assertThat(status.result().analysisId()).isEqualTo(7L);
+        assertThat(status.result().confidence()).isEqualTo(91);
+        assertThat(status.finishedAt()).isNotNull();
+        assertThat(service.getActiveCount()).isZero();
+    }
+
+    @Test
+    void claimsEachJobOnceAndReclaimsExpiredLeases() {
+        User owner = User.builder().id(1L).email("owner@example.com").build();
+        for (int i = 0; i < 3; i++) {
+            queue.enqueue(owner, "face" + i + ".jpg", storedFile, null, T0);
+        }
+
+        List<AnalysisJob> first = queue.claim("node-a", 2, T0);
+        assertThat(first).hasSize(2).allSatisfy(job -> {
+            assertThat(job.getStatus()).isEqualTo(AnalysisJob.Status.RUNNING);
+            assertThat(job.getLeaseOwner()).isEqualTo("node-a");
+            assertThat(job.getLeaseExpiresAt()).isEqualTo(T0.plusSeconds(30));
+        });
+        assertThat(queue.claim("node-b", 10, T0)).hasSize(1);
+        assertThat(queue.claim("node-b", 10, T0.plusSeconds(10))).isEmpty();
+
+        // 하트비트로 연장한 임대는 원래 만료 시각이 지나도 회수되지 않음 (연장하지 않은 node-b 작업만 회수)
+        List<String> ids = first.stream().map(AnalysisJob::getId).toList();
+        assertThat(queue.renewLeases("node-a", ids, T0.plusSeconds(20))).isEqualTo(2);
+        assertThat(queue.claim("node-b", 10, T0.plusSeconds(40)))
+                .singleElement()
+                .satisfies(job -> assertThat(ids).doesNotContain(job.getId()));
+
+        // 하트비트가 끊기면 다른 노드가 회수하고, 임대를 잃은 노드의 완료 기록은 무시됨
+        List<AnalysisJob> reclaimed = queue.claim("node-b", 10, T0.plusSeconds(60));
+        assertThat(reclaimed).hasSize(2).allSatisfy(job -> {
+            assertThat(ids).contains(job.getId());
+            assertThat(job.getAttempts()).isEqualTo(2);
+        });
+        assertThat(queue.complete(ids.get(0), "node-a", 7L, T0.plusSeconds(61))).isEmpty();
+        assertThat(queue.complete(ids.get(0), "node-b", 7L, T0.plusSeconds(61)))
+                .hasValueSatisfying(job -> assertThat(job.getStatus()).isEqualTo(AnalysisJob.Status.COMPLETED));
+    }
+
+    @Test
+    void retriesWithBackoffUntilMaxAttempts() {
+        User owner = User.builder().id(1L).email("owner@example.com").build();
+        String jobId = queue.enqueue(owner, "face.jpg", storedFile, null, T0).getId();
+
+        queue.claim("node-a", 1, T0);
+        AnalysisJob retried = queue.fail(jobId, "node-a", "busy", Duration.ZERO, T0).orElseThrow();
+        assertThat(retried.getStatus()).isEqualTo(AnalysisJob.Status.PENDING);
+        assertThat(retried.getAvailableAt()).isEqualTo(T0.plusSeconds(5));
+        assertThat(queue.claim("node-a", 1, T0.plusSeconds(1))).isEmpty();
+
+        assertThat(queue.claim("node-a", 1, T0.plusSeconds(5))).hasSize(1);
+        AnalysisJob failed = queue.fail(jobId, "node-a", "busy", Duration.ZERO, T0.plusSeconds(6)).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(AnalysisJob.Status.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(failed.getError()).isEqualTo("busy");
+    }
+
+    @Test
+    void rejectsWhenPendingJobsReachQueueCapacity() {
+        User owner = saveUser("owner@example.com");
+        for (int i = 0; i < 3; i++) {
+            queue.enqueue(owner, "face" + i + ".jpg", storedFile, null, LocalDateTime.now().plusHours(1));
+        }
+
+        assertThatThrownBy(() -> service.submit(owner, "face.jpg", storedFile, null))
+                .isInstanceOfSatisfying(AnalysisOverloadedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+    }
+
+    @Test
+    void hidesJobsFromOtherUsersAndEvictsFinishedJobs() throws InterruptedException {
+        User owner = saveUser("owner@example.com");
+        colorAnalysisService.willReturn(() -> {
+            throw new ImageTooLargeException("이미지 해상도가 너무 큽니다.");
+        });
+        String jobId = service.submit(owner, "face.jpg", storedFile, null).jobId();
+        User other = User.builder().id(owner.getId() + 1).email("other@example.com").build();
+
+        assertThatThrownBy(() -> service.getStatus(jobId, other)).isInstanceOf(UnauthorizedAccessException.class);
+        AnalysisJobService.JobStatus status = service.getStatus(jobId, owner);
+        assertThat(status.state()).isEqualTo(AnalysisJob.Status.FAILED);
+        assertThat(status.error()).isEqualTo("이미지 해상도가 너무 큽니다.");
+
+        Thread.sleep(10);
+        assertThat(service.evictFinished()).isEqualTo(1);
+    }
+
+    private User saveUser(String email) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .password("password1234")
+                .name("테스트")
+                .build());
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @Bean
+        AnalysisConfig.AnalysisProperties analysisProperties() {
+            return new AnalysisConfig.AnalysisProperties(null, 0, false, null, null, null, null,
+                    new AnalysisConfig.AnalysisProperties.Jobs(2, 3, Duration.ZERO, null,
+                            10, Duration.ofSeconds(30), 2, Duration.ofSeconds(5)), null, null);
+        }
+
+        @Bean
+        AdaptiveConcurrencyLimiter analysisConcurrencyLimiter() {
+            return AdaptiveConcurrencyLimiter.UNLIMITED;
+        }
+
+        @Bean
+        SingleFlight<String, AnalysisRequestCoalescer.Flight> analysisSingleFlight() {
+            return new SingleFlight<>(4);
+        }
+
+        @Bean(name = "analysisJobExecutor")
+        TaskExecutor analysisJobExecutor() {
+            return new SyncTaskExecutor();
+        }
+
+        @Bean
+        StubColorAnalysisService colorAnalysisService() {
+            return new StubColorAnalysisService();
+        }
+    }
+
+    static class StubColorAnalysisService extends ColorAnalysisService {
+
+        private Supplier<ColorAnalysis> analysis = () -> null;
+        private ColorAnalysis last;
+
+        StubColorAnalysisService() {
+            super(null, null, null, null, null, null, AdaptiveConcurrencyLimiter.UNLIMITED, CpuBoundExecutor.CALLER_RUNS);
+        }
+
+        // 트랜잭션 프록시를 거쳐 대상 객체에 설정되도록 메서드로 변경
+        public void willReturn(Supplier<ColorAnalysis> analysis) {
+            this.analysis = analysis;
+        }
+
+        @Override
+        public ColorAnalysis analyzeImage(User user, String originalFileName, StoredFile storedFile) {
+            last = analysis.get();
+            return last;
+        }
+
+        @Override
+        public ColorAnalysis getAnalysisById(Long analysisId) {
+            return last;
+        }
+    }
+}
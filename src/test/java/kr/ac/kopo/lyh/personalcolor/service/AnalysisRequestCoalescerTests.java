@@ -0,0 +1,126 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.IdempotencyKeyMismatchException;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.AdaptiveConcurrencyLimiter;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.CpuBoundExecutor;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 같은 키의 동시 분석 요청 병합과 Idempotency-Key 재사용(내용 다름) 거절 확인
+ */
+class AnalysisRequestCoalescerTests {
+
+    private final User user = User.builder().id(1L).email("owner@example.com").build();
+    private final BlockingColorAnalysisService colorAnalysisService = new BlockingColorAnalysisService();
+    private final SingleFlight<String, AnalysisRequestCoalescer.Flight> singleFlight = new SingleFlight<>(4);
+    private final AnalysisRequestCoalescer coalescer = new AnalysisRequestCoalescer(colorAnalysisService, singleFlight);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        colorAnalysisService.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void sameKeyAndContentShareLeaderResult() throws Exception {
+        Future<ColorAnalysis> leader = executor.submit(() ->
+                coalescer.analyzeImage(user, "a.jpg", stored("a.jpg", "hash-a"), "retry-1"));
+        assertThat(colorAnalysisService.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<ColorAnalysis> follower = executor.submit(() ->
+                coalescer.analyzeImage(user, "a.jpg", stored("a-copy.jpg", "hash-a"), "retry-1"));
+        waitUntilShared();
+        colorAnalysisService.release.countDown();
+
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(leader.get(5, TimeUnit.SECONDS));
+        assertThat(colorAnalysisService.executions).hasValue(1);
+        assertThat(colorAnalysisService.discarded).containsExactly("a-copy.jpg");
+    }
+
+    @Test
+    void rejectsReusedKeyWithDifferentImage() throws Exception {
+        Future<ColorAnalysis> leader = executor.submit(() ->
+                coalescer.analyzeImage(user, "a.jpg", stored("a.jpg", "hash-a"), "retry-1"));
+        assertThat(colorAnalysisService.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<ColorAnalysis> other = executor.submit(() ->
+                coalescer.analyzeImage(user, "b.jpg", stored("b.jpg", "hash-b"), "retry-1"));
+        waitUntilShared();
+        colorAnalysisService.release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS).getStoredFileName()).isEqualTo("a.jpg");
+        assertThatThrownBy(() -> other.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(colorAnalysisService.executions).hasValue(1);
+        // 다른 사진의 결과를 받지 않았으므로 참조 여부만 보고 정리 (리더 파일 기준으로 지우지 않음)
+        assertThat(colorAnalysisService.discarded).containsExactly("b.jpg");
+        assertThat(colorAnalysisService.reusedFileNames).containsExactly((String) null);
+    }
+
+    private void waitUntilShared() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getShared() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(singleFlight.getShared()).isEqualTo(1);
+    }
+
+    private static StoredFile stored(String name, String hash) {
+        return new StoredFile(name, hash, 10, null, false);
+    }
+
+    /**
+     * 리더 분석을 release까지 붙잡아 두는 분석 서비스
+     */
+    static class BlockingColorAnalysisService extends ColorAnalysisService {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger executions = new AtomicInteger();
+        final List<String> discarded = new CopyOnWriteArrayList<>();
+        final List<String> reusedFileNames = new CopyOnWriteArrayList<>();
+
+        BlockingColorAnalysisService() {
+            super(null, null, null, null, null, null, AdaptiveConcurrencyLimiter.UNLIMITED, CpuBoundExecutor.CALLER_RUNS);
+        }
+
+        @Override
+        public ColorAnalysis analyzeImage(User user, String originalFileName, StoredFile storedFile) {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ColorAnalysis.builder()
+                    .id(7L)
+                    .storedFileName(storedFile.storedFileName())
+                    .contentHash(storedFile.contentHash())
+                    .build();
+        }
+
+        @Override
+        public void discardUnreferenced(StoredFile storedFile, String reusedFileName) {
+            discarded.add(storedFile.storedFileName());
+            reusedFileNames.add(reusedFileName);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.config.AnalysisConfig;
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisOverloadedException;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import kr.ac.kopo.lyh.personalcolor.exception.ImageTooLargeException;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import kr.ac.kopo.lyh.personalcolor.repository.UserRepository;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.AdaptiveConcurrencyLimiter;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.AnalysisMetrics;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.ColorLookupTables;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.CpuBoundExecutor;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeBudget;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.LocalColorAnalysisEngine;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.PixelColorAnalyzer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 실제 로컬 엔진으로 분석할 때 크기 초과와 파일 없음 예외가 감싸지지 않고 그대로 전달되는지 확인
+ * (작업 처리기가 이 예외들을 재시도 없이 실패 처리하려면 원래 타입이 보여야 한다),
+ * 분석 전용 스레드 풀이 가득 찼을 때 재시도 대기 시간이 있는 과부하 예외로 바뀌는지 확인
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:color-analysis;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ColorAnalysisServiceTests {
+
+    /** 이보다 픽셀 수가 많은 이미지는 디코딩 전에 거절 */
+    private static final long MAX_PIXELS = 10_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private ColorAnalysisRepository colorAnalysisRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private FileStorageService fileStorageService;
+    private AnalysisConfig.AnalysisProperties analysisProperties;
+    private LocalColorAnalysisEngine engine;
+    private ColorAnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationConfig.FileStorageProperties storageProperties = new ApplicationConfig.FileStorageProperties(
+                tempDir.resolve("uploads").toString(), 0, null, null, null, null, null, null);
+        fileStorageService = new FileStorageService(storageProperties, new MultipartProperties(),
+                new HotFileCache(storageProperties, new SimpleMeterRegistry()), DecodeBudget.UNLIMITED);
+        fileStorageService.init();
+
+        analysisProperties = new AnalysisConfig.AnalysisProperties(
+                null, 0, false, null, null, null, null, null, null, null);
+        PixelColorAnalyzer analyzer = new PixelColorAnalyzer(analysisProperties,
+                new AnalysisMetrics(new SimpleMeterRegistry()), ForkJoinPool.commonPool(),
+                ColorLookupTables.build(), new DecodeBudget(MAX_PIXELS, 0, Duration.ZERO));
+
+        engine = new LocalColorAnalysisEngine(analyzer);
+        service = createService(CpuBoundExecutor.CALLER_RUNS);
+    }
+
+    @Test
+    void rethrowsImageTooLargeUnwrapped() throws IOException {
+        User user = saveUser("large@example.com");
+        StoredFile storedFile = store("large.png", 200, 200);
+
+        assertThatThrownBy(() -> service.analyzeImage(user, "large.png", storedFile))
+                .isInstanceOf(ImageTooLargeException.class);
+        assertThat(colorAnalysisRepository.count()).isZero();
+    }
+
+    @Test
+    void rethrowsMissingFileUnwrapped() {
+        User user = saveUser("missing@example.com");
+        StoredFile storedFile = new StoredFile("missing.png", "missing", 10,
+                new ImageHeader(ImageFormat.PNG, 10, 10), false);
+
+        assertThatThrownBy(() -> service.analyzeImage(user, "missing.png", storedFile))
+                .isExactlyInstanceOf(FileStorageException.class);
+        assertThat(colorAnalysisRepository.count()).isZero();
+    }
+
+    @Test
+    void translatesFullAnalysisPoolToOverloaded() throws IOException {
+        User user = saveUser("busy@example.com");
+        StoredFile storedFile = store("busy.png", 50, 50);
+        ThreadPoolExecutor saturated = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>());
+        saturated.shutdown();
+
+        assertThatThrownBy(() -> createService(new CpuBoundExecutor(saturated)).analyzeImage(user, "busy.png", storedFile))
+                .isInstanceOf(AnalysisOverloadedException.class)
+                .satisfies(e -> assertThat(((AnalysisOverloadedException) e).getRetryAfterSeconds()).isPositive());
+    }
+
+    private ColorAnalysisService createService(CpuBoundExecutor cpuExecutor) {
+        return new ColorAnalysisService(colorAnalysisRepository, fileStorageService, engine, new ObjectMapper(),
+                new NearDuplicateIndex(colorAnalysisRepository, analysisProperties), null,
+                AdaptiveConcurrencyLimiter.UNLIMITED, cpuExecutor);
+    }
+
+    private StoredFile store(String fileName, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, 0xE0B090);
+            }
+        }
+        Path path = fileStorageService.getFilePath(fileName);
+        Files.createDirectories(path.getParent());
+        ImageIO.write(image, "png", path.toFile());
+        return new StoredFile(fileName, fileName, Files.size(path),
+                new ImageHeader(ImageFormat.PNG, width, height), false);
+    }
+
+    private User saveUser(String email) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .password("password1234")
+                .name("테스트")
+                .build());
+    }
+}
@@ -0,0 +1,111 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 파일 메모리 캐시의 적중, 용량/TTL 제거, 메트릭, 구간 읽기 확인
+ */
+class HotFileCacheTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void servesCachedContentUntilInvalidated() throws IOException {
+        HotFileCache cache = cache(1024, 1024, Duration.ofMinutes(1));
+        Path file = write("a.jpg", 100);
+
+        assertThat(cache.get("a.jpg")).isNull();
+        cache.put("a.jpg", file);
+        HotFileCache.CachedFile cached = cache.get("a.jpg");
+
+        assertThat(cached).isNotNull();
+        assertThat(cached.toResource("a.jpg").getContentAsByteArray()).isEqualTo(Files.readAllBytes(file));
+        assertThat(counter("requests", "result", "hit")).isEqualTo(1);
+        assertThat(counter("requests", "result", "miss")).isEqualTo(1);
+
+        cache.invalidate("a.jpg");
+        assertThat(cache.get("a.jpg")).isNull();
+        assertThat(cache.getTotalBytes()).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverByteBudget() throws IOException {
+        HotFileCache cache = cache(250, 1024, Duration.ofMinutes(1));
+        cache.put("a.jpg", write("a.jpg", 100));
+        cache.put("b.jpg", write("b.jpg", 100));
+        cache.get("a.jpg");
+        cache.put("c.jpg", write("c.jpg", 100));
+
+        assertThat(cache.get("a.jpg")).isNotNull();
+        assertThat(cache.get("b.jpg")).isNull();
+        assertThat(cache.get("c.jpg")).isNotNull();
+        assertThat(cache.getTotalBytes()).isEqualTo(200);
+        assertThat(counter("evictions", "cause", "size")).isEqualTo(1);
+    }
+
+    @Test
+    void skipsFilesLargerThanEntryLimit() throws IOException {
+        HotFileCache cache = cache(1024, 64, Duration.ofMinutes(1));
+
+        assertThat(cache.put("a.jpg", write("a.jpg", 100))).isNull();
+        assertThat(cache.getTotalBytes()).isZero();
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() throws Exception {
+        HotFileCache cache = cache(1024, 1024, Duration.ofMillis(20));
+        cache.put("a.jpg", write("a.jpg", 100));
+
+        Thread.sleep(50);
+
+        assertThat(cache.get("a.jpg")).isNull();
+        assertThat(counter("evictions", "cause", "expired")).isEqualTo(1);
+    }
+
+    @Test
+    void resourceStreamsSkipWithoutReading() throws IOException {
+        HotFileCache cache = cache(1024, 1024, Duration.ofMinutes(1));
+        HotFileCache.CachedFile cached = cache.put("a.jpg", write("a.jpg", 100));
+        ByteBufferResource resource = cached.toResource("a.jpg");
+
+        try (InputStream first = resource.getInputStream(); InputStream second = resource.getInputStream()) {
+            assertThat(first.skip(90)).isEqualTo(90);
+            assertThat(first.readAllBytes()).containsExactly(90, 91, 92, 93, 94, 95, 96, 97, 98, 99);
+            assertThat(second.read()).isZero();
+        }
+        assertThat(resource.contentLength()).isEqualTo(100);
+    }
+
+    private HotFileCache cache(long maxBytes, long maxEntryBytes, Duration ttl) {
+        ApplicationConfig.FileStorageProperties properties = new ApplicationConfig.FileStorageProperties(
+                tempDir.toString(), 0, null, null, null, null,
+                new ApplicationConfig.FileStorageProperties.HotCache(true, maxBytes, maxEntryBytes, ttl), null);
+        return new HotFileCache(properties, registry);
+    }
+
+    private Path write(String name, int size) throws IOException {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        return Files.write(tempDir.resolve(name), content);
+    }
+
+    private double counter(String name, String tag, String value) {
+        return registry.get("personalcolor.files.hot-cache." + name).tag(tag, value).counter().count();
+    }
+}
@@ -0,0 +1,76 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 포맷별 헤더 판독 결과가 실제 디코딩 크기와 일치하는지 확인
+ */
+class ImageHeaderReaderTests {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(ImageFormat.class)
+    void readsDimensionsWithoutDecoding(ImageFormat format) throws IOException {
+        Path file = write(new BufferedImage(333, 217, BufferedImage.TYPE_INT_RGB), format);
+
+        ImageHeader header = ImageHeaderReader.read(file);
+
+        assertThat(header.format()).isEqualTo(format);
+        assertThat(header.width()).isEqualTo(333);
+        assertThat(header.height()).isEqualTo(217);
+    }
+
+    @Test
+    void skipsLargeSegmentsBeforeJpegFrameHeader() throws IOException {
+        byte[] jpeg = Files.readAllBytes(write(new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB), ImageFormat.JPEG));
+
+        // SOI 바로 뒤에 60KB 크기의 APP1 세그먼트 삽입 (EXIF 썸네일이 큰 사진과 같은 구조)
+        int payload = 60_000;
+        byte[] app1 = new byte[4 + payload];
+        app1[0] = (byte) 0xFF;
+        app1[1] = (byte) 0xE1;
+        app1[2] = (byte) ((payload + 2) >>> 8);
+        app1[3] = (byte) (payload + 2);
+
+        byte[] withExif = new byte[jpeg.length + app1.length];
+        System.arraycopy(jpeg, 0, withExif, 0, 2);
+        System.arraycopy(app1, 0, withExif, 2, app1.length);
+        System.arraycopy(jpeg, 2, withExif, 2 + app1.length, jpeg.length - 2);
+        Path file = Files.write(tempDir.resolve("exif.jpg"), withExif);
+
+        ImageHeader header = ImageHeaderReader.read(file);
+
+        assertThat(header.width()).isEqualTo(64);
+        assertThat(header.height()).isEqualTo(48);
+    }
+
+    @Test
+    void rejectsTruncatedHeader() throws IOException {
+        byte[] png = Files.readAllBytes(write(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), ImageFormat.PNG));
+        Path truncated = Files.write(tempDir.resolve("truncated.png"), Arrays.copyOf(png, 12));
+
+        assertThatThrownBy(() -> ImageHeaderReader.read(truncated)).isInstanceOf(IOException.class);
+    }
+
+    private Path write(BufferedImage image, ImageFormat format) throws IOException {
+        Path file = tempDir.resolve("image" + format.getExtension());
+        String formatName = format == ImageFormat.JPEG ? "jpeg" : format.name().toLowerCase();
+        assertThat(ImageIO.write(image, formatName, file.toFile())).isTrue();
+        return file;
+    }
+}
@@ -0,0 +1,118 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.config.AnalysisConfig;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 유사 이미지 인덱스의 커밋 후 등록, 롤백 시 미등록, 빈 사용자 제거, 재구성 중 추가 보존 확인
+ */
+class NearDuplicateIndexTests {
+
+    private static final long USER_ID = 1L;
+    private static final long HASH = 0x0F0F_0F0F_0F0F_0F0FL;
+
+    private static final AnalysisConfig.AnalysisProperties PROPERTIES = new AnalysisConfig.AnalysisProperties(
+            null, 0, false, null, null,
+            new AnalysisConfig.AnalysisProperties.NearDuplicate(true, 6, Duration.ofDays(30)),
+            null, null, null, null);
+
+    private final NearDuplicateIndex index = new NearDuplicateIndex(null, PROPERTIES);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void addsImmediatelyOutsideTransaction() {
+        index.add(USER_ID, 10L, HASH);
+
+        assertThat(index.findNearest(USER_ID, HASH ^ 0b11)).isEqualTo(10L);
+    }
+
+    @Test
+    void addsOnlyAfterCommit() {
+        beginTransaction();
+
+        index.add(USER_ID, 10L, HASH);
+        assertThat(index.findNearest(USER_ID, HASH)).isNull();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(index.findNearest(USER_ID, HASH)).isEqualTo(10L);
+    }
+
+    @Test
+    void skipsRolledBackAnalysis() {
+        beginTransaction();
+
+        index.add(USER_ID, 10L, HASH);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(index.findNearest(USER_ID, HASH)).isNull();
+        assertThat(index.getUserCount()).isZero();
+    }
+
+    @Test
+    void dropsUserWhenLastEntryIsRemoved() {
+        index.add(USER_ID, 10L, HASH);
+        index.add(USER_ID, 11L, ~HASH);
+        assertThat(index.getUserCount()).isEqualTo(1);
+
+        index.remove(USER_ID, 10L);
+        assertThat(index.getUserCount()).isEqualTo(1);
+        index.remove(USER_ID, 11L);
+
+        assertThat(index.getUserCount()).isZero();
+        assertThat(index.findNearest(USER_ID, HASH)).isNull();
+    }
+
+    @Test
+    void keepsAddsCommittedWhileRebuilding() {
+        AtomicReference<NearDuplicateIndex> holder = new AtomicReference<>();
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{10L, USER_ID, HASH, LocalDateTime.now()});
+        // 재구성 조회가 끝난 직후 다른 요청의 분석이 커밋된 상황
+        ColorAnalysisRepository repository = (ColorAnalysisRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{ColorAnalysisRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findPerceptualHashesSince")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    holder.get().add(USER_ID, 11L, ~HASH);
+                    holder.get().add(USER_ID, 10L, HASH);
+                    return rows;
+                });
+        NearDuplicateIndex rebuilding = new NearDuplicateIndex(repository, PROPERTIES);
+        holder.set(rebuilding);
+
+        rebuilding.rebuild();
+
+        assertThat(rebuilding.findNearest(USER_ID, HASH)).isEqualTo(10L);
+        assertThat(rebuilding.findNearest(USER_ID, ~HASH)).isEqualTo(11L);
+        // 조회 결과와 겹치는 항목은 한 번만 보관
+        rebuilding.remove(USER_ID, 10L);
+        assertThat(rebuilding.findNearest(USER_ID, HASH)).isNull();
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+}
@@ -0,0 +1,112 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeBudget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * DataBuffer 스트림의 임시 파일 기록, 증분 해시, 크기 제한, 저장소 이동 확인
+ */
+class ReactiveUploadServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void streamsBuffersToStagingFileAndStoresByContentHash() throws Exception {
+        ReactiveUploadService service = service(10L * 1024 * 1024);
+        byte[] content = png(300, 200);
+
+        ReactiveUploadService.StagedUpload staged = service.stage("face.png", chunks(content, 4096)).block();
+
+        String expectedHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertThat(staged.contentHash()).isEqualTo(expectedHash);
+        assertThat(staged.size()).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(staged.file())).isEqualTo(content);
+
+        StoredFile stored = service.store(staged);
+        assertThat(stored.storedFileName()).isEqualTo(expectedHash + ".png");
+        assertThat(Files.readAllBytes(tempDir.resolve("uploads").resolve(stored.storedFileName()))).isEqualTo(content);
+        assertThat(stagedFiles()).isEmpty();
+    }
+
+    @Test
+    void abortsAndDeletesStagingFileOverMaxFileSize() throws Exception {
+        ReactiveUploadService service = service(1000);
+
+        assertThatThrownBy(() -> service.stage("big.png", chunks(new byte[5000], 512)).block())
+                .isInstanceOf(DataBufferLimitException.class);
+        assertThat(stagedFiles()).isEmpty();
+    }
+
+    @Test
+    void deletesStagingFileWhenContentIsNotAnImage() throws Exception {
+        ReactiveUploadService service = service(10L * 1024 * 1024);
+        ReactiveUploadService.StagedUpload staged = service.stage("note.png", chunks(new byte[100], 64)).block();
+
+        assertThatThrownBy(() -> service.store(staged)).isInstanceOf(FileStorageException.class);
+        assertThat(stagedFiles()).isEmpty();
+    }
+
+    private ReactiveUploadService service(long maxFileSize) {
+        ApplicationConfig.FileStorageProperties properties = new ApplicationConfig.FileStorageProperties(
+                tempDir.resolve("uploads").toString(), maxFileSize, null, null, null, null, null,
+                new ApplicationConfig.FileStorageProperties.Resumable(tempDir.resolve("staging").toString(), null));
+        FileStorageService fileStorageService = new FileStorageService(properties, new MultipartProperties(),
+                new HotFileCache(properties, new SimpleMeterRegistry()), DecodeBudget.UNLIMITED);
+        fileStorageService.init();
+        return new ReactiveUploadService(fileStorageService, null, properties, Schedulers.immediate());
+    }
+
+    private Flux<DataBuffer> chunks(byte[] content, int chunkSize) {
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < content.length; offset += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(content, offset, Math.min(content.length, offset + chunkSize));
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    private byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, x * 0x010203 ^ y * 0x030201);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private List<Path> stagedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir.resolve("staging"))) {
+            return files.toList();
+        }
+    }
+}
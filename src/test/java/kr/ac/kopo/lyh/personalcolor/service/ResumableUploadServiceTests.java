@@ -0,0 +1,184 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import kr.ac.kopo.lyh.personalcolor.exception.UnauthorizedAccessException;
+import kr.ac.kopo.lyh.personalcolor.exception.UploadSessionException;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeBudget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 이어 올리기 세션의 오프셋 검증, 끊긴 뒤 재개, 임시 파일 기록 실패 전달, 완료 시 저장 연계, 만료 정리 확인
+ */
+class ResumableUploadServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final User owner = User.builder().id(1L).email("owner@example.com").build();
+
+    @Test
+    void resumesAfterDroppedChunkAndStoresContentAddressedFile() throws Exception {
+        ResumableUploadService service = service(Duration.ofHours(1));
+        byte[] content = png(300, 200);
+        int half = content.length / 2;
+        String id = service.create(owner, "face.png", content.length);
+
+        assertThat(service.append(id, owner, 0, new ByteArrayInputStream(content, 0, half))).isEqualTo(half);
+
+        // 같은 조각을 다시 보내면 서버 오프셋을 알려주며 거절
+        assertThatThrownBy(() -> service.append(id, owner, 0, new ByteArrayInputStream(content)))
+                .isInstanceOfSatisfying(UploadSessionException.class, e -> {
+                    assertThat(e.getReason()).isEqualTo(UploadSessionException.Reason.OFFSET_MISMATCH);
+                    assertThat(e.getOffset()).isEqualTo(half);
+                });
+
+        // 10바이트 보낸 뒤 연결이 끊김
+        long dropped = service.append(id, owner, half, droppingStream(content, half, 10));
+        assertThat(dropped).isEqualTo(half + 10);
+        assertThat(service.getStatus(id, owner).offset()).isEqualTo(half + 10);
+
+        service.append(id, owner, dropped,
+                new ByteArrayInputStream(content, (int) dropped, content.length - (int) dropped));
+        StoredFile stored = service.complete(id, owner).storedFile();
+
+        String expectedHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertThat(stored.contentHash()).isEqualTo(expectedHash);
+        assertThat(stored.storedFileName()).isEqualTo(expectedHash + ".png");
+        assertThat(stored.header().width()).isEqualTo(300);
+        assertThat(Files.readAllBytes(tempDir.resolve("uploads").resolve(stored.storedFileName()))).isEqualTo(content);
+        assertThat(service.getActiveCount()).isZero();
+        assertThat(stagedFiles()).isEmpty();
+    }
+
+    @Test
+    void rejectsIncompleteCompletionAndDataBeyondDeclaredLength() throws IOException {
+        ResumableUploadService service = service(Duration.ofHours(1));
+        byte[] content = png(40, 30);
+        String id = service.create(owner, "face.png", content.length - 1);
+
+        assertThatThrownBy(() -> service.complete(id, owner))
+                .isInstanceOfSatisfying(UploadSessionException.class, e ->
+                        assertThat(e.getReason()).isEqualTo(UploadSessionException.Reason.INCOMPLETE));
+        assertThatThrownBy(() -> service.append(id, owner, 0, new ByteArrayInputStream(content)))
+                .isInstanceOfSatisfying(UploadSessionException.class, e ->
+                        assertThat(e.getReason()).isEqualTo(UploadSessionException.Reason.TOO_LARGE));
+        assertThatThrownBy(() -> service.create(owner, "huge.png", 11L * 1024 * 1024))
+                .isInstanceOfSatisfying(UploadSessionException.class, e ->
+                        assertThat(e.getReason()).isEqualTo(UploadSessionException.Reason.TOO_LARGE));
+    }
+
+    @Test
+    void reportsStagingWriteFailureInsteadOfInterruption() throws IOException {
+        ResumableUploadService service = service(Duration.ofHours(1));
+        String id = service.create(owner, "face.png", 100);
+        service.append(id, owner, 0, new ByteArrayInputStream(new byte[10]));
+        try (Stream<Path> parts = Files.list(tempDir.resolve("staging"))) {
+            for (Path part : parts.toList()) {
+                Files.delete(part);
+            }
+        }
+
+        // 임시 파일을 열 수 없는 것은 서버 문제이므로 중단으로 삼키지 않음
+        assertThatThrownBy(() -> service.append(id, owner, 10, new ByteArrayInputStream(new byte[10])))
+                .isInstanceOf(FileStorageException.class)
+                .hasCauseInstanceOf(IOException.class);
+        assertThat(service.getStatus(id, owner).offset()).isEqualTo(10);
+    }
+
+    @Test
+    void rejectsOtherUsersSession() throws IOException {
+        ResumableUploadService service = service(Duration.ofHours(1));
+        String id = service.create(owner, "face.png", 100);
+        User other = User.builder().id(2L).email("other@example.com").build();
+
+        assertThatThrownBy(() -> service.getStatus(id, other)).isInstanceOf(UnauthorizedAccessException.class);
+        assertThatThrownBy(() -> service.getStatus("missing", owner))
+                .isInstanceOfSatisfying(UploadSessionException.class, e ->
+                        assertThat(e.getReason()).isEqualTo(UploadSessionException.Reason.NOT_FOUND));
+    }
+
+    @Test
+    void sweepsExpiredSessionsAndOrphanedParts() throws Exception {
+        ResumableUploadService service = service(Duration.ofMillis(20));
+        String id = service.create(owner, "face.png", 100);
+        service.append(id, owner, 0, new ByteArrayInputStream(new byte[10]));
+        Files.createFile(tempDir.resolve("staging").resolve("orphan.part"));
+
+        Thread.sleep(50);
+
+        assertThat(service.sweepExpired()).isEqualTo(2);
+        assertThat(service.getActiveCount()).isZero();
+        assertThat(stagedFiles()).isEmpty();
+    }
+
+    private ResumableUploadService service(Duration expiry) {
+        ApplicationConfig.FileStorageProperties properties = new ApplicationConfig.FileStorageProperties(
+                tempDir.resolve("uploads").toString(), 0, null, null, null, null, null,
+                new ApplicationConfig.FileStorageProperties.Resumable(tempDir.resolve("staging").toString(), expiry));
+        FileStorageService fileStorageService = new FileStorageService(properties, new MultipartProperties(),
+                new HotFileCache(properties, new SimpleMeterRegistry()), DecodeBudget.UNLIMITED);
+        fileStorageService.init();
+        ResumableUploadService service = new ResumableUploadService(fileStorageService, properties);
+        service.init();
+        return service;
+    }
+
+    private byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, x * 0x010203 ^ y * 0x030201);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * length 바이트를 돌려준 뒤 연결이 끊긴 것처럼 IOException을 던지는 스트림
+     */
+    private InputStream droppingStream(byte[] content, int offset, int length) {
+        byte[] sent = Arrays.copyOfRange(content, offset, offset + length);
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                if (position < sent.length) {
+                    return sent[position++] & 0xff;
+                }
+                throw new IOException("Connection reset");
+            }
+        };
+    }
+
+    private List<Path> stagedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir.resolve("staging"))) {
+            return files.toList();
+        }
+    }
+}
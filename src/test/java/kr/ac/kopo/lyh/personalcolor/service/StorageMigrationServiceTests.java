@@ -0,0 +1,150 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import kr.ac.kopo.lyh.personalcolor.repository.UserRepository;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 평면 배치 파일의 샤드 디렉토리 이동, 이전 형식 파일명의 내용 해시 전환과 분석 결과 파일명 갱신,
+ * 이미지가 아닌 파일 건너뛰기 확인
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:storage-migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class StorageMigrationServiceTests {
+
+    private static final String LEGACY_NAME = "20240101_120000_0f8e2c4a.png";
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private ColorAnalysisRepository colorAnalysisRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Path uploadDir;
+    private FileStorageService fileStorageService;
+    private StorageMigrationService migrationService;
+
+    @BeforeEach
+    void setUp() {
+        uploadDir = tempDir.resolve("uploads");
+        ApplicationConfig.FileStorageProperties properties = new ApplicationConfig.FileStorageProperties(
+                uploadDir.toString(), 0, null, ApplicationConfig.FileStorageProperties.Layout.SHARDED,
+                new ApplicationConfig.FileStorageProperties.Migration(1, Duration.ZERO), null, null, null);
+        fileStorageService = new FileStorageService(properties, new MultipartProperties(),
+                new HotFileCache(properties, new SimpleMeterRegistry()), DecodeBudget.UNLIMITED);
+        fileStorageService.init();
+        // 호출 스레드에서 바로 실행하여 테스트 트랜잭션 안에서 전환이 끝나도록 함
+        migrationService = new StorageMigrationService(fileStorageService, colorAnalysisRepository, properties,
+                Runnable::run);
+    }
+
+    @Test
+    void migratesFlatFilesIntoShardsAndRenamesLegacyFiles() throws Exception {
+        byte[] legacy = png(0xE0B090);
+        byte[] addressed = png(0xD7A0A0);
+        String legacyHash = sha256(legacy);
+        String addressedName = sha256(addressed) + ".png";
+
+        Files.write(uploadDir.resolve(LEGACY_NAME), legacy);
+        Files.write(uploadDir.resolve(addressedName), addressed);
+        Files.writeString(uploadDir.resolve("notes.txt"), "not an image", StandardCharsets.UTF_8);
+        ColorAnalysis analysis = colorAnalysisRepository.save(ColorAnalysis.builder()
+                .user(saveUser())
+                .originalFileName("face.png")
+                .storedFileName(LEGACY_NAME)
+                .colorType(ColorAnalysis.ColorType.SPRING_WARM)
+                .confidence(new BigDecimal("0.80"))
+                .build());
+
+        migrationService.start();
+
+        StorageMigrationService.MigrationStatus status = migrationService.getStatus();
+        assertThat(status.running()).isFalse();
+        assertThat(status.scanned()).isEqualTo(3);
+        assertThat(status.moved()).isEqualTo(1);
+        assertThat(status.renamed()).isEqualTo(1);
+        assertThat(status.skipped()).isEqualTo(1);
+        assertThat(status.failed()).isZero();
+
+        // 내용 해시 파일은 이름 그대로 ab/cd/ 아래로 이동
+        Path addressedShard = uploadDir.resolve(addressedName.substring(0, 2))
+                .resolve(addressedName.substring(2, 4)).resolve(addressedName);
+        assertThat(addressedShard).exists().hasBinaryContent(addressed);
+        assertThat(uploadDir.resolve(addressedName)).doesNotExist();
+        assertThat(fileStorageService.getFilePath(addressedName)).isEqualTo(addressedShard);
+
+        // 이전 형식 파일은 내용 해시 파일명으로 바뀌고 분석 결과의 파일명도 갱신
+        String renamed = legacyHash + ".png";
+        Path legacyShard = uploadDir.resolve(legacyHash.substring(0, 2))
+                .resolve(legacyHash.substring(2, 4)).resolve(renamed);
+        assertThat(legacyShard).exists().hasBinaryContent(legacy);
+        assertThat(uploadDir.resolve(LEGACY_NAME)).doesNotExist();
+        ColorAnalysis updated = colorAnalysisRepository.findById(analysis.getId()).orElseThrow();
+        assertThat(updated.getStoredFileName()).isEqualTo(renamed);
+        assertThat(updated.getContentHash()).isEqualTo(legacyHash);
+
+        // 이미지가 아닌 파일은 그대로 둠
+        assertThat(uploadDir.resolve("notes.txt")).exists();
+    }
+
+    private User saveUser() {
+        return userRepository.save(User.builder()
+                .email("migration@example.com")
+                .password("password1234")
+                .name("테스트")
+                .build());
+    }
+
+    private static byte[] png(int rgb) throws IOException {
+        BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                image.setRGB(x, y, rgb);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
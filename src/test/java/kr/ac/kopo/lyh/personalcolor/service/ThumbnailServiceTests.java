@@ -0,0 +1,167 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.config.ApplicationConfig;
+import kr.ac.kopo.lyh.personalcolor.exception.ImageTooLargeException;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.CpuBoundExecutor;
+import kr.ac.kopo.lyh.personalcolor.service.analysis.DecodeBudget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 축소 이미지 생성, 동시 요청 병합, 용량 상한에 따른 LRU 정리 확인
+ */
+class ThumbnailServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void createsBoundedThumbnailOnceAndReusesIt() throws IOException {
+        ThumbnailService service = service(Long.MAX_VALUE);
+        String fileName = storeOriginal("a", 1600, 1200);
+
+        Path thumbnail = service.getThumbnail(fileName, 256, ImageFormat.JPEG);
+
+        BufferedImage image = ImageIO.read(thumbnail.toFile());
+        assertThat(image.getWidth()).isEqualTo(256);
+        assertThat(image.getHeight()).isEqualTo(192);
+        assertThat(Files.size(thumbnail)).isLessThan(Files.size(tempDir.resolve("uploads").resolve(fileName)) / 10);
+
+        assertThat(service.getThumbnail(fileName, 256, ImageFormat.JPEG)).isEqualTo(thumbnail);
+        assertThat(service.getGeneratedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotUpscaleSmallOriginals() throws IOException {
+        ThumbnailService service = service(Long.MAX_VALUE);
+        String fileName = storeOriginal("small", 100, 80);
+
+        BufferedImage image = ImageIO.read(service.getThumbnail(fileName, 512, ImageFormat.PNG).toFile());
+
+        assertThat(image.getWidth()).isEqualTo(100);
+        assertThat(image.getHeight()).isEqualTo(80);
+    }
+
+    @Test
+    void rejectsWidthsOutsideWhitelist() throws IOException {
+        ThumbnailService service = service(Long.MAX_VALUE);
+        String fileName = storeOriginal("a", 320, 240);
+
+        assertThatThrownBy(() -> service.getThumbnail(fileName, 300, ImageFormat.JPEG))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getThumbnail(fileName, 256, ImageFormat.GIF))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void coalescesConcurrentRequestsForSameVariant() throws Exception {
+        ThumbnailService service = service(Long.MAX_VALUE);
+        String fileName = storeOriginal("a", 2400, 1800);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Path>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.getThumbnail(fileName, 128, ImageFormat.JPEG);
+                }));
+            }
+            start.countDown();
+
+            Set<Path> paths = new HashSet<>();
+            for (Future<Path> result : results) {
+                paths.add(result.get());
+            }
+            assertThat(paths).hasSize(1);
+            assertThat(service.getGeneratedCount()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenOverBudget() throws IOException {
+        ThumbnailService probe = service(Long.MAX_VALUE);
+        String first = storeOriginal("a", 800, 600);
+        String second = storeOriginal("b", 800, 600);
+        String third = storeOriginal("c", 800, 600);
+        long size = Files.size(probe.getThumbnail(first, 256, ImageFormat.JPEG));
+        probe.evict(first);
+
+        ThumbnailService service = service(size * 2 + size / 2);
+        Path a = service.getThumbnail(first, 256, ImageFormat.JPEG);
+        Path b = service.getThumbnail(second, 256, ImageFormat.JPEG);
+        service.getThumbnail(first, 256, ImageFormat.JPEG);
+        Path c = service.getThumbnail(third, 256, ImageFormat.JPEG);
+
+        assertThat(a).exists();
+        assertThat(b).doesNotExist();
+        assertThat(c).exists();
+        assertThat(service.getTotalBytes()).isLessThanOrEqualTo(size * 2 + size / 2);
+    }
+
+    @Test
+    void rejectsOriginalsOverDecodePixelLimitAsTooLarge() throws IOException {
+        ThumbnailService service = service(Long.MAX_VALUE, new DecodeBudget(100_000, 0, Duration.ZERO));
+        String fileName = storeOriginal("huge", 800, 600);
+
+        assertThatThrownBy(() -> service.getThumbnail(fileName, 256, ImageFormat.JPEG))
+                .isInstanceOf(ImageTooLargeException.class);
+        assertThat(service.getGeneratedCount()).isZero();
+    }
+
+    private ThumbnailService service(long maxBytes) {
+        return service(maxBytes, DecodeBudget.UNLIMITED);
+    }
+
+    private ThumbnailService service(long maxBytes, DecodeBudget decodeBudget) {
+        ApplicationConfig.FileStorageProperties properties = new ApplicationConfig.FileStorageProperties(
+                tempDir.resolve("uploads").toString(), 0, null, null, null,
+                new ApplicationConfig.FileStorageProperties.Derivatives(
+                        tempDir.resolve("derivatives").toString(), new int[]{128, 256, 512}, maxBytes), null, null);
+        ThumbnailService service = new ThumbnailService(
+                new FileStorageService(properties, new MultipartProperties(),
+                        new HotFileCache(properties, new SimpleMeterRegistry()), DecodeBudget.UNLIMITED),
+                properties, decodeBudget, CpuBoundExecutor.CALLER_RUNS);
+        service.init();
+        return service;
+    }
+
+    /**
+     * 색이 섞인 원본 저장 (단색은 JPEG 압축률이 비현실적으로 높아 크기 비교가 무의미)
+     */
+    private String storeOriginal(String name, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, (x * 7 + y * 13) * 0x010305 ^ (x * y));
+            }
+        }
+        Path uploads = Files.createDirectories(tempDir.resolve("uploads"));
+        String fileName = name + ".png";
+        ImageIO.write(image, "png", uploads.resolve(fileName).toFile());
+        return fileName;
+    }
+}
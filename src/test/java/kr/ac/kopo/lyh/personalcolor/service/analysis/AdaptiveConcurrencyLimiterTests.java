@@ -0,0 +1,130 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 분석 수락 제어의 한도 초과 거절, 대기 시간 제한, AIMD 한도 조정 확인
+ */
+class AdaptiveConcurrencyLimiterTests {
+
+    @Test
+    void shedsImmediatelyWhenLimitAndQueueAreFull() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                1, 1, 4, 0, Duration.ofSeconds(5), Duration.ofSeconds(1), 0.5);
+
+        try (AdaptiveConcurrencyLimiter.Permit held = limiter.acquire()) {
+            long start = System.nanoTime();
+            assertThatThrownBy(limiter::acquire)
+                    .isInstanceOfSatisfying(AnalysisOverloadedException.class,
+                            e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        }
+        assertThat(limiter.getRejections()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void waitsInQueueUntilSlotIsReleased() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                1, 1, 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(1), 0.5);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire();
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            held.close();
+        });
+        releaser.start();
+
+        try (AdaptiveConcurrencyLimiter.Permit queued = limiter.acquire()) {
+            assertThat(limiter.getInFlight()).isEqualTo(1);
+        }
+        releaser.join();
+        assertThat(limiter.getRejections()).isZero();
+    }
+
+    @Test
+    void queuedRequestIsServedBeforeLaterArrival() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                1, 1, 1, 2, Duration.ofSeconds(5), Duration.ofSeconds(1), 0.5);
+        List<String> order = new CopyOnWriteArrayList<>();
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire();
+
+        Thread queued = new Thread(() -> {
+            try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire()) {
+                order.add("queued");
+            }
+        });
+        queued.start();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (limiter.getWaiting() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(limiter.getWaiting()).isEqualTo(1);
+
+        // 빈자리가 생긴 직후 도착한 요청도 먼저 기다리던 요청 뒤에 선다
+        held.close();
+        try (AdaptiveConcurrencyLimiter.Permit late = limiter.acquire()) {
+            order.add("late");
+        }
+        queued.join();
+
+        assertThat(order).containsExactly("queued", "late");
+        assertThat(limiter.getWaiting()).isZero();
+    }
+
+    @Test
+    void rejectsWhenQueueDeadlinePasses() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                1, 1, 1, 1, Duration.ofMillis(50), Duration.ofSeconds(1), 0.5);
+
+        try (AdaptiveConcurrencyLimiter.Permit held = limiter.acquire()) {
+            long start = System.nanoTime();
+            assertThatThrownBy(limiter::acquire).isInstanceOf(AnalysisOverloadedException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        }
+        assertThat(limiter.getWaiting()).isZero();
+    }
+
+    @Test
+    void growsLimitWhileFastAndBacksOffOnFailure() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                2, 1, 8, 0, Duration.ZERO, Duration.ofMinutes(1), 0.5);
+
+        for (int i = 0; i < 20; i++) {
+            AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+            AdaptiveConcurrencyLimiter.Permit second = limiter.acquire();
+            first.close();
+            second.close();
+        }
+        int grown = limiter.getLimit();
+        assertThat(grown).isGreaterThan(2);
+
+        try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire()) {
+            permit.dropped();
+        }
+        assertThat(limiter.getLimit()).isLessThan(grown);
+    }
+
+    @Test
+    void estimatesWaitFromQueueDepth() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                2, 1, 2, 0, Duration.ZERO, Duration.ofSeconds(2), 0.5);
+
+        // 관측 전에는 목표 지연 시간 기준: 앞에 10건, 한도 2 → 10초
+        assertThat(limiter.estimateWait(10)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(limiter.estimateWait(1000)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(limiter.estimateWait(0)).isEqualTo(Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,105 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Lab 룩업 테이블 정확도 및 직접 계산 대비 성능 비교
+ */
+class ColorLookupTablesTests {
+
+    private static final ColorLookupTables TABLES = ColorLookupTables.build();
+
+    @Test
+    void trilinearLookupStaysCloseToDirectConversion() {
+        double[] expected = new double[3];
+        float[] actual = new float[3];
+        double maxDeltaE = 0.0;
+
+        for (int r = 0; r < 256; r += 3) {
+            for (int g = 0; g < 256; g += 3) {
+                for (int b = 0; b < 256; b += 3) {
+                    ColorSpaces.srgbToLab(r, g, b, expected);
+                    TABLES.toLab(r, g, b, actual, 0);
+                    double dl = expected[0] - actual[0];
+                    double da = expected[1] - actual[1];
+                    double db = expected[2] - actual[2];
+                    maxDeltaE = Math.max(maxDeltaE, Math.sqrt(dl * dl + da * da + db * db));
+                }
+            }
+        }
+
+        // ΔE 1 미만은 육안으로 구분되지 않는 차이
+        assertThat(maxDeltaE).isLessThan(0.5);
+    }
+
+    @Test
+    void binTableMatchesDirectConversionOfBinCenters() {
+        double[] expected = new double[3];
+        for (int bin = 0; bin < SkinToneHistogram.BIN_COUNT; bin += 7) {
+            ColorSpaces.srgbToLab(
+                    SkinToneHistogram.binCenter(bin, 0),
+                    SkinToneHistogram.binCenter(bin, 1),
+                    SkinToneHistogram.binCenter(bin, 2),
+                    expected);
+            for (int channel = 0; channel < 3; channel++) {
+                assertThat((double) TABLES.binLab(bin, channel)).isCloseTo(expected[channel], offset(1e-4));
+            }
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void lookupIsFasterThanDirectConversion() {
+        // 실제 분석 대상과 같은 피부색 범위의 픽셀
+        SplittableRandom random = new SplittableRandom(7);
+        int[] rgb = new int[1 << 20];
+        for (int i = 0; i < rgb.length; i++) {
+            rgb[i] = (random.nextInt(150, 256) << 16) | (random.nextInt(90, 200) << 8) | random.nextInt(60, 170);
+        }
+
+        double[] direct = new double[3];
+        float[] lookup = new float[3];
+        double sink = 0.0;
+        long powNanos = Long.MAX_VALUE;
+        long linearTableNanos = Long.MAX_VALUE;
+        long lookupNanos = Long.MAX_VALUE;
+
+        for (int round = 0; round < 10; round++) {
+            // pow + cbrt 직접 계산
+            long start = System.nanoTime();
+            for (int p : rgb) {
+                ColorSpaces.srgbToLab(((p >>> 16) & 0xFF) / 255.0, ((p >>> 8) & 0xFF) / 255.0, (p & 0xFF) / 255.0, direct);
+                sink += direct[0];
+            }
+            powNanos = Math.min(powNanos, System.nanoTime() - start);
+
+            // 256 엔트리 선형화 테이블 + cbrt
+            start = System.nanoTime();
+            for (int p : rgb) {
+                ColorSpaces.srgbToLab((p >>> 16) & 0xFF, (p >>> 8) & 0xFF, p & 0xFF, direct);
+                sink += direct[0];
+            }
+            linearTableNanos = Math.min(linearTableNanos, System.nanoTime() - start);
+
+            // 64³ 삼선형 보간 LUT
+            start = System.nanoTime();
+            for (int p : rgb) {
+                TABLES.toLab((p >>> 16) & 0xFF, (p >>> 8) & 0xFF, p & 0xFF, lookup, 0);
+                sink += lookup[0];
+            }
+            lookupNanos = Math.min(lookupNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("sRGB→Lab %d px: pow+cbrt %.2f ms, 선형화 테이블+cbrt %.2f ms, 3D LUT %.2f ms "
+                        + "(pow 대비 %.1fx), LUT %d KB, checksum %.1f%n",
+                rgb.length, powNanos / 1e6, linearTableNanos / 1e6, lookupNanos / 1e6,
+                (double) powNanos / lookupNanos, TABLES.footprintBytes() / 1024, sink);
+        assertThat(lookupNanos).isLessThan(powNanos);
+    }
+}
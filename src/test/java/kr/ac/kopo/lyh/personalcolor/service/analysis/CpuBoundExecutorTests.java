@@ -0,0 +1,43 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CPU 위주 분석 실행 위치(호출 스레드 / 전용 풀) 확인
+ */
+class CpuBoundExecutorTests {
+
+    @Test
+    void callerRunsOnCallingThread() {
+        Thread caller = Thread.currentThread();
+
+        Thread ran = CpuBoundExecutor.CALLER_RUNS.call(Thread::currentThread);
+
+        assertThat(ran).isSameAs(caller);
+        assertThat(CpuBoundExecutor.CALLER_RUNS.isOffloading()).isFalse();
+    }
+
+    @Test
+    void offloadsToPoolAndRethrowsUnwrapped() {
+        try (CpuBoundExecutor executor = new CpuBoundExecutor(Executors.newFixedThreadPool(1))) {
+            AtomicReference<Thread> ran = new AtomicReference<>();
+
+            String result = executor.call(() -> {
+                ran.set(Thread.currentThread());
+                return "ok";
+            });
+
+            assertThat(result).isEqualTo("ok");
+            assertThat(ran.get()).isNotSameAs(Thread.currentThread());
+            assertThatThrownBy(() -> executor.call(() -> {
+                throw new IllegalStateException("분석 실패");
+            })).isInstanceOf(IllegalStateException.class).hasMessage("분석 실패");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 디코딩 전 픽셀 상한과 동시 디코딩 메모리 예산 확인
+ */
+class DecodeBudgetTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rejectsDeclaredDimensionsBeforeDecoding() throws IOException {
+        // 실제 픽셀 데이터는 작지만 IHDR에 30000x30000을 선언한 PNG
+        Path bomb = declareDimensions(writePng(16, 16), 30_000, 30_000);
+        SubsampledImageDecoder decoder = new SubsampledImageDecoder(new DecodeBudget(100_000_000L, 0, null));
+
+        assertThatThrownBy(() -> decoder.decode(bomb, 512))
+                .isInstanceOfSatisfying(DecodeRejectedException.class, e ->
+                        assertThat(e.getReason()).isEqualTo(DecodeRejectedException.Reason.TOO_MANY_PIXELS))
+                .hasMessageContaining("30000x30000");
+    }
+
+    @Test
+    void decodesWithinBudgetAndReleasesPermit() throws IOException {
+        DecodeBudget budget = new DecodeBudget(0, 4L * 1024 * 1024, Duration.ZERO);
+        long available = budget.availableBytes();
+
+        DecodedImage image = new SubsampledImageDecoder(budget).decode(writePng(800, 600), 256);
+
+        assertThat(image.width()).isEqualTo(200);
+        assertThat(budget.availableBytes()).isEqualTo(available);
+    }
+
+    @Test
+    void rejectsWhenConcurrentBudgetIsExhausted() throws Exception {
+        DecodeBudget budget = new DecodeBudget(0, 1024 * 1024, Duration.ofMillis(50));
+
+        try (DecodeBudget.Permit held = budget.acquire(256, 512)) {
+            assertThatThrownBy(() -> budget.acquire(256, 256))
+                    .isInstanceOfSatisfying(DecodeRejectedException.class, e ->
+                            assertThat(e.getReason()).isEqualTo(DecodeRejectedException.Reason.BUDGET_EXHAUSTED));
+        }
+        budget.acquire(256, 256).close();
+    }
+
+    @Test
+    void waitsForReleasedBudgetWithinMaxWait() throws Exception {
+        DecodeBudget budget = new DecodeBudget(0, 1024 * 1024, Duration.ofSeconds(5));
+        DecodeBudget.Permit held = budget.acquire(256, 512);
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            held.close();
+        });
+        releaser.start();
+
+        try (DecodeBudget.Permit queued = budget.acquire(256, 512)) {
+            assertThat(budget.availableBytes()).isZero();
+        }
+        releaser.join();
+    }
+
+    @Test
+    void oversizedRequestRunsAloneInsteadOfFailing() throws Exception {
+        DecodeBudget budget = new DecodeBudget(0, 1024 * 1024, Duration.ZERO);
+
+        try (DecodeBudget.Permit permit = budget.acquire(4000, 3000)) {
+            assertThat(budget.availableBytes()).isZero();
+        }
+        assertThat(budget.availableBytes()).isEqualTo(1024 * 1024);
+    }
+
+    private Path writePng(int width, int height) throws IOException {
+        Path file = tempDir.resolve(width + "x" + height + ".png");
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+        return file;
+    }
+
+    /**
+     * PNG IHDR의 너비/높이를 바꾸고 CRC를 다시 계산
+     */
+    private Path declareDimensions(Path png, int width, int height) throws IOException {
+        byte[] bytes = Files.readAllBytes(png);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putInt(16, width);
+        buffer.putInt(20, height);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 12, 17);
+        buffer.putInt(29, (int) crc.getValue());
+        return Files.write(tempDir.resolve("bomb.png"), bytes);
+    }
+}
@@ -0,0 +1,122 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 대표 색상 추출 정확도 및 512px 이미지 처리 시간
+ */
+class DominantPaletteExtractorTests {
+
+    private static final int SIZE = 512;
+    private static final int SKIN = 0xE0AC90;
+    private static final int HAIR = 0x2A1A14;
+    private static final int EYE = 0x1E1A2A;
+    private static final int BACKGROUND = 0x5078C8;
+
+    private final DominantPaletteExtractor extractor = new DominantPaletteExtractor(ColorLookupTables.build());
+    private final SkinRegionDetector detector = new SkinRegionDetector();
+
+    @Test
+    void labelsSkinHairAndEyeClusters() {
+        int[] argb = portrait(new SplittableRandom(3));
+        SkinRegion face = detector.detect(argb, SIZE, SIZE);
+
+        DominantPalette palette = extractor.extract(argb, SIZE, SIZE, face);
+
+        assertThat(palette).isNotNull();
+        assertThat(distance(palette.colors()[palette.skinIndex()], SKIN)).isLessThan(12);
+        assertThat(distance(palette.colors()[palette.hairIndex()], HAIR)).isLessThan(12);
+        assertThat(distance(palette.colors()[palette.eyeIndex()], EYE)).isLessThan(12);
+    }
+
+    @Test
+    void sameImageYieldsSamePalette() {
+        int[] argb = portrait(new SplittableRandom(5));
+
+        DominantPalette first = extractor.extract(argb, SIZE, SIZE, null);
+        DominantPalette second = extractor.extract(argb, SIZE, SIZE, null);
+
+        assertThat(second.colors()).containsExactly(first.colors());
+        assertThat(second.weights()).containsExactly(first.weights());
+    }
+
+    @Test
+    void labToSrgbRoundTripsEightBitColors() {
+        double[] lab = new double[3];
+        for (int rgb : new int[]{SKIN, HAIR, EYE, BACKGROUND, 0x000000, 0xFFFFFF}) {
+            ColorSpaces.srgbToLab((rgb >>> 16) & 0xFF, (rgb >>> 8) & 0xFF, rgb & 0xFF, lab);
+            assertThat(ColorSpaces.labToSrgb(lab[0], lab[1], lab[2])).isEqualTo(rgb);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void extractsWithinSingleDigitMillisecondsAt512px() {
+        int[] argb = portrait(new SplittableRandom(11));
+        SkinRegion face = detector.detect(argb, SIZE, SIZE);
+
+        for (int i = 0; i < 200; i++) {
+            extractor.extract(argb, SIZE, SIZE, face);
+        }
+
+        long[] nanos = new long[101];
+        for (int i = 0; i < nanos.length; i++) {
+            long start = System.nanoTime();
+            extractor.extract(argb, SIZE, SIZE, face);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        double medianMillis = nanos[nanos.length / 2] / 1e6;
+        System.out.printf("palette 512px median=%.3fms p99=%.3fms%n",
+                medianMillis, nanos[nanos.length - 2] / 1e6);
+        assertThat(medianMillis).isLessThan(10.0);
+    }
+
+    /**
+     * 배경, 머리카락, 얼굴, 두 눈으로 구성된 합성 인물 이미지 (채널별 ±6 노이즈)
+     */
+    private static int[] portrait(SplittableRandom random) {
+        int[] argb = new int[SIZE * SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                int color = BACKGROUND;
+                if (x >= 136 && x < 376 && y >= 60 && y < 180) {
+                    color = HAIR;
+                }
+                if (x >= 166 && x < 346 && y >= 150 && y < 420) {
+                    color = SKIN;
+                }
+                if (y >= 230 && y < 256 && ((x >= 200 && x < 236) || (x >= 276 && x < 312))) {
+                    color = EYE;
+                }
+                argb[y * SIZE + x] = 0xFF000000 | jitter(color, random);
+            }
+        }
+        return argb;
+    }
+
+    private static int jitter(int rgb, SplittableRandom random) {
+        int r = clamp(((rgb >>> 16) & 0xFF) + random.nextInt(-6, 7));
+        int g = clamp(((rgb >>> 8) & 0xFF) + random.nextInt(-6, 7));
+        int b = clamp((rgb & 0xFF) + random.nextInt(-6, 7));
+        return (r << 16) | (g << 8) | b;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+
+    private static double distance(int rgb1, int rgb2) {
+        int dr = ((rgb1 >>> 16) & 0xFF) - ((rgb2 >>> 16) & 0xFF);
+        int dg = ((rgb1 >>> 8) & 0xFF) - ((rgb2 >>> 8) & 0xFF);
+        int db = (rgb1 & 0xFF) - (rgb2 & 0xFF);
+        return Math.sqrt(dr * dr + dg * dg + db * db);
+    }
+}
@@ -0,0 +1,90 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * dHash의 재압축/잘라내기 내성 및 다른 사진 구분
+ */
+class PerceptualHashTests {
+
+    private static final int MAX_DISTANCE = 6;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recompressedAndSlightlyCroppedCopiesStayWithinThreshold() throws IOException {
+        BufferedImage original = scene(640, 480, 1);
+        long reference = PerceptualHash.of(writeJpeg(original, 0.95f, "original.jpg"));
+
+        long recompressed = PerceptualHash.of(writeJpeg(original, 0.4f, "recompressed.jpg"));
+        long cropped = PerceptualHash.of(writeJpeg(original.getSubimage(8, 6, 624, 468), 0.8f, "cropped.jpg"));
+        long resized = PerceptualHash.of(writeJpeg(resize(original, 320, 240), 0.8f, "resized.jpg"));
+
+        assertThat(PerceptualHash.distance(reference, recompressed)).isLessThanOrEqualTo(MAX_DISTANCE);
+        assertThat(PerceptualHash.distance(reference, cropped)).isLessThanOrEqualTo(MAX_DISTANCE);
+        assertThat(PerceptualHash.distance(reference, resized)).isLessThanOrEqualTo(MAX_DISTANCE);
+    }
+
+    @Test
+    void differentPhotosAreFarApart() throws IOException {
+        long first = PerceptualHash.of(writeJpeg(scene(640, 480, 1), 0.9f, "first.jpg"));
+        long second = PerceptualHash.of(writeJpeg(scene(640, 480, 2), 0.9f, "second.jpg"));
+
+        assertThat(PerceptualHash.distance(first, second)).isGreaterThan(MAX_DISTANCE * 2);
+    }
+
+    /**
+     * 시드별로 다른 위치의 밝고 어두운 타원들로 구성된 장면
+     */
+    private static BufferedImage scene(int width, int height, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        var g = image.createGraphics();
+        g.setColor(new java.awt.Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+        g.fillRect(0, 0, width, height);
+        for (int i = 0; i < 12; i++) {
+            g.setColor(new java.awt.Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+            g.fillOval(random.nextInt(width), random.nextInt(height), 80 + random.nextInt(240), 80 + random.nextInt(240));
+        }
+        g.dispose();
+        return image;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        var g = resized.createGraphics();
+        g.setRenderingHint(java.awt.RenderingHints.KEY_INTERPOLATION, java.awt.RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return resized;
+    }
+
+    private Path writeJpeg(BufferedImage image, float quality, String name) throws IOException {
+        Path file = tempDir.resolve(name);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,151 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.config.AnalysisConfig;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis.ColorType;
+import kr.ac.kopo.lyh.personalcolor.exception.FileStorageException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 합성 피부 패치의 웜/쿨 판정, 순차/병렬 누적의 신뢰도 일치, 이미지가 아닌 파일 거절 확인
+ */
+class PixelColorAnalyzerTests {
+
+    private static final int SIZE = 256;
+    /** 밝고 노란 기운의 피부 (색상각 약 60°, 봄 웜톤 원형 근처) */
+    private static final int WARM_SKIN = 0xE0B090;
+    /** 붉은 기운의 피부 (색상각 약 21°, 여름 쿨톤 원형 근처) */
+    private static final int COOL_SKIN = 0xD7A0A0;
+    private static final int BACKGROUND = 0x5078C8;
+
+    private static final ColorLookupTables TABLES = ColorLookupTables.build();
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void classifiesWarmAndCoolSkinPatches() {
+        PixelColorAnalyzer analyzer = analyzer(new AnalysisConfig.AnalysisProperties.Parallel(0, 0, 0));
+
+        AnalysisResult warm = analyzer.analyze(patch(WARM_SKIN, new SplittableRandom(1)), SIZE, SIZE);
+        AnalysisResult cool = analyzer.analyze(patch(COOL_SKIN, new SplittableRandom(1)), SIZE, SIZE);
+
+        assertThat(warm.colorType()).isEqualTo(ColorType.SPRING_WARM);
+        assertThat(cool.colorType()).isEqualTo(ColorType.SUMMER_COOL);
+        assertThat(warm.features().hue()).isGreaterThan(cool.features().hue());
+        assertThat(warm.confidence()).isBetween(0.0, 1.0);
+        assertThat(cool.confidence()).isBetween(0.0, 1.0);
+    }
+
+    @Test
+    void sequentialAndParallelAccumulationYieldSameConfidence() {
+        int[] argb = patch(WARM_SKIN, new SplittableRandom(7));
+        PixelColorAnalyzer sequential = analyzer(new AnalysisConfig.AnalysisProperties.Parallel(Integer.MAX_VALUE, 0, 0));
+        PixelColorAnalyzer parallel = analyzer(new AnalysisConfig.AnalysisProperties.Parallel(1, 1024, 4));
+
+        AnalysisResult first = sequential.analyze(argb, SIZE, SIZE);
+        AnalysisResult again = sequential.analyze(argb, SIZE, SIZE);
+        AnalysisResult tiled = parallel.analyze(argb, SIZE, SIZE);
+
+        assertThat(again.confidence()).isEqualTo(first.confidence());
+        assertThat(tiled.colorType()).isEqualTo(first.colorType());
+        assertThat(tiled.confidence()).isEqualTo(first.confidence());
+        assertThat(tiled.scores()).containsExactly(first.scores());
+    }
+
+    @Test
+    void returnsNeutralWithoutConfidenceWhenNoSkinIsFound() {
+        int[] argb = new int[SIZE * SIZE];
+        Arrays.fill(argb, 0xFF000000 | BACKGROUND);
+
+        AnalysisResult result = analyzer(new AnalysisConfig.AnalysisProperties.Parallel(0, 0, 0))
+                .analyze(argb, SIZE, SIZE);
+
+        assertThat(result.colorType()).isEqualTo(ColorType.NEUTRAL);
+        assertThat(result.confidence()).isZero();
+    }
+
+    @Test
+    void analyzesImageFileThroughLocalEngine() throws IOException {
+        Path file = tempDir.resolve("warm.png");
+        BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, SIZE, SIZE, patch(WARM_SKIN, new SplittableRandom(3)), 0, SIZE);
+        ImageIO.write(image, "png", file.toFile());
+        LocalColorAnalysisEngine engine = new LocalColorAnalysisEngine(
+                analyzer(new AnalysisConfig.AnalysisProperties.Parallel(0, 0, 0)));
+
+        AnalysisResult first = engine.analyze(file);
+        AnalysisResult second = engine.analyze(file);
+
+        assertThat(first.colorType()).isEqualTo(ColorType.SPRING_WARM);
+        assertThat(second.confidence()).isEqualTo(first.confidence());
+        assertThat(first.palette()).isNotNull();
+    }
+
+    @Test
+    void rejectsNonImageFile() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("note.png"), "not an image", StandardCharsets.UTF_8);
+        LocalColorAnalysisEngine engine = new LocalColorAnalysisEngine(
+                analyzer(new AnalysisConfig.AnalysisProperties.Parallel(0, 0, 0)));
+
+        assertThatThrownBy(() -> engine.analyze(file))
+                .isExactlyInstanceOf(FileStorageException.class);
+    }
+
+    private PixelColorAnalyzer analyzer(AnalysisConfig.AnalysisProperties.Parallel parallel) {
+        AnalysisConfig.AnalysisProperties properties = new AnalysisConfig.AnalysisProperties(
+                null, SIZE, false, parallel, null, null, null, null, null, null);
+        return new PixelColorAnalyzer(properties, new AnalysisMetrics(new SimpleMeterRegistry()), pool,
+                TABLES, DecodeBudget.UNLIMITED);
+    }
+
+    /**
+     * 배경 위의 타원형 피부 패치 (피부색에 ±4 잡음)
+     */
+    private static int[] patch(int skin, SplittableRandom random) {
+        int[] argb = new int[SIZE * SIZE];
+        double center = SIZE / 2.0;
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                double dx = (x - center) / (SIZE * 0.3);
+                double dy = (y - center) / (SIZE * 0.4);
+                int rgb = dx * dx + dy * dy <= 1.0 ? jitter(skin, random) : BACKGROUND;
+                argb[y * SIZE + x] = 0xFF000000 | rgb;
+            }
+        }
+        return argb;
+    }
+
+    private static int jitter(int rgb, SplittableRandom random) {
+        int r = clamp(((rgb >>> 16) & 0xFF) + random.nextInt(-4, 5));
+        int g = clamp(((rgb >>> 8) & 0xFF) + random.nextInt(-4, 5));
+        int b = clamp((rgb & 0xFF) + random.nextInt(-4, 5));
+        return (r << 16) | (g << 8) | b;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
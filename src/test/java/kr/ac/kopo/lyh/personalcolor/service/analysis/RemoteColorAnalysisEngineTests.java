@@ -0,0 +1,132 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import kr.ac.kopo.lyh.personalcolor.config.AnalysisConfig;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisEngineException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 로컬 스텁 모델 서버를 이용한 원격 분석 엔진 테스트
+ */
+class RemoteColorAnalysisEngineTests {
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private ConnectionProvider connectionProvider;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile int responseStatus = 200;
+    private volatile String responseBody = "{}";
+    private volatile long responseDelayMillis;
+
+    private Path imageFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/predict", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        connectionProvider = ConnectionProvider.builder("model-server-test").maxConnections(4).build();
+        imageFile = Files.write(tempDir.resolve("face.jpg"), new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF});
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void mapsPredictResponseToAnalysisResult() {
+        responseBody = "{\"season\":\"autumn\",\"tone\":\"warm\",\"confidence\":0.82}";
+
+        AnalysisResult result = newEngine(2).analyze(imageFile);
+
+        assertThat(result.colorType()).isEqualTo(ColorAnalysis.ColorType.AUTUMN_WARM);
+        assertThat(result.confidence()).isEqualTo(0.82);
+        assertThat(requestCount).hasValue(1);
+    }
+
+    @Test
+    void slowModelServerFailsWithinResponseTimeout() {
+        responseDelayMillis = 2000;
+        RemoteColorAnalysisEngine engine = newEngine(2);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> engine.analyze(imageFile)).isInstanceOf(AnalysisEngineException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndFailsFast() {
+        responseStatus = 500;
+        RemoteColorAnalysisEngine engine = newEngine(2);
+
+        assertThatThrownBy(() -> engine.analyze(imageFile)).isInstanceOf(AnalysisEngineException.class);
+        assertThatThrownBy(() -> engine.analyze(imageFile)).isInstanceOf(AnalysisEngineException.class);
+        assertThat(engine.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> engine.analyze(imageFile))
+                .isInstanceOfSatisfying(AnalysisEngineException.class,
+                        e -> assertThat(e.getRetryAfter()).isPositive());
+        assertThat(requestCount).hasValue(2);
+    }
+
+    private RemoteColorAnalysisEngine newEngine(int failureThreshold) {
+        AnalysisConfig.AnalysisProperties.Remote properties = new AnalysisConfig.AnalysisProperties.Remote(
+                "http://127.0.0.1:" + server.getAddress().getPort(),
+                "/predict",
+                4,
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(30),
+                Duration.ofMillis(500),
+                Duration.ofMillis(300),
+                2,
+                Duration.ofMillis(50),
+                failureThreshold,
+                Duration.ofMinutes(1));
+        return new RemoteColorAnalysisEngine(WebClient.builder(), connectionProvider, properties);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        if (responseDelayMillis > 0) {
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(responseStatus, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        exchange.close();
+    }
+}
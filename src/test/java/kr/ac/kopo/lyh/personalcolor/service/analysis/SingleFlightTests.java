@@ -0,0 +1,120 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 같은 키의 동시 호출 병합, 예외 공유, 진행 중 항목 정리 확인
+ */
+class SingleFlightTests {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void concurrentCallersWithSameKeyShareOneExecution() throws Exception {
+        SingleFlight<String, Object> singleFlight = new SingleFlight<>(16);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Object>> calls = new ArrayList<>();
+            calls.add(executor.submit(() -> singleFlight.execute("user:sha", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return result;
+            })));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            for (int i = 1; i < CALLERS; i++) {
+                calls.add(executor.submit(() -> singleFlight.execute("user:sha", () -> {
+                    executions.incrementAndGet();
+                    return new Object();
+                })));
+            }
+            waitUntilShared(singleFlight, CALLERS - 1);
+            assertThat(singleFlight.inFlight()).isEqualTo(1);
+            release.countDown();
+
+            for (Future<Object> call : calls) {
+                assertThat(call.get(5, TimeUnit.SECONDS)).isSameAs(result);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void differentKeysRunIndependently() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(1);
+
+        String outer = singleFlight.execute("a", () -> "a-" + singleFlight.execute("b", () -> "b"));
+
+        assertThat(outer).isEqualTo("a-b");
+        assertThat(singleFlight.getShared()).isZero();
+    }
+
+    @Test
+    void followersReceiveLeaderFailureAndKeyIsReleased() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(4);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("엔진 실패");
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<String> follower = executor.submit(() -> singleFlight.execute("key", () -> "다시 실행"));
+            waitUntilShared(singleFlight, 1);
+            release.countDown();
+
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("엔진 실패");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 끝난 키는 남지 않으므로 다음 호출은 새로 실행
+        assertThat(singleFlight.inFlight()).isZero();
+        assertThat(singleFlight.execute("key", () -> "재시도")).isEqualTo("재시도");
+    }
+
+    private static void waitUntilShared(SingleFlight<?, ?> singleFlight, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getShared() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(singleFlight.getShared()).isEqualTo(expected);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
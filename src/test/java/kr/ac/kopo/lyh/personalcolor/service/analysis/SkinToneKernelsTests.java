@@ -0,0 +1,53 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * SIMD 커널과 스칼라 커널의 결과 일치 검증
+ * SIMD 커널은 -PvectorApi 빌드에서만 실행된다.
+ */
+class SkinToneKernelsTests {
+
+    @Test
+    void vectorKernelMatchesScalarKernelBitForBit() {
+        SkinToneKernel vector = SkinToneKernels.select(true);
+        assumeTrue(vector != SkinToneKernels.scalar(), "Vector API 커널을 사용할 수 없습니다.");
+
+        SkinToneClassifier classifier = new SkinToneClassifier(ColorLookupTables.build());
+        SplittableRandom random = new SplittableRandom(42);
+        // 벡터 길이로 나누어떨어지지 않는 길이와 오프셋으로 나머지 처리까지 검증
+        int[] argb = new int[512 * 384 + 13];
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < argb.length; i++) {
+                argb[i] = random.nextInt(3) == 0
+                        ? random.nextInt()
+                        : 0xFF000000
+                        | (random.nextInt(150, 256) << 16)
+                        | (random.nextInt(90, 200) << 8)
+                        | random.nextInt(60, 170);
+            }
+
+            SkinToneHistogram expected = new SkinToneHistogram();
+            SkinToneHistogram actual = new SkinToneHistogram();
+            SkinToneKernels.scalar().accumulate(expected, argb, 5, argb.length - 5);
+            vector.accumulate(actual, argb, 5, argb.length - 5);
+
+            assertThat(actual.getSkinPixels()).isEqualTo(expected.getSkinPixels());
+            assertThat(actual.getTotalPixels()).isEqualTo(expected.getTotalPixels());
+            for (int bin = 0; bin < SkinToneHistogram.BIN_COUNT; bin++) {
+                assertThat(actual.count(bin)).as("bin %d", bin).isEqualTo(expected.count(bin));
+            }
+
+            AnalysisResult expectedResult = classifier.classify(expected);
+            AnalysisResult actualResult = classifier.classify(actual);
+            assertThat(actualResult.colorType()).isEqualTo(expectedResult.colorType());
+            assertThat(actualResult.confidence()).isEqualTo(expectedResult.confidence());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package kr.ac.kopo.lyh.personalcolor.service.analysis;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API(jdk.incubator.vector) 기반 SIMD 피부 히스토그램 커널
+ *
+ * ARGB 언패킹, 정수 YCbCr 변환, 피부 마스크를 레인 단위로 처리하고
+ * 마스크된 레인만 히스토그램 빈에 누적한다. 모든 연산이 스칼라 구현과 같은 정수 연산이므로
+ * SkinToneHistogram.accumulate와 비트 단위로 동일한 결과를 낸다.
+ */
+final class VectorSkinToneKernel implements SkinToneKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int SHIFT = 8 - SkinToneHistogram.CHANNEL_BITS;
+
+    @Override
+    public void accumulate(SkinToneHistogram histogram, int[] argb, int offset, int length) {
+        int[] bins = histogram.bins();
+        int[] laneBins = new int[SPECIES.length()];
+        long skin = 0;
+        long total = 0;
+
+        int i = offset;
+        int upperBound = offset + SPECIES.loopBound(length);
+        for (; i < upperBound; i += SPECIES.length()) {
+            IntVector p = IntVector.fromArray(SPECIES, argb, i);
+            VectorMask<Integer> opaque = p.lanewise(VectorOperators.LSHR, 24)
+                    .compare(VectorOperators.GE, SkinToneHistogram.ALPHA_MIN);
+
+            IntVector r = p.lanewise(VectorOperators.LSHR, 16).and(0xFF);
+            IntVector g = p.lanewise(VectorOperators.LSHR, 8).and(0xFF);
+            IntVector b = p.and(0xFF);
+
+            IntVector y = r.mul(77).add(g.mul(150)).add(b.mul(29))
+                    .lanewise(VectorOperators.ASHR, 8);
+            IntVector cb = r.mul(-43).sub(g.mul(85)).add(b.mul(128))
+                    .lanewise(VectorOperators.ASHR, 8).add(128);
+            IntVector cr = r.mul(128).sub(g.mul(107)).sub(b.mul(21))
+                    .lanewise(VectorOperators.ASHR, 8).add(128);
+
+            VectorMask<Integer> skinMask = opaque
+                    .and(y.compare(VectorOperators.GE, SkinToneHistogram.Y_MIN))
+                    .and(cb.compare(VectorOperators.GE, SkinToneHistogram.CB_MIN))
+                    .and(cb.compare(VectorOperators.LE, SkinToneHistogram.CB_MAX))
+                    .and(cr.compare(VectorOperators.GE, SkinToneHistogram.CR_MIN))
+                    .and(cr.compare(VectorOperators.LE, SkinToneHistogram.CR_MAX));
+
+            total += opaque.trueCount();
+            if (!skinMask.anyTrue()) {
+                continue;
+            }
+
+            r.lanewise(VectorOperators.LSHR, SHIFT).lanewise(VectorOperators.LSHL, 2 * SkinToneHistogram.CHANNEL_BITS)
+                    .or(g.lanewise(VectorOperators.LSHR, SHIFT).lanewise(VectorOperators.LSHL, SkinToneHistogram.CHANNEL_BITS))
+                    .or(b.lanewise(VectorOperators.LSHR, SHIFT))
+                    .intoArray(laneBins, 0);
+
+            long lanes = skinMask.toLong();
+            skin += Long.bitCount(lanes);
+            while (lanes != 0) {
+                bins[laneBins[Long.numberOfTrailingZeros(lanes)]]++;
+                lanes &= lanes - 1;
+            }
+        }
+        histogram.addPixelCounts(skin, total);
+
+        // 벡터 길이에 못 미치는 나머지 픽셀은 스칼라로 처리
+        int end = offset + length;
+        if (i < end) {
+            histogram.accumulate(argb, i, end - i);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+}